@@ -0,0 +1,85 @@
+package com.ogc.boardingschedule.benchmark;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.loadtest.DatasetGenerator;
+import com.ogc.boardingschedule.repositories.RowMappers;
+import com.ogc.boardingschedule.service.BoardingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de agendamento do BoardingService sobre a massa semeada, do índice em memória até o banco.
+ * Inclusões usam datas depois dos embarques semeados, uma por empregado a cada volta, e alterações movem os
+ * embarques semeados um dia para frente e de volta, então toda chamada é aceita pelas regras de embarque.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardingServiceBenchmark {
+
+    @Param({"30"})
+    int periodDays;
+
+    private BoardingService boardingService;
+    private DatasetGenerator dataset;
+    private List<BoardSchedule> schedules;
+    private boolean[] moved;
+    private int periods;
+
+    private long inserts;
+    private int nextUpdate;
+    private int nextPeriod;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication application) {
+        boardingService = application.getBean(BoardingService.class);
+        dataset = application.getDataset();
+        schedules = new JdbcTemplate(application.getBean(DataSource.class)).query(
+                "SELECT id, employee_id, init_date, end_date FROM board_schedule ORDER BY id", RowMappers.BOARD_SCHEDULE);
+        moved = new boolean[schedules.size()];
+        periods = (int) Math.max(1, ChronoUnit.DAYS.between(dataset.getStartDate(), dataset.getLastBusyDate()) / periodDays);
+    }
+
+    @Benchmark
+    public void insertNewBoarding() {
+        long round = inserts / dataset.getEmployees();
+        long employeeId = inserts % dataset.getEmployees() + 1;
+        inserts++;
+        LocalDate initDate = dataset.getFirstFreeDate().plusDays(round * DatasetGenerator.MIN_HITCH_SPACING_DAYS);
+        boardingService.insertNewBoarding(employeeId, initDate).block();
+    }
+
+    @Benchmark
+    public void updateBoardingSchedule() {
+        int i = nextUpdate;
+        nextUpdate = (nextUpdate + 1) % schedules.size();
+        BoardSchedule schedule = schedules.get(i);
+        moved[i] = !moved[i];
+        LocalDate initDate = moved[i] ? schedule.getInitDate().plusDays(1) : schedule.getInitDate();
+        boardingService.updateBoardingSchedule(schedule.getId(), schedule.getEmployeeId(), initDate).block();
+    }
+
+    @Benchmark
+    public List<BoardingDetail> getBoardingScheduleBetweenDates() {
+        LocalDate initDate = dataset.getStartDate().plusDays((long) nextPeriod * periodDays);
+        nextPeriod = (nextPeriod + 1) % periods;
+        return boardingService.getBoardingScheduleBetweenDates(initDate, initDate.plusDays(periodDays - 1))
+                .collectList()
+                .block();
+    }
+}
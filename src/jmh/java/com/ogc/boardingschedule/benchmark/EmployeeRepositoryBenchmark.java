@@ -0,0 +1,58 @@
+package com.ogc.boardingschedule.benchmark;
+
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.loadtest.DatasetGenerator;
+import com.ogc.boardingschedule.repositories.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca de empregados por nome sobre a massa semeada. Os nomes seguem uma sequência sorteada com semente fixa,
+ * sempre a mesma entre execuções, para que o cache de detalhes não responda só o mesmo empregado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeRepositoryBenchmark {
+
+    private static final int NAMES = 4096;
+
+    @Param({"false"})
+    boolean fuzzy;
+
+    @Param({"50"})
+    int limit;
+
+    private EmployeeRepository employeeRepository;
+    private String[] names;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication application) {
+        employeeRepository = application.getBean(EmployeeRepository.class);
+        int employees = Math.max(1, application.getDataset().getEmployees());
+        Random random = new Random(application.seed);
+        names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = DatasetGenerator.employeeName(random.nextInt(employees) + 1);
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeDetail> getEmployeeDetailByName() {
+        String name = names[next];
+        next = (next + 1) % NAMES;
+        return employeeRepository.getEmployeeDetailByName(name, limit, fuzzy).collectList().block();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ogc.boardingschedule.benchmark;
+
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.repositories.RowMappers;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o BeanPropertyRowMapper usado antes com os RowMappers por posição sobre um result set em memória,
+ * isolando o custo do mapeamento do custo da consulta.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowMapperBenchmark {
+
+    private static final String[] ROLES = {"Funcionario", "Mergulhador", "Soldador", "Cozinheiro", "Eletricista"};
+
+    @Param({"1000"})
+    int rows;
+
+    private SimpleResultSet boardingDetails;
+    private SimpleResultSet employeeDetails;
+
+    private final RowMapper<BoardingDetail> beanBoardingDetailMapper = BeanPropertyRowMapper.newInstance(BoardingDetail.class);
+    private final RowMapper<EmployeeDetail> beanEmployeeDetailMapper = BeanPropertyRowMapper.newInstance(EmployeeDetail.class);
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        boardingDetails = new SimpleResultSet();
+        boardingDetails.setAutoClose(false);
+        boardingDetails.addColumn("ID", Types.BIGINT, 19, 0);
+        boardingDetails.addColumn("INITDATE", Types.TIMESTAMP, 26, 0);
+        boardingDetails.addColumn("ENDDATE", Types.TIMESTAMP, 26, 0);
+        boardingDetails.addColumn("EMPLOYEEID", Types.BIGINT, 19, 0);
+        boardingDetails.addColumn("EMPLOYEENAME", Types.VARCHAR, 150, 0);
+        boardingDetails.addColumn("ROLE", Types.VARCHAR, 150, 0);
+        boardingDetails.addColumn("ENTERPRISEID", Types.BIGINT, 19, 0);
+        boardingDetails.addColumn("ENTERPRISENAME", Types.VARCHAR, 150, 0);
+
+        employeeDetails = new SimpleResultSet();
+        employeeDetails.setAutoClose(false);
+        employeeDetails.addColumn("ID", Types.BIGINT, 19, 0);
+        employeeDetails.addColumn("NAME", Types.VARCHAR, 150, 0);
+        employeeDetails.addColumn("ROLE", Types.VARCHAR, 150, 0);
+        employeeDetails.addColumn("ENTERPRISE_ID", Types.BIGINT, 19, 0);
+        employeeDetails.addColumn("ENTERPRISENAME", Types.VARCHAR, 150, 0);
+
+        for (int i = 0; i < rows; i++) {
+            long employeeId = i / 4 + 1;
+            long enterpriseId = i % 20 + 1;
+            // o driver devolve uma nova String por linha, mesmo para valores repetidos
+            String role = new String(ROLES[i % ROLES.length]);
+            String enterpriseName = new String("Empresa " + enterpriseId);
+            LocalDateTime initDate = start.plusDays(i % 365);
+            boardingDetails.addRow((long) i + 1, Timestamp.valueOf(initDate), Timestamp.valueOf(initDate.plusDays(15)),
+                    employeeId, "Empregado " + employeeId, role, enterpriseId, enterpriseName);
+            employeeDetails.addRow(employeeId, "Empregado " + employeeId, role, enterpriseId, enterpriseName);
+        }
+    }
+
+    @Benchmark
+    public void beanPropertyBoardingDetail(Blackhole blackhole) throws SQLException {
+        map(boardingDetails, beanBoardingDetailMapper, blackhole);
+    }
+
+    @Benchmark
+    public void indexedBoardingDetail(Blackhole blackhole) throws SQLException {
+        map(boardingDetails, RowMappers.BOARDING_DETAIL, blackhole);
+    }
+
+    @Benchmark
+    public void beanPropertyEmployeeDetail(Blackhole blackhole) throws SQLException {
+        map(employeeDetails, beanEmployeeDetailMapper, blackhole);
+    }
+
+    @Benchmark
+    public void indexedEmployeeDetail(Blackhole blackhole) throws SQLException {
+        map(employeeDetails, RowMappers.EMPLOYEE_DETAIL, blackhole);
+    }
+
+    private static <T> void map(SimpleResultSet resultSet, RowMapper<T> rowMapper, Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        int rowNum = 0;
+        while (resultSet.next()) {
+            blackhole.consume(rowMapper.mapRow(resultSet, rowNum++));
+        }
+    }
+}
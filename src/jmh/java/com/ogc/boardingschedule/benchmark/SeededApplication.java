@@ -0,0 +1,90 @@
+package com.ogc.boardingschedule.benchmark;
+
+import com.ogc.boardingschedule.BoardingScheduleApplication;
+import com.ogc.boardingschedule.loadtest.DatasetGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Aplicação completa, sem servidor web, sobre um H2 em memória semeado pelo DatasetGenerator antes de subir.
+ * Cada trial usa um banco novo, então os números não dependem do que outro benchmark gravou. O tamanho da massa,
+ * a semente e o profile de repositórios ({@code jdbc} ou {@code r2dbc}) vêm dos parâmetros do JMH, por exemplo
+ * {@code -p employees=100000 -p profile=jdbc,r2dbc}.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    private static final String USERNAME = "sa";
+
+    @Param({"jdbc"})
+    String profile;
+
+    @Param({"10"})
+    int enterprises;
+
+    @Param({"10000"})
+    int employees;
+
+    @Param({"4"})
+    int boardingsPerEmployee;
+
+    @Param({"42"})
+    long seed;
+
+    private DatasetGenerator dataset;
+    private ConfigurableApplicationContext context;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        String database = "benchmark_" + profile + "_" + System.nanoTime();
+        url = "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+        dataset = new DatasetGenerator(enterprises, employees, boardingsPerEmployee, seed, LocalDate.now().plusDays(1));
+        dataset.generate(url, USERNAME, "");
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BoardingScheduleApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + url,
+                        "boarding.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "boarding.occupancy.rebuild-cron=-",
+                        "springfox.documentation.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.com.ogc=warn");
+        if ("r2dbc".equals(profile)) {
+            builder.profiles("r2dbc");
+        } else if (!"jdbc".equals(profile)) {
+            throw new IllegalArgumentException("Profile de benchmark desconhecido: " + profile);
+        }
+        context = builder.run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws SQLException {
+        context.close();
+        try (Connection connection = DriverManager.getConnection(url, USERNAME, "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public DatasetGenerator getDataset() {
+        return dataset;
+    }
+}
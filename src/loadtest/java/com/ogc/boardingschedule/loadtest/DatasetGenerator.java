@@ -0,0 +1,236 @@
+package com.ogc.boardingschedule.loadtest;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Preenche {@code enterprise}, {@code employee} e {@code board_schedule} com inserts em lote, direto por JDBC e
+ * antes de a aplicação subir, para que os índices em memória e a ocupação diária sejam carregados do banco já
+ * semeado. A mesma semente e a mesma data inicial geram sempre os mesmos dados, até 1 mil empresas, 1 milhão de
+ * empregados e 10 milhões de embarques.
+ * <p>
+ * O tamanho das empresas segue uma distribuição de Zipf, com poucas empresas concentrando boa parte dos
+ * empregados, e os cargos têm pesos diferentes. Cada empregado tem de zero ao dobro da média de embarques, com
+ * intervalos sorteados entre {@link #MIN_HITCH_SPACING_DAYS} e {@link #MAX_HITCH_SPACING_DAYS} dias entre inícios.
+ * <p>
+ * Os ids saem em sequência a partir de 1, então o banco precisa estar vazio. O empregado {@code n} se chama
+ * {@code "Empregado n"}, e qualquer embarque semeado pode ser movido um dia para frente sem violar as regras.
+ * <p>
+ * Argumentos do main: url JDBC, empresas (100), empregados (10000), média de embarques por empregado (4) e semente (42).
+ */
+public final class DatasetGenerator {
+
+    public static final String[] ROLES = {"Funcionario", "Mergulhador", "Soldador", "Cozinheiro", "Eletricista"};
+    private static final int[] ROLE_WEIGHTS = {35, 10, 20, 15, 20};
+
+    /**
+     * Menor distância entre o início de dois embarques do mesmo empregado: 15 dias a bordo, 7 de folga e 2 livres,
+     * o bastante para mover o embarque um dia.
+     */
+    public static final int MIN_HITCH_SPACING_DAYS = 24;
+    public static final int MAX_HITCH_SPACING_DAYS = 45;
+
+    public static final int MAX_ENTERPRISES = 1_000;
+    public static final int MAX_EMPLOYEES = 1_000_000;
+    public static final long MAX_BOARDINGS = 10_000_000L;
+
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final int BATCH_SIZE = 5000;
+    private static final int PROGRESS_ROWS = 1_000_000;
+    private static final int BOARDING_DAYS = 15;
+    private static final int DAY_OFF_DAYS = 7;
+
+    private final int enterprises;
+    private final int employees;
+    private final int boardingsPerEmployee;
+    private final long seed;
+    private final LocalDate startDate;
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 1) {
+            System.out.println("Uso: DatasetGenerator <url jdbc> [empresas] [empregados] [embarques por empregado] [semente]");
+            System.exit(1);
+        }
+        int enterprises = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int employees = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int boardingsPerEmployee = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        new DatasetGenerator(enterprises, employees, boardingsPerEmployee, seed, LocalDate.now().plusDays(1))
+                .generate(args[0], "sa", "");
+    }
+
+    public DatasetGenerator(int enterprises, int employees, int boardingsPerEmployee, long seed, LocalDate startDate) {
+        if (enterprises < 1 || enterprises > MAX_ENTERPRISES || employees < 0 || employees > MAX_EMPLOYEES
+                || boardingsPerEmployee < 0 || (long) employees * boardingsPerEmployee > MAX_BOARDINGS) {
+            throw new IllegalArgumentException("Tamanho inválido: " + enterprises + " empresas, " + employees
+                    + " empregados e " + boardingsPerEmployee + " embarques por empregado.");
+        }
+        this.enterprises = enterprises;
+        this.employees = employees;
+        this.boardingsPerEmployee = boardingsPerEmployee;
+        this.seed = seed;
+        this.startDate = startDate;
+    }
+
+    public static String enterpriseName(long id) {
+        return "Empresa " + id;
+    }
+
+    public static String employeeName(long id) {
+        return "Empregado " + id;
+    }
+
+    public int getEmployees() {
+        return employees;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Limite para o último dia ocupado por algum embarque semeado, contando a folga.
+     */
+    public LocalDate getLastBusyDate() {
+        return startDate.plusDays((2L * boardingsPerEmployee + 1) * MAX_HITCH_SPACING_DAYS + BOARDING_DAYS + DAY_OFF_DAYS);
+    }
+
+    /**
+     * Primeiro dia em que qualquer empregado pode embarcar sem esbarrar nos embarques semeados.
+     */
+    public LocalDate getFirstFreeDate() {
+        return getLastBusyDate().plusDays(1);
+    }
+
+    /**
+     * Aplica as migrações do Flyway no banco informado e o preenche.
+     */
+    public void generate(String url, String username, String password) throws SQLException {
+        Flyway.configure().dataSource(url, username, password).load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            generate(connection);
+        }
+    }
+
+    public void generate(Connection connection) throws SQLException {
+        try (PreparedStatement count = connection.prepareStatement("SELECT count(*) FROM employee");
+             ResultSet rs = count.executeQuery()) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                throw new IllegalStateException("O banco já tem empregados, os ids gerados não seriam previsíveis.");
+            }
+        }
+        long begin = System.nanoTime();
+        long boardings;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            insertEnterprises(connection);
+            insertEmployees(connection, new Random(seed));
+            boardings = insertBoardSchedules(connection, new Random(seed + 1));
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        System.out.println(String.format("Banco semeado com %d empresas, %d empregados e %d embarques em %d ms.",
+                enterprises, employees, boardings, (System.nanoTime() - begin) / 1_000_000));
+    }
+
+    private void insertEnterprises(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO enterprise (name, normalized_name) VALUES (?, ?)")) {
+            for (long id = 1; id <= enterprises; id++) {
+                String name = enterpriseName(id);
+                insert.setString(1, name);
+                insert.setString(2, name.trim().toUpperCase());
+                addBatch(connection, insert, id);
+            }
+            flush(connection, insert);
+        }
+    }
+
+    private void insertEmployees(Connection connection, Random random) throws SQLException {
+        double[] enterpriseWeights = new double[enterprises];
+        for (int i = 0; i < enterprises; i++) {
+            enterpriseWeights[i] = 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+        }
+        double[] enterpriseCumulative = cumulative(enterpriseWeights);
+        double[] roleCumulative = cumulative(Arrays.stream(ROLE_WEIGHTS).asDoubleStream().toArray());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO employee (name, role, enterprise_id) VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= employees; id++) {
+                insert.setString(1, employeeName(id));
+                insert.setString(2, ROLES[pick(roleCumulative, random)]);
+                insert.setLong(3, pick(enterpriseCumulative, random) + 1);
+                addBatch(connection, insert, id, "empregados");
+            }
+            flush(connection, insert);
+        }
+    }
+
+    private long insertBoardSchedules(Connection connection, Random random) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO board_schedule (employee_id, init_date, end_date) VALUES (?, ?, ?)")) {
+            long rows = 0;
+            for (long employeeId = 1; employeeId <= employees; employeeId++) {
+                int boardings = random.nextInt(2 * boardingsPerEmployee + 1);
+                LocalDate initDate = startDate.plusDays(random.nextInt(MAX_HITCH_SPACING_DAYS));
+                for (int i = 0; i < boardings; i++) {
+                    insert.setLong(1, employeeId);
+                    insert.setTimestamp(2, Timestamp.valueOf(initDate.atStartOfDay()));
+                    insert.setTimestamp(3, Timestamp.valueOf(initDate.plusDays(BOARDING_DAYS).atStartOfDay()));
+                    addBatch(connection, insert, ++rows, "embarques");
+                    initDate = initDate.plusDays(MIN_HITCH_SPACING_DAYS
+                            + random.nextInt(MAX_HITCH_SPACING_DAYS - MIN_HITCH_SPACING_DAYS + 1));
+                }
+            }
+            flush(connection, insert);
+            return rows;
+        }
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, Random random) {
+        int i = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(i < 0 ? -i - 1 : i, cumulative.length - 1);
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement insert, long rows) throws SQLException {
+        addBatch(connection, insert, rows, null);
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement insert, long rows, String progress)
+            throws SQLException {
+        insert.addBatch();
+        if (rows % BATCH_SIZE == 0) {
+            flush(connection, insert);
+        }
+        if (progress != null && rows % PROGRESS_ROWS == 0) {
+            System.out.println(String.format("%d %s inseridos.", rows, progress));
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,486 @@
+package com.ogc.boardingschedule.loadtest;
+
+import com.ogc.boardingschedule.BoardingScheduleApplication;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sobe a aplicação com servidor embutido sobre um banco semeado e dispara todos os endpoints do
+ * OGCBoardingController e do OGCFormController em loop aberto, na taxa alvo de requisições por segundo. A latência
+ * é medida a partir do instante em que a requisição deveria sair, então fila no cliente ou no servidor entra na
+ * conta. Imprime, por endpoint e no total, vazão, respostas 2xx, rejeições 4xx, erros e latências p50/p90/p99/máx.
+ * <p>
+ * Listagens completas e o recálculo da ocupação têm peso baixo, mas crescem com a massa; use o filtro para
+ * isolar ou excluir endpoints. Escritas usam datas depois dos embarques semeados, movem embarques semeados um dia
+ * e só apagam empresas, empregados e embarques criados pela própria carga.
+ * <p>
+ * Argumentos: req/s (200), segundos (60), empregados (10000), embarques por empregado (4), empresas (100),
+ * expressão regular com os endpoints (.*) e url JDBC de um banco já gerado pelo DatasetGenerator. Com a url, a
+ * massa não é semeada de novo e os tamanhos são lidos do banco. O profile vem de {@code -Dspring.profiles.active}.
+ */
+public final class EndpointLoadTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final Pattern NEXT = Pattern.compile("\"next\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int SAMPLE_SIZE = 10000;
+    private static final int MAX_IN_FLIGHT = 1024;
+    private static final int HEAVY = 1;
+    private static final int LIGHT = 10;
+
+    private EndpointLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rps = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int employees = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int boardingsPerEmployee = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int enterprises = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+        Pattern filter = Pattern.compile(args.length > 5 ? args[5] : ".*");
+        String url = args.length > 6 ? args[6] : null;
+
+        if (url == null) {
+            url = "jdbc:h2:mem:endpoint_loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+            new DatasetGenerator(enterprises, employees, boardingsPerEmployee, 42, LocalDate.now().plusDays(1))
+                    .generate(url, "sa", "");
+        }
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BoardingScheduleApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=" + url,
+                        "boarding.occupancy.rebuild-cron=-",
+                        "logging.level.com.ogc=warn");
+        try (ConfigurableApplicationContext context = builder.run()) {
+            Dataset dataset = new Dataset(new JdbcTemplate(context.getBean(DataSource.class)));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Scenario> scenarios = scenarios(dataset, "http://localhost:" + port + "/v1/ogc").stream()
+                    .filter(scenario -> filter.matcher(scenario.name).find())
+                    .collect(Collectors.toList());
+            if (scenarios.isEmpty()) {
+                throw new IllegalArgumentException("Nenhum endpoint casa com " + filter.pattern());
+            }
+            System.out.println(String.format("Massa com %d empresas, %d empregados e %d embarques; %d endpoints a %d req/s por %d s.",
+                    dataset.enterprises, dataset.employees, dataset.boardings, scenarios.size(), rps, seconds));
+            run(scenarios, rps, seconds);
+        }
+        System.exit(0);
+    }
+
+    private static void run(List<Scenario> scenarios, int rps, int seconds) throws InterruptedException {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_IN_FLIGHT);
+        dispatcher.setMaxRequestsPerHost(MAX_IN_FLIGHT);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(MAX_IN_FLIGHT, 1, TimeUnit.MINUTES))
+                .readTimeout(60, TimeUnit.SECONDS)
+                .build();
+
+        int[] cumulative = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            total += scenarios.get(i).weight;
+            cumulative[i] = total;
+        }
+
+        Random random = new Random(42);
+        long requests = (long) rps * seconds;
+        long period = TimeUnit.SECONDS.toNanos(1) / rps;
+        CountDownLatch done = new CountDownLatch((int) requests);
+        long begin = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long intended = begin + i * period;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextInt(total) + 1);
+            Scenario scenario = scenarios.get(index < 0 ? -index - 1 : index);
+            send(client, scenario, random, intended, done);
+        }
+        if (!done.await(60, TimeUnit.SECONDS)) {
+            System.out.println(done.getCount() + " requisições ainda pendentes ao fim da espera.");
+        }
+        double elapsed = (System.nanoTime() - begin) / 1_000_000_000.0;
+        dispatcher.executorService().shutdown();
+        client.connectionPool().evictAll();
+
+        System.out.println();
+        System.out.println(String.format("%-44s %9s %9s %8s %8s %8s %9s %9s %9s %9s",
+                "endpoint", "requisições", "req/s", "2xx", "4xx", "erros", "p50 ms", "p90 ms", "p99 ms", "máx ms"));
+        Stats all = new Stats();
+        for (Scenario scenario : scenarios) {
+            System.out.println(scenario.stats.format(scenario.name, elapsed));
+            all.merge(scenario.stats);
+        }
+        System.out.println(all.format("total (alvo " + rps + " req/s)", elapsed));
+    }
+
+    private static void send(OkHttpClient client, Scenario scenario, Random random, long intended,
+                             CountDownLatch done) {
+        client.newCall(scenario.request.apply(random)).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                scenario.stats.record(0, System.nanoTime() - intended);
+                done.countDown();
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (Response r = response) {
+                    String body = r.body() == null ? "" : r.body().string();
+                    if (r.isSuccessful() && scenario.onBody != null) {
+                        scenario.onBody.accept(body);
+                    }
+                    scenario.stats.record(r.code(), System.nanoTime() - intended);
+                } catch (IOException e) {
+                    scenario.stats.record(0, System.nanoTime() - intended);
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+    }
+
+    /**
+     * Um cenário por endpoint dos dois controllers, com peso {@link #LIGHT} para consultas pontuais e paginadas e
+     * {@link #HEAVY} para listagens completas, recálculos e escritas de cadastro.
+     */
+    private static List<Scenario> scenarios(Dataset dataset, String baseUrl) {
+        List<Scenario> scenarios = new ArrayList<>();
+        AtomicLong inserts = new AtomicLong();
+        AtomicLong insertedEnterprises = new AtomicLong();
+        AtomicLong deletedEnterprises = new AtomicLong();
+        AtomicLong insertedEmployees = new AtomicLong();
+        AtomicLong deletedEmployees = new AtomicLong();
+        AtomicLong deletedBoardings = new AtomicLong();
+        AtomicReference<String> boardingsCursor = new AtomicReference<>();
+        AtomicReference<String> enterpriseCursor = new AtomicReference<>();
+        AtomicReference<String> companiesCursor = new AtomicReference<>();
+        AtomicReference<String> employeesCursor = new AtomicReference<>();
+        AtomicReference<String> employeesDetailCursor = new AtomicReference<>();
+
+        // OGCBoardingController
+        scenarios.add(new Scenario("POST /boarding/employeeid/initdate", LIGHT, random -> {
+            long n = inserts.getAndIncrement();
+            return post(baseUrl + "/boarding/employeeid/" + (n % dataset.employees + 1) + "/initdate/" + dataset.insertDate(n), null);
+        }));
+        scenarios.add(new Scenario("GET /boarding/employeeid/availability", LIGHT, random ->
+                get(baseUrl + "/boarding/employeeid/" + dataset.employee(random) + "/availability/initdate/" + dataset.day(random)
+                        + "?windows=5")));
+        scenarios.add(new Scenario("GET /boarding/available/initdate", LIGHT, random ->
+                get(baseUrl + "/boarding/available/initdate/" + dataset.day(random) + "?role=" + dataset.role(random)
+                        + "&enterpriseId=" + dataset.enterprise(random))));
+        scenarios.add(new Scenario("POST /boardings/bulk", LIGHT, random -> {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < 20; i++) {
+                long n = inserts.getAndIncrement();
+                body.append(i == 0 ? "" : ",").append("{\"employeeId\":").append(n % dataset.employees + 1)
+                        .append(",\"initDate\":\"").append(dataset.insertDate(n)).append("\"}");
+            }
+            return post(baseUrl + "/boardings/bulk", body.append("]").toString());
+        }));
+        scenarios.add(new Scenario("POST /boardings/rotation", LIGHT, random -> {
+            String employeeIds = random.ints(50, 1, (int) dataset.employees + 1)
+                    .mapToObj(String::valueOf).collect(Collectors.joining(","));
+            LocalDate initDate = dataset.day(random);
+            return post(baseUrl + "/boardings/rotation", "{\"employeeIds\":[" + employeeIds + "],\"initDate\":\"" + initDate
+                    + "\",\"endDate\":\"" + initDate.plusDays(60) + "\",\"minimumCoverage\":{\""
+                    + dataset.role(random) + "\":3},\"persist\":false}");
+        }));
+        scenarios.add(new Scenario("GET /boardings", HEAVY, random -> get(baseUrl + "/boardings")));
+        scenarios.add(new Scenario("GET /boardings/stream", HEAVY, random -> get(baseUrl + "/boardings/stream")));
+        scenarios.add(new Scenario("GET /boardings/page", LIGHT,
+                random -> get(baseUrl + page("/boardings/page", boardingsCursor)), cursor(boardingsCursor)));
+        scenarios.add(new Scenario("GET /boardings/employeeid", LIGHT, random ->
+                get(baseUrl + "/boardings/employeeid/" + dataset.employee(random))));
+        scenarios.add(new Scenario("GET /boardings/enterpriseid", HEAVY, random ->
+                get(baseUrl + "/boardings/enterpriseid/" + dataset.enterprise(random))));
+        scenarios.add(new Scenario("GET /boardings/enterpriseid/stream", HEAVY, random ->
+                get(baseUrl + "/boardings/enterpriseid/" + dataset.enterprise(random) + "/stream")));
+        scenarios.add(new Scenario("GET /boardings/enterpriseid/page", LIGHT, random ->
+                get(baseUrl + page("/boardings/enterpriseid/" + dataset.enterprise(random) + "/page", enterpriseCursor)),
+                cursor(enterpriseCursor)));
+        scenarios.add(new Scenario("PUT /boarding/id/employeeid/initdate", LIGHT, random -> {
+            Map<String, Object> schedule = dataset.schedule(random);
+            LocalDate initDate = ((Date) schedule.get(baseUrl + "init_date")).toLocalDate();
+            return put(baseUrl + "/boarding/id/" + schedule.get(baseUrl + "id") + "/employeeid/" + schedule.get(baseUrl + "employee_id")
+                    + "/initdate/" + (random.nextBoolean() ? initDate : initDate.plusDays(1)));
+        }));
+        scenarios.add(new Scenario("DELETE /boarding/id", HEAVY, random ->
+                delete(baseUrl + "/boarding/id/" + (dataset.lastBoardingId + deletedBoardings.incrementAndGet()))));
+        scenarios.add(new Scenario("GET /boarding/initdate/enddate", LIGHT, random -> {
+            LocalDate initDate = dataset.day(random);
+            return get(baseUrl + "/boarding/initdate/" + initDate + "/enddate/" + initDate.plusDays(30));
+        }));
+        scenarios.add(new Scenario("GET /boardings/enterpriseid/coveragegaps", LIGHT, random -> {
+            LocalDate initDate = dataset.day(random);
+            return get(baseUrl + "/boardings/enterpriseid/" + dataset.enterprise(random) + "/coveragegaps/initdate/" + initDate
+                    + "/enddate/" + initDate.plusDays(60));
+        }));
+        scenarios.add(new Scenario("GET /occupancy/enterpriseid/initdate/enddate", LIGHT, random -> {
+            LocalDate initDate = dataset.day(random);
+            return get(baseUrl + "/occupancy/enterpriseid/" + dataset.enterprise(random) + "/initdate/" + initDate
+                    + "/enddate/" + initDate.plusDays(30));
+        }));
+        scenarios.add(new Scenario("POST /occupancy/rebuild", HEAVY, random -> post(baseUrl + "/occupancy/rebuild", null)));
+        scenarios.add(new Scenario("GET /occupancy/enterpriseid/capacity", LIGHT, random ->
+                get(baseUrl + "/occupancy/enterpriseid/" + dataset.enterprise(random) + "/capacity")));
+        scenarios.add(new Scenario("PUT /occupancy/enterpriseid/capacity", HEAVY, random ->
+                put(baseUrl + "/occupancy/enterpriseid/" + dataset.enterprise(random) + "/capacity/" + dataset.employees)));
+        scenarios.add(new Scenario("DELETE /occupancy/enterpriseid/capacity", HEAVY, random ->
+                delete(baseUrl + "/occupancy/enterpriseid/" + dataset.enterprise(random) + "/capacity")));
+
+        // OGCFormController
+        scenarios.add(new Scenario("POST /company", HEAVY, random ->
+                post(baseUrl + "/company/" + encode("Carga " + insertedEnterprises.incrementAndGet()), null)));
+        scenarios.add(new Scenario("GET /companies", LIGHT, random -> get(baseUrl + "/companies")));
+        scenarios.add(new Scenario("GET /companies/page", LIGHT,
+                random -> get(baseUrl + page("/companies/page", companiesCursor)), cursor(companiesCursor)));
+        scenarios.add(new Scenario("GET /company/name", LIGHT, random ->
+                get(baseUrl + "/company/name/" + encode(DatasetGenerator.enterpriseName(dataset.enterprise(random))))));
+        scenarios.add(new Scenario("GET /company/id", LIGHT, random -> get(baseUrl + "/company/id/" + dataset.enterprise(random))));
+        scenarios.add(new Scenario("DELETE /company/id", HEAVY, random ->
+                delete(baseUrl + "/company/id/" + (dataset.lastEnterpriseId + deletedEnterprises.incrementAndGet()))));
+        scenarios.add(new Scenario("PUT /company/id/name", HEAVY, random -> {
+            long id = dataset.enterprise(random);
+            return put(baseUrl + "/company/id/" + id + "/name/" + encode(DatasetGenerator.enterpriseName(id)));
+        }));
+        scenarios.add(new Scenario("POST /employee/name/role/enterpriseId", HEAVY, random ->
+                post(baseUrl + "/employee/name/" + encode("Carga " + insertedEmployees.incrementAndGet()) + "/role/"
+                        + dataset.role(random) + "/enterpriseId/" + dataset.enterprise(random), null)));
+        scenarios.add(new Scenario("GET /employees", HEAVY, random -> get(baseUrl + "/employees")));
+        scenarios.add(new Scenario("GET /employees/page", LIGHT,
+                random -> get(baseUrl + page("/employees/page", employeesCursor)), cursor(employeesCursor)));
+        scenarios.add(new Scenario("GET /employeesdetail", HEAVY, random -> get(baseUrl + "/employeesdetail")));
+        scenarios.add(new Scenario("GET /employeesdetail/stream", HEAVY, random -> get(baseUrl + "/employeesdetail/stream")));
+        scenarios.add(new Scenario("GET /employeesdetail/page", LIGHT,
+                random -> get(baseUrl + page("/employeesdetail/page", employeesDetailCursor)), cursor(employeesDetailCursor)));
+        scenarios.add(new Scenario("GET /employeesdetail/name", LIGHT, random ->
+                get(baseUrl + "/employeesdetail/name/" + encode(DatasetGenerator.employeeName(dataset.employee(random)))
+                        + "?limit=50&fuzzy=" + (random.nextInt(10) == 0))));
+        scenarios.add(new Scenario("GET /employeesdetail/id", LIGHT, random ->
+                get(baseUrl + "/employeesdetail/id/" + dataset.employee(random))));
+        scenarios.add(new Scenario("DELETE /employee/id", HEAVY, random ->
+                delete(baseUrl + "/employee/id/" + (dataset.lastEmployeeId + deletedEmployees.incrementAndGet()))));
+        scenarios.add(new Scenario("PUT /employee/id/name/role/enterpriseId", HEAVY, random -> {
+            Map<String, Object> employee = dataset.employeeRow(random);
+            return put(baseUrl + "/employee/id/" + employee.get(baseUrl + "id") + "/name/" + encode((String) employee.get(baseUrl + "name"))
+                    + "/role/" + encode((String) employee.get(baseUrl + "role")) + "/enterpriseId/" + employee.get(baseUrl + "enterprise_id"));
+        }));
+        return scenarios;
+    }
+
+    private static String page(String path, AtomicReference<String> cursor) {
+        String next = cursor.get();
+        return path + "?limit=50" + (next == null ? "" : "&next=" + encode(next));
+    }
+
+    /**
+     * Segue o cursor da última página recebida e volta ao começo quando a listagem termina.
+     */
+    private static Consumer<String> cursor(AtomicReference<String> cursor) {
+        return body -> {
+            Matcher matcher = NEXT.matcher(body);
+            cursor.set(matcher.find() ? matcher.group(1) : null);
+        };
+    }
+
+    private static Request get(String url) {
+        return new Request.Builder().url(url).build();
+    }
+
+    private static Request post(String url, String json) {
+        return new Request.Builder().url(url).post(RequestBody.create(JSON, json == null ? "" : json)).build();
+    }
+
+    private static Request put(String url) {
+        return new Request.Builder().url(url).put(RequestBody.create(JSON, "")).build();
+    }
+
+    private static Request delete(String url) {
+        return new Request.Builder().url(url).delete().build();
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Scenario {
+        final String name;
+        final int weight;
+        final Function<Random, Request> request;
+        final Consumer<String> onBody;
+        final Stats stats = new Stats();
+
+        Scenario(String name, int weight, Function<Random, Request> request) {
+            this(name, weight, request, null);
+        }
+
+        Scenario(String name, int weight, Function<Random, Request> request, Consumer<String> onBody) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+            this.onBody = onBody;
+        }
+    }
+
+    /**
+     * Tamanhos e amostras da massa lidos do banco depois de a aplicação subir, valendo também para um banco
+     * gerado antes. As datas de inclusão começam depois do último embarque semeado.
+     */
+    private static final class Dataset {
+        final long enterprises;
+        final long employees;
+        final long boardings;
+        final long lastEnterpriseId;
+        final long lastEmployeeId;
+        final long lastBoardingId;
+        final LocalDate firstFreeDate;
+        final List<Map<String, Object>> schedules;
+        final List<Map<String, Object>> employeeRows;
+        final List<String> roles;
+
+        Dataset(JdbcTemplate jdbcTemplate) {
+            enterprises = jdbcTemplate.queryForObject("SELECT count(*) FROM enterprise", Long.class);
+            employees = jdbcTemplate.queryForObject("SELECT count(*) FROM employee", Long.class);
+            boardings = jdbcTemplate.queryForObject("SELECT count(*) FROM board_schedule", Long.class);
+            lastEnterpriseId = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM enterprise", Long.class);
+            lastEmployeeId = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM employee", Long.class);
+            lastBoardingId = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM board_schedule", Long.class);
+            Date lastEndDate = jdbcTemplate.queryForObject("SELECT cast(max(end_date) AS date) FROM board_schedule", Date.class);
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+            firstFreeDate = lastEndDate == null || lastEndDate.toLocalDate().isBefore(tomorrow)
+                    ? tomorrow : lastEndDate.toLocalDate().plusDays(8);
+            long step = Math.max(1, boardings / SAMPLE_SIZE);
+            schedules = jdbcTemplate.queryForList("SELECT id, employee_id, cast(init_date AS date) AS init_date "
+                    + "FROM board_schedule WHERE mod(id, ?) = 0 AND init_date > current_date LIMIT ?", step, SAMPLE_SIZE);
+            employeeRows = jdbcTemplate.queryForList("SELECT id, name, role, enterprise_id FROM employee "
+                    + "WHERE mod(id, ?) = 0 LIMIT ?", Math.max(1, employees / SAMPLE_SIZE), SAMPLE_SIZE);
+            roles = jdbcTemplate.queryForList("SELECT DISTINCT role FROM employee WHERE role IS NOT NULL", String.class);
+            if (enterprises == 0 || employees == 0 || schedules.isEmpty()) {
+                throw new IllegalStateException("A massa precisa de empresas, empregados e embarques futuros.");
+            }
+        }
+
+        /**
+         * Cada empregado recebe uma inclusão por volta, espaçadas o bastante para respeitar período e folga.
+         */
+        LocalDate insertDate(long n) {
+            return firstFreeDate.plusDays(n / employees * DatasetGenerator.MIN_HITCH_SPACING_DAYS);
+        }
+
+        long employee(Random random) {
+            return (long) (random.nextDouble() * employees) + 1;
+        }
+
+        long enterprise(Random random) {
+            return (long) (random.nextDouble() * enterprises) + 1;
+        }
+
+        String role(Random random) {
+            return roles.get(random.nextInt(roles.size()));
+        }
+
+        LocalDate day(Random random) {
+            return LocalDate.now().plusDays(random.nextInt(180));
+        }
+
+        Map<String, Object> schedule(Random random) {
+            return schedules.get(random.nextInt(schedules.size()));
+        }
+
+        Map<String, Object> employeeRow(Random random) {
+            return employeeRows.get(random.nextInt(employeeRows.size()));
+        }
+    }
+
+    private static final class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long success;
+        private long rejected;
+        private long errors;
+
+        synchronized void record(int status, long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (status >= 200 && status < 300) {
+                success++;
+            } else if (status >= 400 && status < 500) {
+                rejected++;
+            } else {
+                errors++;
+            }
+        }
+
+        synchronized void merge(Stats other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = other.latencies[i];
+                }
+                success += other.success;
+                rejected += other.rejected;
+                errors += other.errors;
+            }
+        }
+
+        synchronized String format(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return String.format("%-44s %9d %9.1f %8d %8d %8d %9.2f %9.2f %9.2f %9.2f", name, count, count / seconds,
+                    success, rejected, errors, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
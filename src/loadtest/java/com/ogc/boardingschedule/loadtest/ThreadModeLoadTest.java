@@ -0,0 +1,160 @@
+package com.ogc.boardingschedule.loadtest;
+
+import com.ogc.boardingschedule.BoardingScheduleApplication;
+import com.ogc.boardingschedule.config.VirtualThreads;
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.repositories.BoardingRepository;
+import com.ogc.boardingschedule.repositories.EmployeeRepository;
+import com.ogc.boardingschedule.service.EnterpriseService;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o modo padrão (threads de plataforma) com o profile {@code virtual-threads}: sobe a aplicação uma vez
+ * por modo, com o mesmo banco semeado, e dispara a mesma carga em loop fechado contra endpoints que consultam
+ * o banco. Imprime vazão e latências p50/p99 de cada modo.
+ * <p>
+ * Argumentos: concorrência (200), duração em segundos (30) e quantidade de empregados (1000). O modo
+ * virtual threads só roda em JDK 21+; veja a task {@code loadTest} no build.gradle.
+ */
+public final class ThreadModeLoadTest {
+
+    private static final String[] ROLES = {"Funcionario", "Mergulhador", "Soldador", "Cozinheiro", "Eletricista"};
+
+    private ThreadModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int employees = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        List<String> results = new ArrayList<>();
+        results.add(run("platform", concurrency, seconds, employees));
+        if (VirtualThreads.available()) {
+            results.add(run("virtual-threads", concurrency, seconds, employees));
+        } else {
+            System.out.println("JDK " + System.getProperty("java.version") + " sem virtual threads, modo ignorado.");
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-16s %10s %10s %10s %10s %8s", "modo", "requisições", "req/s", "p50 ms", "p99 ms", "erros"));
+        results.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static String run(String mode, int concurrency, int seconds, int employees) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BoardingScheduleApplication.class)
+                .properties("server.port=0",
+                        "server.tomcat.threads.max=" + concurrency,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest_" + mode.replace('-', '_')
+                                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        if (!"platform".equals(mode)) {
+            builder.profiles(mode);
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            seed(context, employees);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            return load(mode, "http://localhost:" + port + "/v1/ogc", concurrency, seconds, employees);
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int employees) {
+        context.getBean(EnterpriseService.class).insertCompany("Carga").block();
+
+        List<Employee> crew = new ArrayList<>();
+        for (int i = 0; i < employees; i++) {
+            crew.add(new Employee(null, "Empregado " + i, ROLES[i % ROLES.length], 1L));
+        }
+        context.getBean(EmployeeRepository.class).insertNewEmployees(crew).block();
+
+        LocalDate start = LocalDate.now().plusDays(1);
+        List<BoardSchedule> schedules = new ArrayList<>();
+        for (long id = 1; id <= employees; id++) {
+            LocalDate initDate = start.plusDays(id % 300);
+            schedules.add(new BoardSchedule(null, id, initDate, initDate.plusDays(15)));
+        }
+        context.getBean(BoardingRepository.class).insertNewBoardings(schedules).block();
+    }
+
+    private static String load(String mode, String baseUrl, int concurrency, int seconds, int employees) throws Exception {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(concurrency, 1, TimeUnit.MINUTES))
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                long errors = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    String path = random.nextInt(4) == 0
+                            ? "/boardings/enterpriseid/1/page?limit=50"
+                            : "/boardings/employeeid/" + (random.nextInt(employees) + 1);
+                    long begin = System.nanoTime();
+                    try (Response response = client.newCall(new Request.Builder().url(baseUrl + path).build()).execute()) {
+                        response.body().bytes();
+                        if (!response.isSuccessful()) {
+                            errors++;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - begin;
+                }
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = errors;
+                return result;
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (Future<long[]> future : futures) {
+            long[] result = future.get();
+            for (int i = 0; i < result.length - 1; i++) {
+                latencies.add(result[i]);
+            }
+            errors += result[result.length - 1];
+        }
+        clients.shutdown();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+
+        latencies.sort(Long::compare);
+        return String.format("%-16s %10d %10.0f %10.2f %10.2f %8d", mode, latencies.size(),
+                latencies.size() / (double) seconds, percentile(latencies, 0.50), percentile(latencies, 0.99), errors);
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ogc.boardingschedule.cache;
+
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache de EmployeeDetail por id, com cache negativo de curta duração para ids inexistentes.
+ * Invalidado pelo EmployeeRepository e pelo EnterpriseRepository quando a empresa é renomeada. Como no
+ * EnterpriseCache, cada invalidação avança a geração e os puts feitos com uma geração anterior são descartados.
+ */
+@Component
+public class EmployeeDetailCache implements MeterBinder {
+
+    private final LruCache<Long, EmployeeDetail> byId;
+    private final LruCache<Long, Boolean> missing;
+
+    private long generation;
+
+    public EmployeeDetailCache(@Value("${boarding.cache.employee.max-size:10000}") int maxSize,
+                               @Value("${boarding.cache.employee.ttl:10m}") Duration ttl,
+                               @Value("${boarding.cache.employee.negative-max-size:1000}") int negativeMaxSize,
+                               @Value("${boarding.cache.employee.negative-ttl:30s}") Duration negativeTtl) {
+        this.byId = new LruCache<>("employee.id", maxSize, ttl);
+        this.missing = new LruCache<>("employee.missing", negativeMaxSize, negativeTtl);
+    }
+
+    public EmployeeDetail get(Long id) {
+        return byId.get(id);
+    }
+
+    public boolean isMissing(Long id) {
+        return missing.get(id) != null;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(EmployeeDetail employee, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        missing.invalidate(employee.getId());
+        byId.put(employee.getId(), employee);
+    }
+
+    public synchronized void putMissing(Long id, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        missing.put(id, Boolean.TRUE);
+    }
+
+    public synchronized void invalidate(Long id) {
+        generation++;
+        byId.invalidate(id);
+        missing.invalidate(id);
+    }
+
+    public synchronized void invalidateByEnterpriseId(Long enterpriseId) {
+        generation++;
+        byId.invalidateIf(employee -> enterpriseId.equals(employee.getEnterpriseId()));
+    }
+
+    public synchronized void invalidateMissing() {
+        generation++;
+        missing.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        byId.bindTo(registry);
+        missing.bindTo(registry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ogc.boardingschedule.cache;
+
+import com.ogc.boardingschedule.domain.Enterprise;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Caches de empresas por id, por nome normalizado e da lista completa.
+ * Invalidado pelo EnterpriseRepository a cada escrita. Cada invalidação avança a geração do cache; quem lê do banco
+ * captura {@link #generation()} antes da consulta e o put é descartado se houve invalidação no meio, para que uma
+ * leitura concorrente com uma escrita não devolva ao cache o valor antigo.
+ */
+@Component
+public class EnterpriseCache implements MeterBinder {
+
+    private static final String ALL = "all";
+
+    private final LruCache<Long, Enterprise> byId;
+    private final LruCache<String, Enterprise> byName;
+    private final LruCache<String, List<Enterprise>> all;
+
+    private long generation;
+
+    public EnterpriseCache(@Value("${boarding.cache.enterprise.max-size:1000}") int maxSize,
+                           @Value("${boarding.cache.enterprise.ttl:10m}") Duration ttl) {
+        this.byId = new LruCache<>("enterprise.id", maxSize, ttl);
+        this.byName = new LruCache<>("enterprise.name", maxSize, ttl);
+        this.all = new LruCache<>("enterprise.all", 1, ttl);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public Enterprise getById(Long id) {
+        return byId.get(id);
+    }
+
+    public Enterprise getByName(String name) {
+        return byName.get(normalize(name));
+    }
+
+    public List<Enterprise> getAll() {
+        return all.get(ALL);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(Enterprise enterprise, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        byId.put(enterprise.getId(), enterprise);
+        byName.put(normalize(enterprise.getName()), enterprise);
+    }
+
+    public synchronized void putAll(List<Enterprise> enterprises, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        all.put(ALL, enterprises);
+    }
+
+    public synchronized void invalidate(Long id, String... names) {
+        generation++;
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        for (String name : names) {
+            if (name != null) {
+                byName.invalidate(normalize(name));
+            }
+        }
+        all.invalidate(ALL);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        byId.invalidateAll();
+        byName.invalidateAll();
+        all.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        byId.bindTo(registry);
+        byName.bindTo(registry);
+        all.bindTo(registry);
+    }
+}
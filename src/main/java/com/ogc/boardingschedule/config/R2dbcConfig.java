@@ -0,0 +1,68 @@
+package com.ogc.boardingschedule.config;
+
+import com.ogc.boardingschedule.repositories.QueryMetrics;
+import com.ogc.boardingschedule.repositories.TimedDatabaseClient;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Pool R2DBC usado pelos repositórios do profile {@code r2dbc}. O pool não é exposto como bean para que o
+ * DataSource JDBC continue sendo configurado, já que o Flyway e o streaming por cursor dependem dele.
+ */
+@Configuration
+@Profile("r2dbc")
+@Slf4j
+public class R2dbcConfig {
+
+    private final ConnectionPool connectionPool;
+
+    public R2dbcConfig(@Value("${boarding.r2dbc.url}") String url,
+                       @Value("${boarding.r2dbc.username:sa}") String username,
+                       @Value("${boarding.r2dbc.password:}") String password,
+                       @Value("${boarding.r2dbc.pool.max-size:20}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("r2dbc-pool")
+                .maxSize(maxSize)
+                .build());
+        log.info("Pool R2DBC criado para {} com até {} conexões.", url, maxSize);
+    }
+
+    /**
+     * Depende das migrações do Flyway, para que os índices em memória sejam carregados com o schema pronto.
+     * Cada consulta é medida em QueryMetrics, como no template JDBC.
+     */
+    @Bean
+    public DatabaseClient databaseClient(ObjectProvider<FlywayMigrationInitializer> flywayMigrationInitializer,
+                                         QueryMetrics queryMetrics) {
+        flywayMigrationInitializer.getIfAvailable();
+        return new TimedDatabaseClient(DatabaseClient.create(connectionPool), queryMetrics);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+}
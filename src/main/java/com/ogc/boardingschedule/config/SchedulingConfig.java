@@ -0,0 +1,12 @@
+package com.ogc.boardingschedule.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas, como o recálculo da ocupação diária. A expressão cron {@code "-"} desliga a tarefa.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,39 @@
+package com.ogc.boardingschedule.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Modo virtual threads, ativado pelo profile {@code virtual-threads} em um JDK 21+: o Tomcat atende cada
+ * requisição em uma virtual thread e o {@code application-virtual-threads.yml} liga as virtual threads nos
+ * bulkheads JDBC. Em JDKs anteriores a aplicação não sobe, em vez de cair silenciosamente nas threads de plataforma.
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    private final ExecutorService executor;
+
+    public VirtualThreadsConfig() {
+        this.executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        log.info("Requisições do Tomcat atendidas em virtual threads (JDK {}).", System.getProperty("java.version"));
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,20 @@
+package com.ogc.boardingschedule.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Modo WebFlux, ativado pelo profile {@code webflux}. Com o starter web também no classpath o Spring Boot
+ * escolheria o Tomcat como servidor reativo, por isso a fábrica do Netty é declarada explicitamente.
+ */
+@Configuration
+@Profile("webflux")
+public class WebFluxConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -1,15 +1,29 @@
 package com.ogc.boardingschedule.controllers;
 
+import com.ogc.boardingschedule.domain.AvailableEmployees;
+import com.ogc.boardingschedule.domain.BoardingAvailability;
 import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.CoverageGap;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.RotationPlan;
+import com.ogc.boardingschedule.domain.RotationRequest;
 import com.ogc.boardingschedule.service.BoardingService;
+import com.ogc.boardingschedule.service.OccupancyService;
+import com.ogc.boardingschedule.service.RotationService;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
@@ -21,9 +35,15 @@ import static org.springframework.http.HttpStatus.OK;
 public class OGCBoardingController {
 
     private final BoardingService boardingService;
+    private final OccupancyService occupancyService;
+    private final RotationService rotationService;
 
-    public OGCBoardingController(BoardingService boardingService) {
+    public OGCBoardingController(BoardingService boardingService,
+                                 OccupancyService occupancyService,
+                                 RotationService rotationService) {
         this.boardingService = boardingService;
+        this.occupancyService = occupancyService;
+        this.rotationService = rotationService;
     }
 
     @ApiOperation(value = "Cadastra um agendamento de embarque")
@@ -38,6 +58,46 @@ public class OGCBoardingController {
         return boardingService.insertNewBoarding(employeeId, startDate);
     }
 
+    @ApiOperation(value = "Busca a primeira data de embarque livre de um empregado e as próximas janelas livres")
+    @ResponseStatus(OK)
+    @GetMapping("/boarding/employeeid/{employeeId}/availability/initdate/{initDate}")
+    public Mono<BoardingAvailability> getBoardingAvailability(@PathVariable Long employeeId, @PathVariable String initDate,
+                                                              @RequestParam(required = false) Integer windows){
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        LocalDate startDate = LocalDate.parse(initDate, formatter);
+        log.info("Recebendo solicitação para buscar as janelas de embarque do empregado de id {} a partir de {}.",
+                employeeId, initDate);
+        return boardingService.getBoardingAvailability(employeeId, startDate, windows);
+    }
+
+    @ApiOperation(value = "Busca os empregados livres para embarcar em uma data, por cargo e empresa")
+    @ResponseStatus(OK)
+    @GetMapping("/boarding/available/initdate/{initDate}")
+    public Mono<AvailableEmployees> getAvailableEmployees(@PathVariable String initDate,
+                                                          @RequestParam(required = false) String role,
+                                                          @RequestParam(required = false) Long enterpriseId){
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        LocalDate startDate = LocalDate.parse(initDate, formatter);
+        log.info("Recebendo solicitação para buscar os empregados livres para embarque no dia {}.", initDate);
+        return boardingService.getAvailableEmployees(startDate, role, enterpriseId);
+    }
+
+    @ApiOperation(value = "Cadastra agendamentos de embarque em lote, com o resultado de cada item")
+    @ResponseStatus(OK)
+    @PostMapping("/boardings/bulk")
+    public Mono<List<BoardingResult>> insertBoardings(@RequestBody List<BoardingRequest> requests){
+        log.info("Recebendo solicitação para agendar {} embarques em lote.", requests.size());
+        return boardingService.insertNewBoardings(requests);
+    }
+
+    @ApiOperation(value = "Planeja a escala de embarques de uma equipe para a cobertura mínima de cada cargo e opcionalmente grava em lote")
+    @ResponseStatus(OK)
+    @PostMapping("/boardings/rotation")
+    public Mono<RotationPlan> planRotation(@RequestBody RotationRequest request){
+        log.info("Recebendo solicitação para planejar a escala entre {} e {}.", request.getInitDate(), request.getEndDate());
+        return rotationService.planRotation(request);
+    }
+
     @ApiOperation(value = "Busca todos os agendamentos")
     @ResponseStatus(OK)
     @GetMapping("/boardings")
@@ -46,6 +106,23 @@ public class OGCBoardingController {
         return boardingService.getBoardings();
     }
 
+    @ApiOperation(value = "Exporta todos os agendamentos em streaming (NDJSON)")
+    @ResponseStatus(OK)
+    @GetMapping(value = "/boardings/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BoardingDetail> streamBoardings() {
+        log.info("Recebendo solicitação para exportar todas as agendas");
+        return boardingService.streamBoardings();
+    }
+
+    @ApiOperation(value = "Busca os agendamentos paginados por data de início")
+    @ResponseStatus(OK)
+    @GetMapping("/boardings/page")
+    public Mono<Page<BoardingDetail>> getBoardingPage(@RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String next) {
+        log.info("Recebendo solicitação para listar uma página de agendas com limite {}", limit);
+        return boardingService.getBoardingsPage(next, limit);
+    }
+
     @ApiOperation(value = "Busca agendamento por empregado")
     @ResponseStatus(OK)
     @GetMapping("/boardings/employeeid/{employeeId}")
@@ -62,6 +139,24 @@ public class OGCBoardingController {
         return boardingService.getBoardingsByEnterpriseId(enterpriseId);
     }
 
+    @ApiOperation(value = "Exporta os agendamentos da empresa em streaming (NDJSON)")
+    @ResponseStatus(OK)
+    @GetMapping(value = "/boardings/enterpriseid/{enterpriseId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BoardingDetail> streamBoardingByEnterpriseId(@PathVariable Long enterpriseId) {
+        log.info("Recebendo solicitação para exportar toda a agenda da empresa id = {}", enterpriseId);
+        return boardingService.streamBoardingsByEnterpriseId(enterpriseId);
+    }
+
+    @ApiOperation(value = "Busca agendamento por empresa paginado por data de início")
+    @ResponseStatus(OK)
+    @GetMapping("/boardings/enterpriseid/{enterpriseId}/page")
+    public Mono<Page<BoardingDetail>> getBoardingPageByEnterpriseId(@PathVariable Long enterpriseId,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String next) {
+        log.info("Recebendo solicitação para listar uma página da agenda da empresa id = {}", enterpriseId);
+        return boardingService.getBoardingsPageByEnterpriseId(enterpriseId, next, limit);
+    }
+
     @ApiOperation(value = "Atualiza um agendamento existente")
     @ResponseStatus(OK)
     @PutMapping("/boarding/id/{boardingId}/employeeid/{employeeId}/initdate/{initDate}")
@@ -90,4 +185,64 @@ public class OGCBoardingController {
         LocalDate finishDate = LocalDate.parse(endDate, formatter);
         return boardingService.getBoardingScheduleBetweenDates(startDate, finishDate);
     }
+
+    @ApiOperation(value = "Lacunas de cobertura por cargo de uma empresa entre datas, em streaming (NDJSON)")
+    @ResponseStatus(OK)
+    @GetMapping(value = "/boardings/enterpriseid/{enterpriseId}/coveragegaps/initdate/{initDate}/enddate/{endDate}",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CoverageGap> streamCoverageGaps(@PathVariable Long enterpriseId, @PathVariable String initDate,
+                                                @PathVariable String endDate) {
+        log.info("Recebendo solicitação para buscar lacunas de cobertura da empresa id = {} entre {} e {}.",
+                enterpriseId, initDate, endDate);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        LocalDate startDate = LocalDate.parse(initDate, formatter);
+        LocalDate finishDate = LocalDate.parse(endDate, formatter);
+        return boardingService.streamCoverageGapsByEnterpriseId(enterpriseId, startDate, finishDate);
+    }
+
+    @ApiOperation(value = "Ocupação diária de uma empresa entre datas, com um item por dia")
+    @ResponseStatus(OK)
+    @GetMapping("/occupancy/enterpriseid/{enterpriseId}/initdate/{initDate}/enddate/{endDate}")
+    public Flux<DailyOccupancy> getDailyOccupancy(@PathVariable Long enterpriseId, @PathVariable String initDate,
+                                                  @PathVariable String endDate) {
+        log.info("Recebendo solicitação para buscar a ocupação diária da empresa id = {} entre {} e {}.",
+                enterpriseId, initDate, endDate);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        LocalDate startDate = LocalDate.parse(initDate, formatter);
+        LocalDate finishDate = LocalDate.parse(endDate, formatter);
+        return occupancyService.getDailyOccupancy(enterpriseId, startDate, finishDate);
+    }
+
+    @ApiOperation(value = "Recalcula a ocupação diária a partir dos agendamentos e devolve a quantidade de dias gravados")
+    @ResponseStatus(OK)
+    @PostMapping("/occupancy/rebuild")
+    public Mono<Integer> rebuildDailyOccupancy() {
+        log.info("Recebendo solicitação para recalcular a ocupação diária.");
+        return occupancyService.rebuildDailyOccupancy();
+    }
+
+    @ApiOperation(value = "Busca o limite de empregados a bordo de uma empresa")
+    @ResponseStatus(OK)
+    @GetMapping("/occupancy/enterpriseid/{enterpriseId}/capacity")
+    public Mono<EnterpriseCapacity> getCapacity(@PathVariable Long enterpriseId) {
+        log.info("Recebendo solicitação para buscar o limite de empregados a bordo da empresa id = {}.", enterpriseId);
+        return occupancyService.getCapacity(enterpriseId);
+    }
+
+    @ApiOperation(value = "Define o limite de empregados a bordo de uma empresa")
+    @ResponseStatus(OK)
+    @PutMapping("/occupancy/enterpriseid/{enterpriseId}/capacity/{maxHeadcount}")
+    public Mono<Void> setCapacity(@PathVariable Long enterpriseId, @PathVariable Integer maxHeadcount) {
+        log.info("Recebendo solicitação para definir o limite de empregados a bordo da empresa id = {} em {}.",
+                enterpriseId, maxHeadcount);
+        return occupancyService.setCapacity(enterpriseId, maxHeadcount);
+    }
+
+    @ApiOperation(value = "Remove o limite de empregados a bordo de uma empresa")
+    @ResponseStatus(OK)
+    @DeleteMapping("/occupancy/enterpriseid/{enterpriseId}/capacity")
+    public Mono<Void> deleteCapacity(@PathVariable Long enterpriseId) {
+        log.info("Recebendo solicitação para remover o limite de empregados a bordo da empresa id = {}.", enterpriseId);
+        return occupancyService.deleteCapacity(enterpriseId);
+    }
 }
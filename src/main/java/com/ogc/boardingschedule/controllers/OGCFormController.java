@@ -3,10 +3,12 @@ package com.ogc.boardingschedule.controllers;
 import com.ogc.boardingschedule.domain.Employee;
 import com.ogc.boardingschedule.domain.EmployeeDetail;
 import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
 import com.ogc.boardingschedule.service.EmployeeService;
 import com.ogc.boardingschedule.service.EnterpriseService;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -46,6 +48,15 @@ public class OGCFormController {
 
     }
 
+    @ApiOperation(value = "Lista as empresas paginadas")
+    @ResponseStatus(OK)
+    @GetMapping("/companies/page")
+    public Mono<Page<Enterprise>> getCompaniesPage(@RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String next) {
+        log.info("Recebendo solicitação para obter uma página de empresas com limite {}.", limit);
+        return enterpriseService.getCompaniesPage(next, limit);
+    }
+
     @ApiOperation(value = "Busca uma empresa pelo nome")
     @ResponseStatus(OK)
     @GetMapping("/company/name/{name}")
@@ -97,6 +108,15 @@ public class OGCFormController {
 
     }
 
+    @ApiOperation(value = "Lista os empregados paginados")
+    @ResponseStatus(OK)
+    @GetMapping("/employees/page")
+    public Mono<Page<Employee>> getEmployeesPage(@RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String next) {
+        log.info("Recebendo solicitação para obter uma página de empregados com limite {}.", limit);
+        return employeeService.getEmployeesPage(next, limit);
+    }
+
     @ApiOperation(value = "Lista todos os detalhes do empregado")
     @ResponseStatus(OK)
     @GetMapping("/employeesdetail")
@@ -105,12 +125,31 @@ public class OGCFormController {
         return employeeService.getEmployeesDetail();
     }
 
-    @ApiOperation(value = "Busca o empregado pelo nome")
+    @ApiOperation(value = "Exporta todos os detalhes dos empregados em streaming (NDJSON)")
+    @ResponseStatus(OK)
+    @GetMapping(value = "/employeesdetail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeDetail> streamEmployeesDetail(){
+        log.info("Exportando todos os empregados com detalhes.");
+        return employeeService.streamEmployeesDetail();
+    }
+
+    @ApiOperation(value = "Lista os detalhes dos empregados paginados")
+    @ResponseStatus(OK)
+    @GetMapping("/employeesdetail/page")
+    public Mono<Page<EmployeeDetail>> getEmployeesDetailPage(@RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String next){
+        log.info("Buscando uma página de empregados com detalhes com limite {}.", limit);
+        return employeeService.getEmployeesDetailPage(next, limit);
+    }
+
+    @ApiOperation(value = "Busca o empregado por parte do nome, opcionalmente tolerando erros de digitação")
     @ResponseStatus(OK)
     @GetMapping("/employeesdetail/name/{name}")
-    public Flux<EmployeeDetail> getEmployeeDetailByName(@PathVariable String name){
+    public Flux<EmployeeDetail> getEmployeeDetailByName(@PathVariable String name,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(defaultValue = "false") boolean fuzzy){
         log.info("Buscando o empregado com nome {}.", name);
-        return employeeService.getEmployeeDetailByName(name);
+        return employeeService.getEmployeeDetailByName(name, limit, fuzzy);
     }
 
     @ApiOperation(value = "Busca o empregado pelo ID")
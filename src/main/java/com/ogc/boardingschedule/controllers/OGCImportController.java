@@ -0,0 +1,43 @@
+package com.ogc.boardingschedule.controllers;
+
+import com.ogc.boardingschedule.domain.EmployeeImportReport;
+import com.ogc.boardingschedule.service.EmployeeService;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+
+import static org.springframework.http.HttpStatus.OK;
+
+
+/**
+ * Importação de empregados no modo servlet, lendo o corpo da requisição como InputStream.
+ * No modo WebFlux a mesma rota é atendida pelo {@link OGCReactiveImportController}.
+ */
+@Slf4j
+@RestController
+@Profile("!webflux")
+@RequestMapping("/v1/ogc/")
+public class OGCImportController {
+
+    private final EmployeeService employeeService;
+
+    public OGCImportController(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @ApiOperation(value = "Importa empregados de um arquivo CSV (name,role,enterpriseId) ou NDJSON")
+    @ResponseStatus(OK)
+    @PostMapping(value = "/employees/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<EmployeeImportReport> importEmployees(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                      @RequestBody InputStreamResource body) throws IOException {
+        log.info("Recebendo solicitação para importar empregados do tipo {}.", contentType);
+        return employeeService.importEmployees(body.getInputStream(), MediaType.parseMediaType(contentType));
+    }
+}
@@ -0,0 +1,39 @@
+package com.ogc.boardingschedule.controllers;
+
+import com.ogc.boardingschedule.domain.EmployeeImportReport;
+import com.ogc.boardingschedule.service.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.HttpStatus.OK;
+
+
+/**
+ * Importação de empregados no modo WebFlux: o corpo chega como um Flux de linhas, decodificado
+ * pelo StringDecoder conforme os buffers chegam, sem bloquear o event loop.
+ */
+@Slf4j
+@RestController
+@Profile("webflux")
+@RequestMapping("/v1/ogc/")
+public class OGCReactiveImportController {
+
+    private final EmployeeService employeeService;
+
+    public OGCReactiveImportController(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @ResponseStatus(OK)
+    @PostMapping(value = "/employees/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<EmployeeImportReport> importEmployees(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                      @RequestBody Flux<String> lines) {
+        log.info("Recebendo solicitação para importar empregados do tipo {}.", contentType);
+        return employeeService.importEmployees(lines, MediaType.parseMediaType(contentType));
+    }
+}
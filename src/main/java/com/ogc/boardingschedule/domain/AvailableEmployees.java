@@ -0,0 +1,22 @@
+package com.ogc.boardingschedule.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableEmployees {
+    LocalDate initDate;
+    String role;
+    Long enterpriseId;
+
+    int count;
+    List<Long> employeeIds;
+}
@@ -0,0 +1,20 @@
+package com.ogc.boardingschedule.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardingAvailability {
+    Long employeeId;
+    LocalDate nextInitDate;
+
+    List<BoardingWindow> windows;
+}
@@ -0,0 +1,21 @@
+package com.ogc.boardingschedule.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardingResult {
+    Long employeeId;
+    LocalDate initDate;
+    LocalDate endDate;
+
+    BoardingStatus status;
+    String message;
+}
@@ -0,0 +1,10 @@
+package com.ogc.boardingschedule.domain;
+
+public enum BoardingStatus {
+    CREATED,
+    WRONG_INIT_DATE,
+    EMPLOYEE_NOT_EXISTS,
+    EMPLOYEE_IN_DAY_OFF,
+    EMPLOYEE_ON_BOARD,
+    CAPACITY_EXCEEDED
+}
@@ -0,0 +1,17 @@
+package com.ogc.boardingschedule.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardingWindow {
+    LocalDate initDate;
+    LocalDate endDate;
+}
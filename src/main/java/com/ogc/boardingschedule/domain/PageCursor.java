@@ -0,0 +1,104 @@
+package com.ogc.boardingschedule.domain;
+
+import com.ogc.boardingschedule.exceptions.InvalidPageCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+public class PageCursor {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String SEPARATOR = "|";
+    private static final LocalDateTime FIRST_INIT_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    LocalDateTime initDate;
+    Long id;
+
+    public static PageCursor first() {
+        return new PageCursor(FIRST_INIT_DATE, 0L);
+    }
+
+    public static int limit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Cursor das páginas ordenadas só por id (empresas e empregados); um cursor de embarque é rejeitado.
+     */
+    public static PageCursor decodeById(String next) {
+        if (next == null || next.isEmpty()) {
+            return first();
+        }
+        String value = decodeValue(next);
+        try {
+            if (value.contains(SEPARATOR)) {
+                throw new IllegalArgumentException(value);
+            }
+            return new PageCursor(FIRST_INIT_DATE, Long.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            throw invalid(next);
+        }
+    }
+
+    /**
+     * Cursor das páginas de embarques ordenadas por (init_date, id); um cursor só com id é rejeitado.
+     */
+    public static PageCursor decodeByInitDate(String next) {
+        if (next == null || next.isEmpty()) {
+            return first();
+        }
+        String value = decodeValue(next);
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw invalid(next);
+        }
+        try {
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalid(next);
+        }
+    }
+
+    private static String decodeValue(String next) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(next), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(next);
+        }
+    }
+
+    private static InvalidPageCursorException invalid(String next) {
+        return new InvalidPageCursorException("Cursor de paginação inválido "+next+".");
+    }
+
+    public static <T> Page<T> page(List<T> rows, int limit, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new Page<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+    }
+
+    public static PageCursor byId(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public String encode() {
+        String value = initDate == null ? String.valueOf(id) : initDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
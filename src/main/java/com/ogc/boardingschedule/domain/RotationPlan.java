@@ -0,0 +1,19 @@
+package com.ogc.boardingschedule.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RotationPlan {
+    List<BoardingRequest> boardings;
+    List<RotationShortfall> shortfalls;
+
+    List<BoardingResult> results;
+}
@@ -0,0 +1,23 @@
+package com.ogc.boardingschedule.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RotationRequest {
+    List<Long> employeeIds;
+    LocalDate initDate;
+    LocalDate endDate;
+
+    Map<String, Integer> minimumCoverage;
+    boolean persist;
+}
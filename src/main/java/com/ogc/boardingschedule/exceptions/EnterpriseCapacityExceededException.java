@@ -0,0 +1,5 @@
+package com.ogc.boardingschedule.exceptions;
+
+public class EnterpriseCapacityExceededException extends RuntimeException {
+    public EnterpriseCapacityExceededException(String message) { super(message); }
+}
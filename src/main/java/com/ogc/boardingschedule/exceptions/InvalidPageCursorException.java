@@ -0,0 +1,5 @@
+package com.ogc.boardingschedule.exceptions;
+
+public class InvalidPageCursorException extends RuntimeException {
+    public InvalidPageCursorException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.ogc.boardingschedule.exceptions;
+
+public class RepositoryBusyException extends RuntimeException {
+    public RepositoryBusyException(String message) { super(message); }
+}
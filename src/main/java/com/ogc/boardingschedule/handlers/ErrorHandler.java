@@ -7,6 +7,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+/**
+ * Converte as exceções de domínio em ErrorMessage. Só usa ResponseEntity, por isso atende tanto o modo
+ * servlet quanto o WebFlux, em que o mesmo @ControllerAdvice é aplicado aos erros emitidos pelos Mono/Flux.
+ */
 @Slf4j
 @ControllerAdvice
 public class ErrorHandler {
@@ -22,6 +26,9 @@ public class ErrorHandler {
     private static final String WRONG_INIT_DATE_ERROR_CODE = "C009";
     private static final String BOARDING_ERROR_CODE = "C0010";
     private static final String BOARDING_SCHEDULE_ERROR_CODE = "C0011";
+    private static final String INVALID_PAGE_CURSOR_ERROR_CODE = "C0012";
+    private static final String REPOSITORY_BUSY_ERROR_CODE = "C0013";
+    private static final String CAPACITY_EXCEEDED_ERROR_CODE = "C0014";
     private static final String COMPANY_RESP_ERROR_ID_MESSAGE = "CNPJ inválido.";
     private static final String PERSON_RESP_ERROR_CODE = "P001";
     private static final String PERSON_RESP_ERROR_MESSAGE = "Falha ao obter dados de pessoa física";
@@ -30,7 +37,6 @@ public class ErrorHandler {
     private static final String AUTHORIZATION_RESP_ERROR_CODE = "A001";
     private static final String AUTHORIZATION_RESP_ERROR_MESSAGE = "Erro interno";
 
-
     @ExceptionHandler(EnterpriseException.class)
     public ResponseEntity handleCompanyException(EnterpriseException e) {
         log.error("Erro :: messagem: {}", e.getMessage());
@@ -96,6 +102,24 @@ public class ErrorHandler {
         log.error("Agendamento de embarque não existe:: messagem: {}", e.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessage.builder().code(BOARDING_SCHEDULE_ERROR_CODE).message(e.getMessage()).build());
     }
+
+    @ExceptionHandler(InvalidPageCursorException.class)
+    public ResponseEntity handleInvalidPageCursorException(InvalidPageCursorException e) {
+        log.error("Cursor de paginação inválido :: messagem: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ErrorMessage.builder().code(INVALID_PAGE_CURSOR_ERROR_CODE).message(e.getMessage()).build());
+    }
+
+    @ExceptionHandler(RepositoryBusyException.class)
+    public ResponseEntity handleRepositoryBusyException(RepositoryBusyException e) {
+        log.error("Chamada ao banco rejeitada por sobrecarga :: messagem: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ErrorMessage.builder().code(REPOSITORY_BUSY_ERROR_CODE).message(e.getMessage()).build());
+    }
+
+    @ExceptionHandler(EnterpriseCapacityExceededException.class)
+    public ResponseEntity handleEnterpriseCapacityExceededException(EnterpriseCapacityExceededException e) {
+        log.error("Limite de empregados a bordo da empresa atingido :: messagem: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ErrorMessage.builder().code(CAPACITY_EXCEEDED_ERROR_CODE).message(e.getMessage()).build());
+    }
     /*
     @ExceptionHandler(CompanyInformationException.class)
     public ResponseEntity handleCompanyInformationException(CompanyInformationException e) {
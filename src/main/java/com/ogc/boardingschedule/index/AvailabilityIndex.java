@@ -0,0 +1,212 @@
+package com.ogc.boardingschedule.index;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps comprimidos dos ids de empregados: um por dia com quem não pode embarcar por sobrepor um embarque, um por
+ * dia com quem não pode embarcar por causa de uma folga, um por cargo e um por empresa. Quem pode embarcar em um
+ * dia é o cargo e a empresa menos os dois primeiros, com as mesmas regras de findOnBoard e findInDayOff, então
+ * cada agendamento marca desde {@link #BLOCKED_BEFORE_DAYS} dias antes do início até o fim da folga. Dias
+ * anteriores a hoje não são guardados.
+ * Mantido em write-through pelos repositórios de empregados e de embarques, depois do BoardingIntervalIndex.
+ */
+@Component
+@Slf4j
+public class AvailabilityIndex {
+
+    static final int BLOCKED_BEFORE_DAYS = BoardingIntervalIndex.BOARDING_DAYS + BoardingIntervalIndex.DAY_OFF_DAYS;
+
+    private final BoardingIntervalIndex boardingIntervalIndex;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap employees = new RoaringBitmap();
+    private final Map<Integer, Employee> employeesById = new HashMap<>();
+    private final Map<String, RoaringBitmap> byRole = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byEnterprise = new HashMap<>();
+    private final NavigableMap<LocalDate, RoaringBitmap> onBoard = new TreeMap<>();
+    private final NavigableMap<LocalDate, RoaringBitmap> inDayOff = new TreeMap<>();
+
+    public AvailabilityIndex(BoardingIntervalIndex boardingIntervalIndex) {
+        this.boardingIntervalIndex = boardingIntervalIndex;
+    }
+
+    public void loadEmployees(Collection<Employee> all) {
+        lock.writeLock().lock();
+        try {
+            employees.clear();
+            employeesById.clear();
+            byRole.clear();
+            byEnterprise.clear();
+            all.forEach(this::addEmployee);
+            employees.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putEmployee(Long id, String role, Long enterpriseId) {
+        lock.writeLock().lock();
+        try {
+            removeEmployee(key(id));
+            addEmployee(new Employee(id, null, role, enterpriseId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployee(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEmployee(key(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carga inicial a partir dos agendamentos, marcando cada dia direto, sem consultar o BoardingIntervalIndex.
+     */
+    public void loadSchedules(Collection<BoardSchedule> schedules) {
+        lock.writeLock().lock();
+        try {
+            onBoard.clear();
+            inDayOff.clear();
+            LocalDate today = LocalDate.now();
+            for (BoardSchedule schedule : schedules) {
+                int id = key(schedule.getEmployeeId());
+                LocalDate onBoardFrom = schedule.getInitDate().minusDays(BoardingIntervalIndex.BOARDING_DAYS);
+                LocalDate dayOffEnd = schedule.getEndDate().plusDays(BoardingIntervalIndex.DAY_OFF_DAYS);
+                for (LocalDate day = max(blockedFrom(schedule), today); !day.isAfter(dayOffEnd); day = day.plusDays(1)) {
+                    boolean dayOff = day.isBefore(onBoardFrom) || day.isAfter(schedule.getEndDate());
+                    bitmap(dayOff ? inDayOff : onBoard, day).add(id);
+                }
+            }
+            onBoard.values().forEach(RoaringBitmap::runOptimize);
+            inDayOff.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recalcula os dias bloqueados pelo agendamento, até o fim da folga, a partir do BoardingIntervalIndex já
+     * atualizado. Vale para inclusão, remoção e os dois lados de uma alteração, e não apaga um dia que outro
+     * agendamento do mesmo empregado ainda ocupa.
+     */
+    public void reindex(BoardSchedule schedule) {
+        Long employeeId = schedule.getEmployeeId();
+        if (employeeId == null) {
+            return;
+        }
+        int id = key(employeeId);
+        LocalDate dayOffEnd = schedule.getEndDate().plusDays(BoardingIntervalIndex.DAY_OFF_DAYS);
+        lock.writeLock().lock();
+        try {
+            LocalDate today = LocalDate.now();
+            onBoard.headMap(today).clear();
+            inDayOff.headMap(today).clear();
+            for (LocalDate day = max(blockedFrom(schedule), today); !day.isAfter(dayOffEnd); day = day.plusDays(1)) {
+                boolean boarded = boardingIntervalIndex.findOnBoard(employeeId, day).isPresent();
+                boolean resting = !boarded && boardingIntervalIndex.findInDayOff(employeeId, day).isPresent();
+                mark(onBoard, day, id, boarded);
+                mark(inDayOff, day, id, resting);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids dos empregados que podem embarcar no dia, filtrando por cargo e empresa quando informados.
+     */
+    public int[] findAvailable(LocalDate day, String role, Long enterpriseId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = employees;
+            if (role != null) {
+                candidates = RoaringBitmap.and(candidates, byRole.getOrDefault(role, new RoaringBitmap()));
+            }
+            if (enterpriseId != null) {
+                candidates = RoaringBitmap.and(candidates, byEnterprise.getOrDefault(enterpriseId, new RoaringBitmap()));
+            }
+            RoaringBitmap busy = RoaringBitmap.or(
+                    onBoard.getOrDefault(day, new RoaringBitmap()), inDayOff.getOrDefault(day, new RoaringBitmap()));
+            return RoaringBitmap.andNot(candidates, busy).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addEmployee(Employee employee) {
+        int id = key(employee.getId());
+        employees.add(id);
+        employeesById.put(id, employee);
+        if (employee.getRole() != null) {
+            byRole.computeIfAbsent(employee.getRole(), role -> new RoaringBitmap()).add(id);
+        }
+        if (employee.getEnterpriseId() != null) {
+            byEnterprise.computeIfAbsent(employee.getEnterpriseId(), enterpriseId -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void removeEmployee(int id) {
+        Employee old = employeesById.remove(id);
+        employees.remove(id);
+        if (old == null) {
+            return;
+        }
+        if (old.getRole() != null) {
+            remove(byRole, old.getRole(), id);
+        }
+        if (old.getEnterpriseId() != null) {
+            remove(byEnterprise, old.getEnterpriseId(), id);
+        }
+    }
+
+    private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static void mark(NavigableMap<LocalDate, RoaringBitmap> days, LocalDate day, int id, boolean value) {
+        if (value) {
+            bitmap(days, day).add(id);
+        } else {
+            remove(days, day, id);
+        }
+    }
+
+    private static RoaringBitmap bitmap(NavigableMap<LocalDate, RoaringBitmap> days, LocalDate day) {
+        return days.computeIfAbsent(day, d -> new RoaringBitmap());
+    }
+
+    private static LocalDate blockedFrom(BoardSchedule schedule) {
+        return schedule.getInitDate().minusDays(BLOCKED_BEFORE_DAYS);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static int key(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ogc.boardingschedule.index;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Índice em memória dos intervalos de embarque de cada empregado, ordenados pela data de início.
+ * Mantido em write-through pelo BoardingRepository para que as verificações de embarque e folga
+ * não precisem ir ao banco.
+ * <p>
+ * Um embarque novo de {@link #BOARDING_DAYS} dias conflita com qualquer agendamento do empregado que comece até o
+ * fim da sua folga e termine depois do início da folga anterior a ele, a mesma regra do NOT EXISTS das consultas
+ * de inclusão e alteração. findInDayOff e findOnBoard dividem esse conflito entre folga e período a bordo.
+ */
+@Component
+@Slf4j
+public class BoardingIntervalIndex {
+
+    public static final int BOARDING_DAYS = 15;
+    public static final int DAY_OFF_DAYS = 7;
+
+    private static final Comparator<BoardSchedule> BY_INIT_DATE = Comparator
+            .comparing(BoardSchedule::getInitDate)
+            .thenComparing(BoardSchedule::getId);
+
+    private final Map<Long, NavigableSet<BoardSchedule>> schedulesByEmployee = new ConcurrentHashMap<>();
+    private final Map<Long, BoardSchedule> schedulesById = new ConcurrentHashMap<>();
+    private volatile long maxSpanDays = 0;
+
+    public synchronized void load(Collection<BoardSchedule> schedules) {
+        schedulesByEmployee.clear();
+        schedulesById.clear();
+        maxSpanDays = 0;
+        schedules.forEach(this::put);
+    }
+
+    public synchronized void put(BoardSchedule schedule) {
+        remove(schedule.getId());
+
+        BoardSchedule copy = new BoardSchedule(schedule.getId(), schedule.getEmployeeId(),
+                schedule.getInitDate(), schedule.getEndDate());
+        schedulesById.put(copy.getId(), copy);
+        schedulesByEmployee
+                .computeIfAbsent(copy.getEmployeeId(), id -> new ConcurrentSkipListSet<>(BY_INIT_DATE))
+                .add(copy);
+
+        long span = ChronoUnit.DAYS.between(copy.getInitDate(), copy.getEndDate());
+        if (span > maxSpanDays) {
+            maxSpanDays = span;
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        BoardSchedule old = schedulesById.remove(id);
+        if (old == null) {
+            return;
+        }
+        NavigableSet<BoardSchedule> schedules = schedulesByEmployee.get(old.getEmployeeId());
+        if (schedules != null) {
+            schedules.remove(old);
+            if (schedules.isEmpty()) {
+                schedulesByEmployee.remove(old.getEmployeeId());
+            }
+        }
+    }
+
+    public Optional<BoardSchedule> findOnBoard(Long employeeId, LocalDate day) {
+        return findOnBoard(employeeId, day, null);
+    }
+
+    /**
+     * Agendamento que se sobrepõe a um embarque iniciado em {@code day}.
+     */
+    public Optional<BoardSchedule> findOnBoard(Long employeeId, LocalDate day, Long ignoredId) {
+        LocalDate endDate = day.plusDays(BOARDING_DAYS);
+        return candidates(employeeId, day.minusDays(maxSpanDays), endDate)
+                .stream()
+                .filter(s -> !s.getId().equals(ignoredId))
+                .filter(s -> !s.getEndDate().isBefore(day))
+                .findFirst();
+    }
+
+    public Optional<BoardSchedule> findInDayOff(Long employeeId, LocalDate day) {
+        return findInDayOff(employeeId, day, null);
+    }
+
+    /**
+     * Agendamento cuja folga cobre {@code day} ou que começa antes de terminar a folga de um embarque iniciado
+     * em {@code day}.
+     */
+    public Optional<BoardSchedule> findInDayOff(Long employeeId, LocalDate day, Long ignoredId) {
+        LocalDate endDate = day.plusDays(BOARDING_DAYS);
+        return candidates(employeeId, day.minusDays(maxSpanDays + DAY_OFF_DAYS), endDate.plusDays(DAY_OFF_DAYS))
+                .stream()
+                .filter(s -> !s.getId().equals(ignoredId))
+                .filter(s -> (!day.isBefore(s.getEndDate()) && !day.isAfter(s.getEndDate().plusDays(DAY_OFF_DAYS)))
+                        || (!s.getInitDate().isBefore(endDate) && !s.getInitDate().isAfter(endDate.plusDays(DAY_OFF_DAYS))))
+                .findFirst();
+    }
+
+    /**
+     * Agendamentos do empregado que tocam o período, ordenados pela data de início.
+     */
+    public List<BoardSchedule> findBetween(Long employeeId, LocalDate from, LocalDate to) {
+        return candidates(employeeId, from.minusDays(maxSpanDays), to)
+                .stream()
+                .filter(s -> !s.getEndDate().isBefore(from))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Próximas janelas de dias em que o empregado pode embarcar a partir de {@code from}, com as mesmas regras de
+     * findOnBoard e findInDayOff: cada agendamento bloqueia de {@link #BOARDING_DAYS} mais {@link #DAY_OFF_DAYS}
+     * dias antes do início até o fim da folga. Uma única busca no conjunto ordenado percorre os agendamentos em
+     * ordem; a última janela fica sem data de fim.
+     */
+    public List<BoardingWindow> findFreeWindows(Long employeeId, LocalDate from, int limit) {
+        List<BoardingWindow> windows = new ArrayList<>();
+        LocalDate start = from;
+        NavigableSet<BoardSchedule> schedules = schedulesByEmployee.get(employeeId);
+        if (schedules != null) {
+            for (BoardSchedule schedule : schedules.tailSet(probe(from.minusDays(maxSpanDays + DAY_OFF_DAYS), Long.MIN_VALUE), true)) {
+                LocalDate blockedTo = schedule.getEndDate().plusDays(DAY_OFF_DAYS);
+                if (blockedTo.isBefore(start)) {
+                    continue;
+                }
+                LocalDate blockedFrom = schedule.getInitDate().minusDays(BOARDING_DAYS + DAY_OFF_DAYS);
+                if (blockedFrom.isAfter(start)) {
+                    windows.add(new BoardingWindow(start, blockedFrom.minusDays(1)));
+                    if (windows.size() == limit) {
+                        return windows;
+                    }
+                }
+                start = blockedTo.plusDays(1);
+            }
+        }
+        windows.add(new BoardingWindow(start, null));
+        return windows;
+    }
+
+    public int size() {
+        return schedulesById.size();
+    }
+
+    private NavigableSet<BoardSchedule> candidates(Long employeeId, LocalDate from, LocalDate to) {
+        NavigableSet<BoardSchedule> schedules = schedulesByEmployee.get(employeeId);
+        if (schedules == null) {
+            return new ConcurrentSkipListSet<>(BY_INIT_DATE);
+        }
+        return schedules.subSet(probe(from, Long.MIN_VALUE), true, probe(to, Long.MAX_VALUE), true);
+    }
+
+    private static BoardSchedule probe(LocalDate initDate, Long id) {
+        return new BoardSchedule(id, null, initDate, null);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ogc.boardingschedule.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice de trigramas dos nomes normalizados dos empregados para busca por substring.
+ * As listas de ocorrência são ordenadas por id e a busca exata intersecta as listas dos trigramas
+ * da consulta; a busca tolerante a erros usa o lema de contagem de q-gramas para filtrar candidatos
+ * e confirma cada um com distância de edição aproximada (Sellers).
+ */
+@Component
+@Slf4j
+public class EmployeeNameIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> namesById = new ConcurrentSkipListMap<>();
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public synchronized void load(Map<Long, String> names) {
+        postings.clear();
+        namesById.clear();
+        names.forEach(this::put);
+    }
+
+    public synchronized void put(Long id, String name) {
+        remove(id);
+        String normalized = normalize(name);
+        namesById.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        String old = namesById.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    /**
+     * Ids dos empregados cujo nome contém a consulta, em ordem de id, limitados a {@code limit}.
+     * Com {@code fuzzy}, aceita até {@link #maxErrors(int)} erros de digitação e ordena pelo número de erros.
+     */
+    public List<Long> search(String query, int limit, boolean fuzzy) {
+        String normalized = normalize(query);
+        if (fuzzy) {
+            return searchApproximate(normalized, limit);
+        }
+        return searchExact(normalized, limit);
+    }
+
+    private List<Long> searchExact(String query, int limit) {
+        List<Long> result = new ArrayList<>();
+        for (Long id : exactCandidates(query)) {
+            String name = namesById.get(id);
+            if (name != null && name.contains(query)) {
+                result.add(id);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Iterable<Long> exactCandidates(String query) {
+        Set<String> grams = grams(query);
+        if (grams.isEmpty()) {
+            // Consulta menor que um trigrama: percorre o próprio mapa, já em ordem de id, sem copiar os ids;
+            // searchExact para ao atingir o limite.
+            return namesById.keySet();
+        }
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : grams) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Long> candidates = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            if (containsInAll(lists, id)) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean containsInAll(List<NavigableSet<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Long> searchApproximate(String query, int limit) {
+        int maxErrors = maxErrors(query.length());
+        List<String> grams = new ArrayList<>(grams(query));
+        int threshold = grams.size() - maxErrors * GRAM;
+
+        Iterable<Long> candidates;
+        if (threshold <= 0) {
+            candidates = namesById.keySet();
+        } else {
+            Map<Long, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                NavigableSet<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+                }
+            }
+            List<Long> filtered = new ArrayList<>();
+            shared.forEach((id, count) -> {
+                if (count >= threshold) {
+                    filtered.add(id);
+                }
+            });
+            candidates = filtered;
+        }
+
+        List<long[]> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            String name = namesById.get(id);
+            if (name == null) {
+                continue;
+            }
+            int errors = substringDistance(query, name);
+            if (errors <= maxErrors) {
+                matches.add(new long[]{errors, id});
+            }
+        }
+        matches.sort(Comparator.<long[]>comparingLong(m -> m[0]).thenComparingLong(m -> m[1]));
+
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i)[1]);
+        }
+        return result;
+    }
+
+    static int maxErrors(int queryLength) {
+        if (queryLength < 4) {
+            return 0;
+        }
+        return queryLength < 8 ? 1 : 2;
+    }
+
+    /**
+     * Menor distância de edição entre a consulta e qualquer substring do texto.
+     */
+    static int substringDistance(String pattern, String text) {
+        int[] previous = new int[pattern.length() + 1];
+        int[] current = new int[pattern.length() + 1];
+        for (int i = 0; i <= pattern.length(); i++) {
+            previous[i] = i;
+        }
+        int best = previous[pattern.length()];
+        for (int j = 1; j <= text.length(); j++) {
+            current[0] = 0;
+            for (int i = 1; i <= pattern.length(); i++) {
+                int cost = pattern.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+            }
+            best = Math.min(best, current[pattern.length()]);
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.BoardingStatus;
+import com.ogc.boardingschedule.index.BoardingIntervalIndex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validação do agendamento em lote, comum às implementações JDBC e R2DBC do BoardingRepository.
+ */
+final class BoardingBatch {
+
+    private BoardingBatch() {
+    }
+
+    static Set<Long> employeeIds(List<BoardSchedule> schedules) {
+        return schedules.stream()
+                .map(BoardSchedule::getEmployeeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Início e fim do período em que um agendamento gravado pode conflitar com algum item do lote, da folga
+     * anterior ao primeiro embarque até a folga posterior ao último.
+     */
+    static LocalDate fromDate(List<BoardSchedule> schedules) {
+        return schedules.stream().map(BoardSchedule::getInitDate).min(Comparator.naturalOrder()).get()
+                .minusDays(BoardingIntervalIndex.DAY_OFF_DAYS);
+    }
+
+    static LocalDate toDate(List<BoardSchedule> schedules) {
+        return lastEndDate(schedules).plusDays(BoardingIntervalIndex.DAY_OFF_DAYS);
+    }
+
+    static LocalDate lastEndDate(List<BoardSchedule> schedules) {
+        return schedules.stream().map(BoardSchedule::getEndDate).max(Comparator.naturalOrder()).get();
+    }
+
+    /**
+     * Classifica cada item do lote contra os agendamentos já gravados e contra os itens aceitos antes dele, com a
+     * regra de conflito do BoardingIntervalIndex nos dois sentidos, inclusive quanto ao limite de empregados a bordo
+     * da empresa. Os itens aceitos são adicionados em
+     * {@code accepted}, na ordem do lote.
+     */
+    static List<BoardingResult> classify(List<BoardSchedule> schedules, Set<Long> existingEmployees,
+                                         Collection<BoardSchedule> existingSchedules, CapacityLimits capacity,
+                                         List<BoardSchedule> accepted) {
+        BoardingIntervalIndex batchIndex = new BoardingIntervalIndex();
+        batchIndex.load(existingSchedules);
+
+        List<BoardingResult> results = new ArrayList<>();
+        long batchId = 0;
+        for (BoardSchedule schedule : schedules) {
+            Long employeeId = schedule.getEmployeeId();
+            if (!existingEmployees.contains(employeeId)) {
+                results.add(boardingResult(schedule, BoardingStatus.EMPLOYEE_NOT_EXISTS,
+                        "Empregado com id = "+employeeId+" não existe."));
+            } else if (batchIndex.findInDayOff(employeeId, schedule.getInitDate()).isPresent()) {
+                results.add(boardingResult(schedule, BoardingStatus.EMPLOYEE_IN_DAY_OFF,
+                        "Empregado id = "+employeeId+" está em período de folga"));
+            } else if (batchIndex.findOnBoard(employeeId, schedule.getInitDate()).isPresent()) {
+                results.add(boardingResult(schedule, BoardingStatus.EMPLOYEE_ON_BOARD,
+                        "Empregado id = "+employeeId+" já  está embarcado."));
+            } else if (!capacity.tryReserve(schedule)) {
+                results.add(boardingResult(schedule, BoardingStatus.CAPACITY_EXCEEDED,
+                        "Empresa do empregado id = "+employeeId+" atingiu o limite de empregados a bordo no período."));
+            } else {
+                batchIndex.put(new BoardSchedule(--batchId, employeeId, schedule.getInitDate(), schedule.getEndDate()));
+                accepted.add(schedule);
+                results.add(boardingResult(schedule, BoardingStatus.CREATED,
+                        "Empregado agendado para o intervalo entre "+schedule.getInitDate()+" e "+schedule.getEndDate()+"."));
+            }
+        }
+        return results;
+    }
+
+    private static BoardingResult boardingResult(BoardSchedule schedule, BoardingStatus status, String message) {
+        return BoardingResult.builder()
+                .employeeId(schedule.getEmployeeId())
+                .initDate(schedule.getInitDate())
+                .endDate(schedule.getEndDate())
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
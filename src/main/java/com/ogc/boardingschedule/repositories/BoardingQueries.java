@@ -0,0 +1,153 @@
+package com.ogc.boardingschedule.repositories;
+
+/**
+ * Consultas compartilhadas pelas implementações JDBC e R2DBC do BoardingRepository.
+ */
+final class BoardingQueries {
+
+    static final String QUERY_GET_BOARDING_SCHEDULE_BY_ID = "SELECT bs.id, bs.employee_id as employeeId, " +
+            "bs.init_date as initDate, bs.end_date as endDate " +
+            " FROM board_schedule bs " +
+            "WHERE bs.id = :id";
+
+    static final String QUERY_GET_ALL_BOARD_SCHEDULES = "SELECT bs.id, bs.employee_id as employeeId, " +
+            "bs.init_date as initDate, bs.end_date as endDate " +
+            " FROM board_schedule bs";
+
+    static final String QUERY_GET_SCHEDULES_BY_EMPLOYEE_IDS = "SELECT bs.id, bs.employee_id as employeeId, " +
+            "bs.init_date as initDate, bs.end_date as endDate " +
+            " FROM board_schedule bs " +
+            "WHERE bs.employee_id in (:ids) " +
+            "  AND bs.end_date >= :fromDate " +
+            "  AND bs.init_date <= :toDate";
+
+    static final String QUERY_GET_EXISTING_EMPLOYEE_IDS = "SELECT id FROM employee " +
+            "WHERE id in (:ids)";
+
+    static final String QUERY_GET_ALL_SCHEDULES = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "     inner join enterprise e on emp.enterprise_id = e.id ";
+
+    static final String QUERY_GET_SCHEDULES_PAGE = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "     inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE bs.init_date >= :initDate " +
+            "  AND (bs.init_date > :initDate or bs.id > :id) " +
+            "ORDER BY bs.init_date, bs.id " +
+            "LIMIT :limit";
+
+    static final String QUERY_GET_SCHEDULE_BY_EMPLOYEE_ID = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "     inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE bs.employee_id = :id ";
+
+    static final String QUERY_GET_SCHEDULE_BETWEEN_DATES = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "     inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE bs.end_date >= :initDate " +
+            "  AND bs.init_date <= :endDate";
+
+    static final String QUERY_GET_SCHEDULE_BY_ENTERPRISE_ID = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "     inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE emp.enterprise_id = :id ";
+
+    static final String QUERY_GET_SCHEDULES_PAGE_BY_ENTERPRISE_ID = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "     inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE emp.enterprise_id = :enterpriseId " +
+            "  AND bs.init_date >= :initDate " +
+            "  AND (bs.init_date > :initDate or bs.id > :id) " +
+            "ORDER BY bs.init_date, bs.id " +
+            "LIMIT :limit";
+
+    static final String QUERY_GET_ROLE_INTERVALS_BY_ENTERPRISE_ID = "SELECT emp.role, bs.init_date as initDate, " +
+            " bs.end_date as endDate " +
+            " FROM employee emp " +
+            "     left join board_schedule bs on bs.employee_id = emp.id " +
+            "                                AND bs.end_date >= :initDate " +
+            "                                AND bs.init_date <= :endDate " +
+            "WHERE emp.enterprise_id = :id " +
+            "ORDER BY emp.role, bs.init_date";
+
+    static final String QUERY_GET_EMPLOYEE_IN_DAY_OFF = "SELECT  emp.ID, emp.name, emp.ROLE, emp.ENTERPRISE_ID, " +
+            "e.name as enterpriseName " +
+            "FROM board_schedule bs " +
+            "   inner join employee emp on bs.employee_id = emp.id " +
+            "   inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE bs.employee_id = :employeeId " +
+            "AND bs.end_date between :dayOffInitDate and :initDate";
+
+    static final String QUERY_GET_EMPLOYEE_ON_BOARD = "SELECT bs.ID, bs.init_date as initDate, " +
+            " bs.end_date as endDate, bs.employee_id employeeId, emp.name as employeeName, emp.role," +
+            " e.id as enterpriseId, e.name enterpriseName " +
+            "FROM board_schedule bs " +
+            "   inner join employee emp on bs.employee_id = emp.id " +
+            "   inner join enterprise e on emp.enterprise_id = e.id " +
+            "WHERE bs.employee_id = :employeeId " +
+            "AND bs.init_date <= :initDate " +
+            "AND bs.end_date >= :initDate";
+
+    static final String QUERY_INSERT_NEW_BOARDING = "INSERT INTO board_schedule (employee_id, init_date, end_date)  " +
+            "  VALUES (:employeeId, :initDate, :endDate)";
+
+    static final String QUERY_LOCK_EMPLOYEE = "SELECT id FROM employee " +
+            "WHERE id = :employeeId FOR UPDATE";
+
+    static final String QUERY_LOCK_EMPLOYEES = "SELECT id FROM employee " +
+            "WHERE id in (:ids) ORDER BY id FOR UPDATE";
+
+    static final String QUERY_INSERT_NEW_BOARDING_WITHOUT_CONFLICT = "INSERT INTO board_schedule (employee_id, init_date, end_date) " +
+            "SELECT emp.id, :initDate, :endDate " +
+            "  FROM employee emp " +
+            " WHERE emp.id = :employeeId " +
+            "   AND NOT EXISTS (SELECT 1 FROM board_schedule bs " +
+            "                    WHERE bs.employee_id = :employeeId " +
+            "                      AND bs.end_date >= :dayOffInitDate " +
+            "                      AND bs.init_date <= :dayOffEndDate)";
+
+    static final String QUERY_UPDATE_SCHEDULE_WITHOUT_CONFLICT = "UPDATE board_schedule " +
+            "   SET employee_id = :employeeId, init_date = :initDate, end_date = :endDate " +
+            " WHERE id = :id " +
+            "   AND NOT EXISTS (SELECT 1 FROM board_schedule bs " +
+            "                    WHERE bs.employee_id = :employeeId " +
+            "                      AND bs.id <> :id " +
+            "                      AND bs.end_date >= :dayOffInitDate " +
+            "                      AND bs.init_date <= :dayOffEndDate)";
+
+    static final String QUERY_COUNT_EMPLOYEE_IN_DAY_OFF = "SELECT count(*) FROM board_schedule bs " +
+            "WHERE bs.employee_id = :employeeId " +
+            "AND bs.id <> :id " +
+            "AND (bs.end_date between :dayOffInitDate and :initDate " +
+            "     OR bs.init_date between :endDate and :dayOffEndDate)";
+
+    static final String QUERY_COUNT_EMPLOYEE_CONFLICTS = "SELECT count(*) FROM board_schedule bs " +
+            "WHERE bs.employee_id = :employeeId " +
+            "AND bs.id <> :id " +
+            "AND bs.end_date >= :dayOffInitDate " +
+            "AND bs.init_date <= :dayOffEndDate";
+
+    static final String QUERY_DELETE_SCHEDULE = "DELETE from board_schedule " +
+            "  WHERE id = :id";
+
+    private BoardingQueries() {
+    }
+}
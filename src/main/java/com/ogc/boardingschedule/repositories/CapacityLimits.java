@@ -0,0 +1,87 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limite de empregados a bordo das empresas e a ocupação já gravada nos dias de interesse, comum às implementações
+ * JDBC e R2DBC do OccupancyRepository. Deve ser montado com as empresas travadas, de forma que cada dia seja
+ * verificado com uma consulta ao mapa, sem contar os agendamentos. Empresas sem linha em enterprise_capacity não
+ * têm limite.
+ */
+final class CapacityLimits {
+
+    private final Map<Long, Long> enterpriseIdsByEmployee;
+    private final Map<Long, Integer> maxHeadcounts;
+    private final Map<Long, Map<LocalDate, Integer>> headcounts = new HashMap<>();
+
+    CapacityLimits(Map<Long, Long> enterpriseIdsByEmployee, Map<Long, Integer> maxHeadcounts,
+                   Collection<DailyOccupancy> occupancy) {
+        this.enterpriseIdsByEmployee = enterpriseIdsByEmployee;
+        this.maxHeadcounts = maxHeadcounts;
+        for (DailyOccupancy day : occupancy) {
+            headcounts(day.getEnterpriseId()).put(day.getDay(), day.getCount());
+        }
+    }
+
+    static CapacityLimits none() {
+        return new CapacityLimits(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList());
+    }
+
+    /**
+     * Falha se algum dia que recebe empregados passar do limite. Dias que só perdem empregados não são
+     * verificados, então reduzir o limite abaixo da ocupação atual não impede remarcações e cancelamentos.
+     */
+    void check(OccupancyDelta delta) {
+        for (Long enterpriseId : delta.enterpriseIds()) {
+            Integer maxHeadcount = maxHeadcounts.get(enterpriseId);
+            if (maxHeadcount == null) {
+                continue;
+            }
+            Map<LocalDate, Integer> current = headcounts(enterpriseId);
+            delta.days(enterpriseId).forEach((day, value) -> {
+                if (value > 0 && current.getOrDefault(day, 0) + value > maxHeadcount) {
+                    throw exceeded(enterpriseId, maxHeadcount, day);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reserva o período do agendamento se nenhum dia passar do limite da empresa do empregado, para que os
+     * itens seguintes do mesmo lote já contem com ele.
+     */
+    boolean tryReserve(BoardSchedule schedule) {
+        Long enterpriseId = enterpriseIdsByEmployee.get(schedule.getEmployeeId());
+        Integer maxHeadcount = enterpriseId == null ? null : maxHeadcounts.get(enterpriseId);
+        if (maxHeadcount == null) {
+            return true;
+        }
+        Map<LocalDate, Integer> current = headcounts(enterpriseId);
+        for (LocalDate day = schedule.getInitDate(); !day.isAfter(schedule.getEndDate()); day = day.plusDays(1)) {
+            if (current.getOrDefault(day, 0) + 1 > maxHeadcount) {
+                return false;
+            }
+        }
+        for (LocalDate day = schedule.getInitDate(); !day.isAfter(schedule.getEndDate()); day = day.plusDays(1)) {
+            current.merge(day, 1, Integer::sum);
+        }
+        return true;
+    }
+
+    private Map<LocalDate, Integer> headcounts(Long enterpriseId) {
+        return headcounts.computeIfAbsent(enterpriseId, id -> new HashMap<>());
+    }
+
+    private static EnterpriseCapacityExceededException exceeded(Long enterpriseId, Integer maxHeadcount, LocalDate day) {
+        return new EnterpriseCapacityExceededException("Empresa id = "+enterpriseId+" já tem o limite de "+maxHeadcount
+                +" empregados a bordo no dia "+day+".");
+    }
+}
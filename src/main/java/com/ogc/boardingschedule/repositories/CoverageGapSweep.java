@@ -0,0 +1,99 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.CoverageGap;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Varredura única dos embarques de uma empresa ordenados por cargo e data de início, comum às implementações
+ * JDBC e R2DBC do BoardingRepository. Para cada cargo guarda só o primeiro dia ainda não coberto, então a memória
+ * não depende do tamanho do período nem do número de embarques.
+ */
+final class CoverageGapSweep {
+
+    private final LocalDate initDate;
+    private final LocalDate endDate;
+
+    private boolean started;
+    private String role;
+    private LocalDate uncovered;
+
+    CoverageGapSweep(LocalDate initDate, LocalDate endDate) {
+        this.initDate = initDate;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Lacunas dos intervalos, que devem chegar ordenados por cargo e data de início. Cargos sem embarque no período
+     * chegam com as datas nulas e aparecem com uma única lacuna do período inteiro.
+     */
+    static Flux<CoverageGap> gaps(Flux<Interval> intervals, LocalDate initDate, LocalDate endDate) {
+        return Flux.defer(() -> {
+            CoverageGapSweep sweep = new CoverageGapSweep(initDate, endDate);
+            return intervals.concatMapIterable(sweep::next)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(sweep.finish())));
+        });
+    }
+
+    List<CoverageGap> next(Interval interval) {
+        List<CoverageGap> gaps = Collections.emptyList();
+        if (!started || !Objects.equals(role, interval.role)) {
+            gaps = finish();
+            started = true;
+            role = interval.role;
+            uncovered = initDate;
+        }
+        if (interval.initDate == null || interval.endDate == null) {
+            return gaps;
+        }
+        if (interval.initDate.isAfter(uncovered) && !uncovered.isAfter(endDate)) {
+            gaps = new ArrayList<>(gaps);
+            gaps.add(gap(uncovered, min(interval.initDate.minusDays(1), endDate)));
+        }
+        LocalDate next = interval.endDate.plusDays(1);
+        if (next.isAfter(uncovered)) {
+            uncovered = next;
+        }
+        return gaps;
+    }
+
+    List<CoverageGap> finish() {
+        if (!started) {
+            return Collections.emptyList();
+        }
+        started = false;
+        if (uncovered.isAfter(endDate)) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(gap(uncovered, endDate));
+    }
+
+    private CoverageGap gap(LocalDate from, LocalDate to) {
+        return new CoverageGap(role, from, to, ChronoUnit.DAYS.between(from, to) + 1);
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Período a bordo de um empregado com o cargo, com o dia de início e o de fim incluídos.
+     */
+    static final class Interval {
+        final String role;
+        final LocalDate initDate;
+        final LocalDate endDate;
+
+        Interval(String role, LocalDate initDate, LocalDate endDate) {
+            this.role = role;
+            this.initDate = initDate;
+            this.endDate = endDate;
+        }
+    }
+}
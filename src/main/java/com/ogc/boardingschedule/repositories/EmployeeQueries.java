@@ -0,0 +1,54 @@
+package com.ogc.boardingschedule.repositories;
+
+/**
+ * Consultas compartilhadas pelas implementações JDBC e R2DBC do EmployeeRepository.
+ */
+final class EmployeeQueries {
+
+    static final String QUERY_GET_EMPLOYEE_DETAIL_BY_IDS = "SELECT emp.ID, emp.NAME, emp.ROLE, emp.ENTERPRISE_ID, e.name as enterpriseName " +
+            " FROM employee emp inner join enterprise e " +
+            "     on emp.enterprise_id = e.id " +
+            "WHERE emp.id in (:ids)";
+
+    static final String QUERY_GET_EMPLOYEE_NAMES = "SELECT id, name FROM employee";
+
+    static final String QUERY_GET_EMPLOYEE_DETAIL_BY_ID = "SELECT emp.ID, emp.NAME, emp.ROLE, emp.ENTERPRISE_ID, e.name as enterpriseName " +
+            " FROM employee emp inner join enterprise e " +
+            "     on emp.enterprise_id = e.id " +
+            "WHERE emp.id = :id";
+
+    static final String QUERY_GET_EMPLOYEES = "SELECT ID, NAME, ROLE, ENTERPRISE_ID " +
+            " FROM employee";
+
+    static final String QUERY_GET_EMPLOYEES_BY_IDS = "SELECT ID, NAME, ROLE, ENTERPRISE_ID " +
+            " FROM employee WHERE id in (:ids) ORDER BY id";
+
+    static final String QUERY_GET_EMPLOYEES_DETAIL = "SELECT emp.ID, emp.NAME, emp.ROLE, emp.ENTERPRISE_ID, e.name as enterpriseName " +
+            " FROM employee emp inner join enterprise e " +
+            "     on emp.enterprise_id = e.id" ;
+
+    static final String QUERY_GET_EMPLOYEES_PAGE = "SELECT ID, NAME, ROLE, ENTERPRISE_ID " +
+            " FROM employee " +
+            "WHERE id > :id " +
+            "ORDER BY id " +
+            "LIMIT :limit";
+
+    static final String QUERY_GET_EMPLOYEES_DETAIL_PAGE = "SELECT emp.ID, emp.NAME, emp.ROLE, emp.ENTERPRISE_ID, e.name as enterpriseName " +
+            " FROM employee emp inner join enterprise e " +
+            "     on emp.enterprise_id = e.id " +
+            "WHERE emp.id > :id " +
+            "ORDER BY emp.id " +
+            "LIMIT :limit";
+
+    static final String QUERY_INSERT_NEW_EMPLOYEE = "INSERT INTO employee (name, role, enterprise_id)  " +
+            "  VALUES (:name, :role, :enterpriseId)";
+
+    static final String QUERY_DELETE_EMPLOYEE = "DELETE from employee " +
+            "  WHERE id = :id";
+
+    static final String QUERY_UPDATE_EMPLOYEE = "UPDATE employee set name = :name, role = :role, enterprise_id = :enterpriseId" +
+            "  WHERE id = :id";
+
+    private EmployeeQueries() {
+    }
+}
@@ -0,0 +1,35 @@
+package com.ogc.boardingschedule.repositories;
+
+/**
+ * Consultas compartilhadas pelas implementações JDBC e R2DBC do EnterpriseRepository.
+ */
+final class EnterpriseQueries {
+
+    static final String QUERY_GET_COMPANY_BY_NAME = "SELECT id, name " +
+            "FROM enterprise WHERE normalized_name = :normalizedName";
+
+    static final String QUERY_GET_COMPANY_BY_ID = "SELECT id, name " +
+            "FROM enterprise WHERE id = :id";
+
+    static final String QUERY_GET_COMPANIES = "SELECT ID, NAME " +
+            " FROM enterprise";
+
+    static final String QUERY_GET_COMPANIES_PAGE = "SELECT ID, NAME " +
+            " FROM enterprise " +
+            "WHERE id > :id " +
+            "ORDER BY id " +
+            "LIMIT :limit";
+
+    static final String QUERY_INSERT_NEW_COMPANY = "INSERT INTO enterprise (name, normalized_name) " +
+            "SELECT :name, :normalizedName" +
+            " WHERE NOT EXISTS (SELECT 1 FROM enterprise WHERE normalized_name = :normalizedName)";
+
+    static final String QUERY_DELETE_COMPANY = "DELETE from enterprise " +
+            "  WHERE id = :id";
+
+    static final String QUERY_UPDATE_COMPANY = "UPDATE enterprise set name = :name, normalized_name = :normalizedName" +
+            "  WHERE id = :id";
+
+    private EnterpriseQueries() {
+    }
+}
@@ -0,0 +1,537 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.CoverageGap;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.*;
+import com.ogc.boardingschedule.index.AvailabilityIndex;
+import com.ogc.boardingschedule.index.BoardingIntervalIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.ogc.boardingschedule.repositories.BoardingQueries.*;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.LISTING;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.WRITE;
+
+
+@Repository
+@Profile("!r2dbc")
+@Slf4j
+public class JdbcBoardingRepository implements BoardingRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowMapper<BoardSchedule> rowMapper = RowMappers.BOARD_SCHEDULE;
+    private final RowMapper<BoardingDetail> rowDetailMapper = RowMappers.BOARDING_DETAIL;
+    private final RowMapper<EmployeeDetail> rowEmployeeDetailMapper = RowMappers.EMPLOYEE_DETAIL;
+    private final EmployeeRepository employeeRepository;
+    private final BoardingIntervalIndex boardingIntervalIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final JdbcResultSetStreamer resultSetStreamer;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcExecutor jdbcExecutor;
+    private final JdbcOccupancyRepository occupancyRepository;
+
+    public JdbcBoardingRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                  EmployeeRepository employeeRepository,
+                                  BoardingIntervalIndex boardingIntervalIndex,
+                                  AvailabilityIndex availabilityIndex,
+                                  JdbcResultSetStreamer resultSetStreamer,
+                                  TransactionTemplate transactionTemplate,
+                                  JdbcExecutor jdbcExecutor,
+                                  JdbcOccupancyRepository occupancyRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.employeeRepository = employeeRepository;
+        this.boardingIntervalIndex = boardingIntervalIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.resultSetStreamer = resultSetStreamer;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcExecutor = jdbcExecutor;
+        this.occupancyRepository = occupancyRepository;
+    }
+
+    @PostConstruct
+    public void loadBoardingIntervalIndex() {
+        List<BoardSchedule> schedules = jdbcTemplate.query(QUERY_GET_ALL_BOARD_SCHEDULES, rowMapper);
+        boardingIntervalIndex.load(schedules);
+        availabilityIndex.loadSchedules(schedules);
+        log.info("Índice de embarques carregado com {} agendamentos.", schedules.size());
+    }
+
+    @Override
+    public EmployeeRepository getEmployeeRepository(){
+        return this.employeeRepository;
+    }
+
+    @Override
+    public Mono<BoardSchedule> getBoardingScheduleById(Long id){
+        return jdbcExecutor.mono(WRITE, () -> {
+            try{
+                return Mono.just(findBoardingScheduleById(id));
+            } catch (BoardingScheduleNotExistsException e) {
+                return Mono.error(e);
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Busca síncrona usada pelas operações que já estão na thread JDBC.
+     */
+    private BoardSchedule findBoardingScheduleById(Long id) {
+        try {
+            SqlParameterSource param = new MapSqlParameterSource("id", id);
+            return jdbcTemplate.queryForObject(QUERY_GET_BOARDING_SCHEDULE_BY_ID, param, rowMapper);
+        } catch (EmptyResultDataAccessException e) {
+            log.info("Não há nenhuma embarque agendado com o id {}.", id);
+            throw new BoardingScheduleNotExistsException("Não há nenhum embarque agendado com id "+id+".");
+        }
+    }
+
+    /**
+     * Agenda o embarque em uma única transação: trava a linha do empregado com SELECT ... FOR UPDATE
+     * e insere somente se não houver embarque ou folga conflitante, antes ou depois do novo período,
+     * serializando agendamentos concorrentes do mesmo empregado. A ocupação diária da empresa é atualizada na mesma transação.
+     * O limite da empresa é verificado antes do INSERT, para que um pedido recusado não consuma um id da sequência.
+     */
+    @Override
+    public Mono<Void> insertNewBoarding(Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                BoardSchedule newBoarding = transactionTemplate.execute(status -> {
+                    MapSqlParameterSource paramSource = conflictParams(null, employeeId, initDate, endDate);
+                    lockEmployee(employeeId);
+                    Long enterpriseId = occupancyRepository.enterpriseIdsByEmployee(Collections.singleton(employeeId)).get(employeeId);
+                    OccupancyDelta delta = new OccupancyDelta().add(enterpriseId, initDate, endDate, 1);
+                    checkCapacity(delta, paramSource);
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    if (jdbcTemplate.update(QUERY_INSERT_NEW_BOARDING_WITHOUT_CONFLICT, paramSource, keyHolder, new String[]{"id"}) == 0) {
+                        throw conflictException(paramSource);
+                    }
+                    occupancyRepository.write(delta);
+                    return new BoardSchedule(keyHolder.getKey().longValue(), employeeId, initDate, endDate);
+                });
+                boardingIntervalIndex.put(newBoarding);
+                availabilityIndex.reindex(newBoarding);
+                log.info("Empregado agendado para o intervalo entre {} e {}.", initDate, endDate);
+                return Mono.empty();
+            } catch (EmployeeNotExistsException | EmployeeInDayOffException | EmployeeOnBoardException
+                     | EnterpriseCapacityExceededException e) {
+                log.info(e.getMessage());
+                return Mono.error(e);
+            } catch (Exception e) {
+                log.error("Erro ao agendar embarque :: Messagem - {}", e.getMessage());
+                return Mono.error(new BoardingInsertException("Erro ao agendar embarque "+e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<List<BoardingResult>> insertNewBoardings(List<BoardSchedule> schedules) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            if (schedules.isEmpty()) {
+                return Mono.just(Collections.emptyList());
+            }
+            try {
+                Set<Long> employeeIds = BoardingBatch.employeeIds(schedules);
+                SqlParameterSource param = new MapSqlParameterSource("ids", employeeIds)
+                        .addValue("fromDate", BoardingBatch.fromDate(schedules))
+                        .addValue("toDate", BoardingBatch.toDate(schedules));
+
+                List<BoardingResult> results = transactionTemplate.execute(status -> {
+                    if (!employeeIds.isEmpty()) {
+                        jdbcTemplate.queryForList(QUERY_LOCK_EMPLOYEES, param, Long.class);
+                    }
+                    return insertValidBoardings(schedules, employeeIds, param);
+                });
+
+                if (!employeeIds.isEmpty()) {
+                    List<BoardSchedule> employeeSchedules = jdbcTemplate.query(QUERY_GET_SCHEDULES_BY_EMPLOYEE_IDS, param, rowMapper);
+                    employeeSchedules.forEach(boardingIntervalIndex::put);
+                    employeeSchedules.forEach(availabilityIndex::reindex);
+                }
+                log.info("Agendamento em lote concluído para {} embarques.", schedules.size());
+                return Mono.just(results);
+            } catch (Exception e) {
+                log.error("Erro ao agendar embarques em lote :: Messagem - {}", e.getMessage());
+                return Mono.error(new BoardingInsertException("Erro ao agendar embarques em lote "+e.getMessage()));
+            }
+        });
+    }
+
+    private List<BoardingResult> insertValidBoardings(List<BoardSchedule> schedules, Set<Long> employeeIds,
+                                                      SqlParameterSource param) {
+        Set<Long> existingEmployees = new HashSet<>();
+        List<BoardSchedule> existingSchedules = new ArrayList<>();
+        Map<Long, Long> enterpriseIds = occupancyRepository.enterpriseIdsByEmployee(employeeIds);
+        if (!employeeIds.isEmpty()) {
+            existingEmployees.addAll(jdbcTemplate.queryForList(QUERY_GET_EXISTING_EMPLOYEE_IDS, param, Long.class));
+            existingSchedules.addAll(jdbcTemplate.query(QUERY_GET_SCHEDULES_BY_EMPLOYEE_IDS, param, rowMapper));
+        }
+        CapacityLimits capacity = occupancyRepository.lockCapacity(enterpriseIds,
+                enterpriseIds.values().stream().filter(Objects::nonNull).collect(Collectors.toSet()),
+                BoardingBatch.fromDate(schedules), BoardingBatch.lastEndDate(schedules));
+
+        List<BoardSchedule> accepted = new ArrayList<>();
+        List<BoardingResult> results = BoardingBatch.classify(schedules, existingEmployees, existingSchedules, capacity, accepted);
+
+        if (!accepted.isEmpty()) {
+            jdbcTemplate.batchUpdate(QUERY_INSERT_NEW_BOARDING, SqlParameterSourceUtils.createBatch(accepted.toArray()));
+            OccupancyDelta delta = new OccupancyDelta();
+            accepted.forEach(schedule -> delta.add(enterpriseIds.get(schedule.getEmployeeId()),
+                    schedule.getInitDate(), schedule.getEndDate(), 1));
+            occupancyRepository.apply(delta);
+        }
+        log.info("{} de {} embarques do lote foram aceitos.", accepted.size(), schedules.size());
+        return results;
+    }
+
+    /**
+     * Trava o agendamento e devolve os valores gravados, ou null se ele não existir.
+     */
+    private BoardSchedule lockBoardingSchedule(Long id) {
+        List<BoardSchedule> schedules = jdbcTemplate.query(OccupancyQueries.QUERY_LOCK_BOARDING_SCHEDULE,
+                new MapSqlParameterSource("id", id), rowMapper);
+        return schedules.isEmpty() ? null : schedules.get(0);
+    }
+
+    /**
+     * Deve ser chamado com o empregado do agendamento travado.
+     */
+    private OccupancyDelta removal(BoardSchedule schedule) {
+        Long enterpriseId = occupancyRepository.enterpriseIdsByEmployee(Collections.singleton(schedule.getEmployeeId()))
+                .get(schedule.getEmployeeId());
+        return new OccupancyDelta().add(enterpriseId, schedule.getInitDate(), schedule.getEndDate(), -1);
+    }
+
+    private void lockEmployee(Long employeeId) {
+        if (jdbcTemplate.queryForList(QUERY_LOCK_EMPLOYEE, new MapSqlParameterSource("employeeId", employeeId), Long.class).isEmpty()) {
+            throw new EmployeeNotExistsException("Empregado com id = "+employeeId+" não existe.");
+        }
+    }
+
+    /**
+     * Como no lote, o conflito com outro embarque tem precedência sobre o limite da empresa: o embarque
+     * conflitante do próprio empregado já conta na ocupação e faria o pedido parecer excesso de limite.
+     */
+    private void checkCapacity(OccupancyDelta delta, MapSqlParameterSource paramSource) {
+        try {
+            occupancyRepository.checkCapacity(delta);
+        } catch (EnterpriseCapacityExceededException e) {
+            Integer conflicts = jdbcTemplate.queryForObject(QUERY_COUNT_EMPLOYEE_CONFLICTS, paramSource, Integer.class);
+            throw conflicts != null && conflicts > 0 ? conflictException(paramSource) : e;
+        }
+    }
+
+    private RuntimeException conflictException(MapSqlParameterSource paramSource) {
+        Object employeeId = paramSource.getValue("employeeId");
+        Integer inDayOff = jdbcTemplate.queryForObject(QUERY_COUNT_EMPLOYEE_IN_DAY_OFF, paramSource, Integer.class);
+        if (inDayOff != null && inDayOff > 0) {
+            return new EmployeeInDayOffException("Empregado id = "+employeeId+" está em período de folga");
+        }
+        return new EmployeeOnBoardException("Empregado id = "+employeeId+" já  está embarcado.");
+    }
+
+    private static MapSqlParameterSource conflictParams(Long id, Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return new MapSqlParameterSource("id", id == null ? 0L : id)
+                .addValue("employeeId", employeeId)
+                .addValue("initDate", initDate)
+                .addValue("endDate", endDate)
+                .addValue("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                .addValue("dayOffEndDate", endDate.plusDays(BoardingIntervalIndex.DAY_OFF_DAYS));
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardings() {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                List<BoardingDetail> boardingDetails =  jdbcTemplate.query(QUERY_GET_ALL_SCHEDULES, rowDetailMapper);
+                return Flux.defer(() -> Flux.fromIterable(
+                        boardingDetails));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhum agendamento cadastrado.");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<BoardingDetail> streamBoardings() {
+        return resultSetStreamer.stream(QUERY_GET_ALL_SCHEDULES, rowDetailMapper)
+                .onErrorMap(e -> !(e instanceof RepositoryBusyException), e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new BoardingException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<BoardingDetail> streamBoardingByEnterpriseId(Long id) {
+        return resultSetStreamer.stream(QUERY_GET_SCHEDULE_BY_ENTERPRISE_ID, new MapSqlParameterSource("id", id), rowDetailMapper)
+                .onErrorMap(e -> !(e instanceof RepositoryBusyException), e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new BoardingException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Page<BoardingDetail>> getBoardingsPage(PageCursor cursor, int limit) {
+        return jdbcExecutor.mono(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("initDate", cursor.getInitDate())
+                        .addValue("id", cursor.getId())
+                        .addValue("limit", limit + 1);
+                List<BoardingDetail> boardingDetails =  jdbcTemplate.query(QUERY_GET_SCHEDULES_PAGE, param, rowDetailMapper);
+                return Mono.just(PageCursor.page(boardingDetails, limit,
+                        b -> new PageCursor(b.getInitDate(), b.getId())));
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardingByEmployeeId(Long id) {
+        return jdbcExecutor.flux(WRITE, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", id);
+                List<BoardingDetail> boardingDetails =  jdbcTemplate.query(QUERY_GET_SCHEDULE_BY_EMPLOYEE_ID, param, rowDetailMapper);
+                return Flux.defer(() -> Flux.fromIterable(
+                        boardingDetails));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhum agendamento cadastrado.");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error( new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardingByEnterpriseId(Long id) {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", id);
+                List<BoardingDetail> boardingDetails =  jdbcTemplate.query(QUERY_GET_SCHEDULE_BY_ENTERPRISE_ID, param, rowDetailMapper);
+                return Flux.defer(() -> Flux.fromIterable(
+                        boardingDetails));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhum agendamento cadastrado.");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Page<BoardingDetail>> getBoardingPageByEnterpriseId(Long id, PageCursor cursor, int limit) {
+        return jdbcExecutor.mono(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("enterpriseId", id)
+                        .addValue("initDate", cursor.getInitDate())
+                        .addValue("id", cursor.getId())
+                        .addValue("limit", limit + 1);
+                List<BoardingDetail> boardingDetails =  jdbcTemplate.query(QUERY_GET_SCHEDULES_PAGE_BY_ENTERPRISE_ID, param, rowDetailMapper);
+                return Mono.just(PageCursor.page(boardingDetails, limit,
+                        b -> new PageCursor(b.getInitDate(), b.getId())));
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<EmployeeDetail> getEmployeeInDayOff(Long id, LocalDate initDate) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                MapSqlParameterSource paramSource = new MapSqlParameterSource("employeeId", id)
+                        .addValue("initDate", initDate)
+                        .addValue("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS));
+                EmployeeDetail employeesDetail = jdbcTemplate.queryForObject(QUERY_GET_EMPLOYEE_IN_DAY_OFF, paramSource, rowEmployeeDetailMapper);
+                log.info("Há embarque agendado para o empregado id = {} no dia {}",id, initDate);
+                return Mono.just(employeesDetail);
+            }
+            catch (EmptyResultDataAccessException e) {
+                log.info("Não há embarque agendado para o empregado id = {} no dia {}",id, initDate);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<BoardingDetail> getEmployeeOnBoard(Long id, LocalDate initDate) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                BoardSchedule param = new BoardSchedule(0L, id, initDate, null);
+                BeanPropertySqlParameterSource paramSource = new BeanPropertySqlParameterSource(param);
+                BoardingDetail boardingDetail = jdbcTemplate.queryForObject(QUERY_GET_EMPLOYEE_ON_BOARD, paramSource, rowDetailMapper);
+                log.info("Empregado já embarcado id = {} .",id);
+                return Mono.just(boardingDetail);
+            }
+            catch (EmptyResultDataAccessException e) {
+                log.info("Empregado não está embarcado id = {}",id);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteBordingScheduleById(Long id) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", id);
+                BoardSchedule deletedBoard = transactionTemplate.execute(status -> {
+                    BoardSchedule oldBoard = lockBoardingSchedule(id);
+                    if (oldBoard == null) {
+                        return null;
+                    }
+                    if (oldBoard.getEmployeeId() != null) {
+                        lockEmployee(oldBoard.getEmployeeId());
+                    }
+                    jdbcTemplate.update(QUERY_DELETE_SCHEDULE, param);
+                    occupancyRepository.apply(removal(oldBoard));
+                    return oldBoard;
+                });
+                boardingIntervalIndex.remove(id);
+                if (deletedBoard != null) {
+                    availabilityIndex.reindex(deletedBoard);
+                }
+                log.info("Embarque, cujo id é {}, foi apagado com sucesso.", id);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao apagar a agendamento de embarque id = {} :: Messagem - {}", id, e.getMessage());
+                return Mono.error(new BoardingException("Erro ao apagar agendamento de embarque id = "+id));
+            }
+        });
+    }
+
+    /**
+     * Atualiza o agendamento na mesma transação que trava o agendamento e os empregados de origem e destino,
+     * com a verificação de conflitos feita pelo próprio UPDATE e a ocupação diária movida do período antigo
+     * para o novo.
+     */
+    @Override
+    public Mono<Void> updateBoardingSchedule(Long id, Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                BoardSchedule newBoard = new BoardSchedule(id, employeeId, initDate, endDate);
+                BoardSchedule oldBoard = transactionTemplate.execute(status -> {
+                    MapSqlParameterSource paramSource = conflictParams(id, employeeId, initDate, endDate);
+                    BoardSchedule lockedBoard = lockBoardingSchedule(id);
+                    if (lockedBoard == null) {
+                        throw new BoardingScheduleNotExistsException("Não há nenhum embarque agendado com id "+id+".");
+                    }
+                    Set<Long> employeeIds = new HashSet<>(Arrays.asList(lockedBoard.getEmployeeId(), employeeId));
+                    if (!jdbcTemplate.queryForList(QUERY_LOCK_EMPLOYEES, new MapSqlParameterSource("ids", employeeIds), Long.class).contains(employeeId)) {
+                        throw new EmployeeNotExistsException("Empregado com id = "+employeeId+" não existe.");
+                    }
+                    if (jdbcTemplate.update(QUERY_UPDATE_SCHEDULE_WITHOUT_CONFLICT, paramSource) == 0) {
+                        throw conflictException(paramSource);
+                    }
+                    Map<Long, Long> enterpriseIds = occupancyRepository.enterpriseIdsByEmployee(employeeIds);
+                    occupancyRepository.apply(removal(lockedBoard)
+                            .add(enterpriseIds.get(employeeId), initDate, endDate, 1));
+                    return lockedBoard;
+                });
+                boardingIntervalIndex.put(newBoard);
+                availabilityIndex.reindex(oldBoard);
+                availabilityIndex.reindex(newBoard);
+                log.info("Agendamento de embarque, cujo id é {}, foi atualizado de {} para {} " +
+                                "de {} para {} " +
+                                "de {} para {} com sucesso.", id, oldBoard.getEmployeeId(), employeeId,
+                        oldBoard.getInitDate(), initDate,
+                        oldBoard.getEndDate(), endDate);
+                return Mono.empty();
+            }  catch (BoardingScheduleNotExistsException e ){
+                log.error(e.getMessage());
+                return Mono.error(new BoardingScheduleNotExistsException(e.getMessage()));
+            }
+            catch (EmployeeNotExistsException e){
+                log.error(e.getMessage());
+                return Mono.error(new EmployeeNotExistsException(e.getMessage()));
+            } catch (EmployeeInDayOffException | EmployeeOnBoardException | EnterpriseCapacityExceededException e) {
+                log.info(e.getMessage());
+                return Mono.error(e);
+            } catch (Exception e) {
+                log.error("Erro ao atualizar a agendamento de embarque id = {} :: Messagem - {}", id, e.getMessage());
+                return Mono.error(new BoardingException("Erro ao atualizar agendamento de embarque id = "+id));
+            }
+        });
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardingScheduleBetweenDates(LocalDate initDate, LocalDate endDate) {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                BoardSchedule newBoard = new BoardSchedule(null, null, initDate, endDate);
+                BeanPropertySqlParameterSource paramSource = new BeanPropertySqlParameterSource(newBoard);
+                List<BoardingDetail> boardingDetails =  jdbcTemplate.query(QUERY_GET_SCHEDULE_BETWEEN_DATES, paramSource, rowDetailMapper);
+                return Flux.defer(() -> Flux.fromIterable(
+                        boardingDetails));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhum agendamento cadastrado.");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<CoverageGap> streamCoverageGapsByEnterpriseId(Long id, LocalDate initDate, LocalDate endDate) {
+        SqlParameterSource param = new MapSqlParameterSource("id", id)
+                .addValue("initDate", initDate)
+                .addValue("endDate", endDate);
+        return CoverageGapSweep.gaps(resultSetStreamer.stream(QUERY_GET_ROLE_INTERVALS_BY_ENTERPRISE_ID, param, RowMappers.ROLE_INTERVAL),
+                        initDate, endDate)
+                .onErrorMap(e -> !(e instanceof RepositoryBusyException), e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new BoardingException(e.getMessage());
+                });
+    }
+
+}
@@ -0,0 +1,377 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.cache.EmployeeDetailCache;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.EmployeeException;
+import com.ogc.boardingschedule.exceptions.EmployeeInsertException;
+import com.ogc.boardingschedule.exceptions.EmployeeNotExistsException;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+import com.ogc.boardingschedule.exceptions.RepositoryBusyException;
+import com.ogc.boardingschedule.index.AvailabilityIndex;
+import com.ogc.boardingschedule.index.EmployeeNameIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.ogc.boardingschedule.repositories.EmployeeQueries.*;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.LISTING;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.WRITE;
+
+
+@Repository
+@Profile("!r2dbc")
+@Slf4j
+public class JdbcEmployeeRepository implements EmployeeRepository {
+
+    private final TimedNamedParameterJdbcTemplate jdbcTemplate;
+    private final RowMapper<Employee> rowMapper = RowMappers.EMPLOYEE;
+    private final RowMapper<EmployeeDetail> rowDetailMapper = RowMappers.EMPLOYEE_DETAIL;
+    private final EnterpriseRepository enterpriseRepository;
+    private final JdbcResultSetStreamer resultSetStreamer;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeDetailCache employeeDetailCache;
+    private final EmployeeNameIndex employeeNameIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final JdbcExecutor jdbcExecutor;
+    private final JdbcOccupancyRepository occupancyRepository;
+
+    public JdbcEmployeeRepository(TimedNamedParameterJdbcTemplate jdbcTemplate,
+                                  EnterpriseRepository enterpriseRepository,
+                                  JdbcResultSetStreamer resultSetStreamer,
+                                  TransactionTemplate transactionTemplate,
+                                  EmployeeDetailCache employeeDetailCache,
+                                  EmployeeNameIndex employeeNameIndex,
+                                  AvailabilityIndex availabilityIndex,
+                                  JdbcExecutor jdbcExecutor,
+                                  JdbcOccupancyRepository occupancyRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enterpriseRepository = enterpriseRepository;
+        this.resultSetStreamer = resultSetStreamer;
+        this.transactionTemplate = transactionTemplate;
+        this.employeeDetailCache = employeeDetailCache;
+        this.employeeNameIndex = employeeNameIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.jdbcExecutor = jdbcExecutor;
+        this.occupancyRepository = occupancyRepository;
+    }
+
+    @PostConstruct
+    public void loadEmployeeIndexes() {
+        employeeNameIndex.load(queryNames(QUERY_GET_EMPLOYEE_NAMES, new MapSqlParameterSource()));
+        log.info("Índice de nomes carregado com {} empregados.", employeeNameIndex.size());
+        availabilityIndex.loadEmployees(jdbcTemplate.query(QUERY_GET_EMPLOYEES, rowMapper));
+    }
+
+    private Map<Long, String> queryNames(String query, SqlParameterSource param) {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query(query, param, rs -> {
+            names.put(rs.getLong("id"), rs.getString("name"));
+        });
+        return names;
+    }
+
+    @Override
+    public EnterpriseRepository getEnterpriseRepository(){
+        return this.enterpriseRepository;
+    }
+
+    @Override
+    public Mono<Void> insertNewEmployee(String name, String role, Long enterpriseId) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                Employee newEmployee = new Employee(0L, name, role, enterpriseId);
+                BeanPropertySqlParameterSource paramSource = new BeanPropertySqlParameterSource(newEmployee);
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(QUERY_INSERT_NEW_EMPLOYEE, paramSource, keyHolder, new String[]{"id"});
+                employeeNameIndex.put(keyHolder.getKey().longValue(), name);
+                availabilityIndex.putEmployee(keyHolder.getKey().longValue(), role, enterpriseId);
+                employeeDetailCache.invalidateMissing();
+                log.info("Empregado {} inserida com sucesso.", name);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao inserir a empregado {} :: Messagem - {}", name, e.getMessage());
+                return Mono.error(new EmployeeInsertException("Erro ao inserir empregado "+name));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Integer> insertNewEmployees(List<Employee> employees) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(QUERY_INSERT_NEW_EMPLOYEE,
+                        SqlParameterSourceUtils.createBatch(employees.toArray()), keyHolder, new String[]{"id"}));
+                List<Map<String, Object>> keys = keyHolder.getKeyList();
+                List<Employee> inserted = new ArrayList<>();
+                for (int i = 0; i < employees.size(); i++) {
+                    Employee employee = employees.get(i);
+                    Long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+                    inserted.add(new Employee(id, employee.getName(), employee.getRole(), employee.getEnterpriseId()));
+                }
+                inserted.forEach(employee -> {
+                    employeeNameIndex.put(employee.getId(), employee.getName());
+                    availabilityIndex.putEmployee(employee.getId(), employee.getRole(), employee.getEnterpriseId());
+                });
+                employeeDetailCache.invalidateMissing();
+                log.info("{} empregados inseridos em lote com sucesso.", employees.size());
+                return Mono.just(employees.size());
+            } catch (Exception e) {
+                log.error("Erro ao inserir lote de {} empregados :: Messagem - {}", employees.size(), e.getMessage());
+                return Mono.error(new EmployeeInsertException("Erro ao inserir lote de empregados "+e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<Employee> getEmployees() {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                List<Employee> employees =  jdbcTemplate.query(QUERY_GET_EMPLOYEES, rowMapper);
+                return Flux.defer(() -> Flux.fromIterable(
+                        employees));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhum empregado cadastrado");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new EmployeeException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<Employee> getEmployeesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                List<Employee> employees = jdbcTemplate.query(QUERY_GET_EMPLOYEES_BY_IDS,
+                        new MapSqlParameterSource("ids", ids), rowMapper);
+                return Flux.fromIterable(employees);
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new EmployeeException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<EmployeeDetail> getEmployeesDetail() {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                List<EmployeeDetail> employees =  jdbcTemplate.query(QUERY_GET_EMPLOYEES_DETAIL, rowDetailMapper);
+                return Flux.defer(() -> Flux.fromIterable(
+                        employees));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhuma empregado cadastrado");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new EmployeeException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Page<Employee>> getEmployeesPage(PageCursor cursor, int limit) {
+        return jdbcExecutor.mono(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", cursor.getId())
+                        .addValue("limit", limit + 1);
+                List<Employee> employees =  jdbcTemplate.query(QUERY_GET_EMPLOYEES_PAGE, param, rowMapper);
+                return Mono.just(PageCursor.page(employees, limit, emp -> PageCursor.byId(emp.getId())));
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new EmployeeException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<EmployeeDetail> streamEmployeesDetail() {
+        return resultSetStreamer.stream(QUERY_GET_EMPLOYEES_DETAIL, rowDetailMapper)
+                .onErrorMap(e -> !(e instanceof RepositoryBusyException), e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EmployeeException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Page<EmployeeDetail>> getEmployeesDetailPage(PageCursor cursor, int limit) {
+        return jdbcExecutor.mono(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", cursor.getId())
+                        .addValue("limit", limit + 1);
+                List<EmployeeDetail> employees =  jdbcTemplate.query(QUERY_GET_EMPLOYEES_DETAIL_PAGE, param, rowDetailMapper);
+                return Mono.just(PageCursor.page(employees, limit, emp -> PageCursor.byId(emp.getId())));
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new EmployeeException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Flux<EmployeeDetail> getEmployeeDetailByName(String name, int limit, boolean fuzzy) {
+        return jdbcExecutor.flux(WRITE, () -> {
+            try {
+                List<Long> ids = employeeNameIndex.search(name, limit, fuzzy);
+                if (ids.isEmpty()) {
+                    log.info("Nenhum empregado com nome parecido com {}.", name);
+                    return Flux.empty();
+                }
+
+                SqlParameterSource param = new MapSqlParameterSource("ids", ids);
+
+                List<EmployeeDetail> employees =  jdbcTemplate.query(QUERY_GET_EMPLOYEE_DETAIL_BY_IDS, param, rowDetailMapper);
+                Map<Long, Integer> positions = new HashMap<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    positions.put(ids.get(i), i);
+                }
+                employees.sort(Comparator.comparing(emp -> positions.get(emp.getId())));
+                return Flux.defer(() -> Flux.fromIterable(
+                        employees));
+
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhuma empregado cadastrado");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new EmployeeException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<EmployeeDetail> getEmployeeDetailById(Long id) {
+        return Mono.defer(() -> {
+            EmployeeDetail cached = employeeDetailCache.get(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            if (employeeDetailCache.isMissing(id)) {
+                log.info("Empregdo {} não existe", id);
+                return Mono.error(new EmployeeNotExistsException("Empregado "+id+" não existe."));
+            }
+
+            return jdbcExecutor.mono(WRITE, () -> {
+                try {
+                    return Mono.just(findEmployeeDetailById(id));
+                } catch (EmployeeNotExistsException e) {
+                    return Mono.error(e);
+                } catch (Exception e) {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return Mono.error(new EmployeeException(e.getMessage()));
+                }
+            });
+        });
+    }
+
+    /**
+     * Busca síncrona usada pelas operações que já estão na thread JDBC.
+     */
+    private EmployeeDetail findEmployeeDetailById(Long id) {
+        EmployeeDetail cached = employeeDetailCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        SqlParameterSource param = new MapSqlParameterSource("id", id);
+        long generation = employeeDetailCache.generation();
+
+        try {
+            EmployeeDetail employee = jdbcTemplate.queryForObject(QUERY_GET_EMPLOYEE_DETAIL_BY_ID, param, rowDetailMapper);
+            employeeDetailCache.put(employee, generation);
+            return employee;
+        } catch (EmptyResultDataAccessException e) {
+            employeeDetailCache.putMissing(id, generation);
+            log.info("Empregdo {} não existe", id);
+            throw new EmployeeNotExistsException("Empregado "+id+" não existe.");
+        }
+    }
+
+    @Override
+    public Mono<Void> deleteEmployeeById(Long id) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", id);
+                jdbcTemplate.update(QUERY_DELETE_EMPLOYEE, param);
+                employeeNameIndex.remove(id);
+                availabilityIndex.removeEmployee(id);
+                employeeDetailCache.invalidate(id);
+                log.info("Empregado, cujo id é {}, foi apagado com sucesso.", id);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao apagar a empregado id = {} :: Messagem - {}", id, e.getMessage());
+                return Mono.error(new EmployeeException("Erro ao apagar empregado id = "+id));
+            }
+        });
+    }
+
+    /**
+     * Trava o empregado para que a troca de empresa leve os agendamentos dele para a ocupação diária da nova
+     * empresa na mesma transação. Falha com EnterpriseCapacityExceededException se a nova empresa passar do limite.
+     */
+    @Override
+    public Mono<Void> updateEmployee(Long id, String name, String role, Long enterpriseId) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                EmployeeDetail oldEmployee = findEmployeeDetailById(id);
+                Employee newEmployee = new Employee(id, name, role, enterpriseId);
+                BeanPropertySqlParameterSource paramSource = new BeanPropertySqlParameterSource(newEmployee);
+                transactionTemplate.execute(status -> {
+                    List<Long> oldEnterpriseIds = jdbcTemplate.queryForList(OccupancyQueries.QUERY_LOCK_EMPLOYEE_ENTERPRISE,
+                            new MapSqlParameterSource("id", id), Long.class);
+                    jdbcTemplate.update(QUERY_UPDATE_EMPLOYEE, paramSource);
+                    Long oldEnterpriseId = oldEnterpriseIds.isEmpty() ? null : oldEnterpriseIds.get(0);
+                    if (!Objects.equals(oldEnterpriseId, enterpriseId)) {
+                        occupancyRepository.transferEmployee(id, oldEnterpriseId, enterpriseId);
+                    }
+                    return null;
+                });
+                employeeNameIndex.put(id, name);
+                availabilityIndex.putEmployee(id, role, enterpriseId);
+                employeeDetailCache.invalidate(id);
+                log.info("Empregado, cujo id é {}, foi atulizado de {} para {} " +
+                        "de {} para {} " +
+                        "de {} para {} com sucesso.", id, oldEmployee.getName(), name, oldEmployee.getRole(), role,
+                        oldEmployee.getEnterpriseId(), enterpriseId);
+                return Mono.empty();
+            } catch (EmployeeNotExistsException e){
+                log.error("Empregado de id = {} não existe.", id);
+                return Mono.error(new EmployeeNotExistsException(e.getMessage()));
+            } catch (EnterpriseCapacityExceededException e) {
+                log.info(e.getMessage());
+                return Mono.error(e);
+            } catch (Exception e) {
+                log.error("Erro ao atualizar a empregado id = {} :: Messagem - {}", id, e.getMessage());
+                return Mono.error(new EmployeeException("Erro ao atualizar empregado id = "+id));
+            }
+        });
+    }
+}
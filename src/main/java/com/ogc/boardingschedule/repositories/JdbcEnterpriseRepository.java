@@ -0,0 +1,271 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.cache.EmployeeDetailCache;
+import com.ogc.boardingschedule.cache.EnterpriseCache;
+import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.EnterpriseException;
+import com.ogc.boardingschedule.exceptions.EnterpriseExistsException;
+import com.ogc.boardingschedule.exceptions.EnterpriseInsertException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.ogc.boardingschedule.repositories.EnterpriseQueries.*;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.LISTING;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.WRITE;
+import static com.ogc.boardingschedule.repositories.OccupancyQueries.QUERY_DELETE_CAPACITY;
+import static com.ogc.boardingschedule.repositories.OccupancyQueries.QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID;
+
+
+@Repository
+@Profile("!r2dbc")
+@Slf4j
+public class JdbcEnterpriseRepository implements EnterpriseRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowMapper<Enterprise> rowMapper = RowMappers.ENTERPRISE;
+    private final EnterpriseCache enterpriseCache;
+    private final EmployeeDetailCache employeeDetailCache;
+    private final JdbcExecutor jdbcExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcEnterpriseRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                    EnterpriseCache enterpriseCache,
+                                    EmployeeDetailCache employeeDetailCache,
+                                    JdbcExecutor jdbcExecutor,
+                                    TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enterpriseCache = enterpriseCache;
+        this.employeeDetailCache = employeeDetailCache;
+        this.jdbcExecutor = jdbcExecutor;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Insere a empresa em um único comando, protegido pelo índice único do nome normalizado.
+     * Retorna false quando já existia uma empresa com o mesmo nome normalizado.
+     */
+    @Override
+    public Mono<Boolean> insertNewCompany(String name) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("name", name)
+                        .addValue("normalizedName", EnterpriseCache.normalize(name));
+                if (jdbcTemplate.update(QUERY_INSERT_NEW_COMPANY, param) == 0) {
+                    log.info("Empresa {} já existe.", name);
+                    return Mono.just(false);
+                }
+                enterpriseCache.invalidate(null, name);
+                log.info("Empresa {} inserida com sucesso.", name);
+                return Mono.just(true);
+            } catch (DuplicateKeyException e) {
+                log.info("Empresa {} já existe.", name);
+                return Mono.just(false);
+            } catch (Exception e) {
+                log.error("Erro ao inserir a empresa {} :: Messagem - {}", name, e.getMessage());
+                return Mono.error(new EnterpriseInsertException("Erro ao inserir empresa "+name));
+            }
+        });
+    }
+
+
+    @Override
+    public Flux<Enterprise> getCompanies() {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                List<Enterprise> enterprises = loadCompanies();
+                return Flux.defer(() -> Flux.fromIterable(
+                        enterprises));
+            } catch (EmptyResultDataAccessException e) {
+                log.info("Não há nenhuma empresa no cadastrada");
+                return Flux.empty();
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new EnterpriseException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Set<Long>> getCompanyIds() {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                Set<Long> ids = loadCompanies().stream()
+                        .map(Enterprise::getId)
+                        .collect(Collectors.toCollection(HashSet::new));
+                return Mono.just(ids);
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new EnterpriseException(e.getMessage()));
+            }
+        });
+    }
+
+    private List<Enterprise> loadCompanies() {
+        List<Enterprise> enterprises = enterpriseCache.getAll();
+        if (enterprises == null) {
+            long generation = enterpriseCache.generation();
+            enterprises = Collections.unmodifiableList(jdbcTemplate.query(QUERY_GET_COMPANIES, rowMapper));
+            enterpriseCache.putAll(enterprises, generation);
+        }
+        return enterprises;
+    }
+
+    @Override
+    public Mono<Page<Enterprise>> getCompaniesPage(PageCursor cursor, int limit) {
+        return jdbcExecutor.mono(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("id", cursor.getId())
+                        .addValue("limit", limit + 1);
+                List<Enterprise> enterprises =  jdbcTemplate.query(QUERY_GET_COMPANIES_PAGE, param, rowMapper);
+                return Mono.just(PageCursor.page(enterprises, limit, e -> PageCursor.byId(e.getId())));
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new EnterpriseException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Enterprise> getCompanyByName(String name) {
+        return Mono.defer(() -> {
+            Enterprise cached = enterpriseCache.getByName(name);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            return jdbcExecutor.mono(WRITE, () -> {
+                SqlParameterSource param = new MapSqlParameterSource("normalizedName", EnterpriseCache.normalize(name));
+                long generation = enterpriseCache.generation();
+
+                try {
+                    Enterprise enterprise = jdbcTemplate.queryForObject(QUERY_GET_COMPANY_BY_NAME, param, rowMapper);
+                    enterpriseCache.put(enterprise, generation);
+                    return Mono.just(enterprise);
+                } catch (EmptyResultDataAccessException e) {
+                    log.info("Empresa {} não existe", name);
+                    return Mono.error(new EnterpriseNotExistsException("Empresa "+name+" não existe."));
+                } catch (Exception e) {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return Mono.error(new EnterpriseException(e.getMessage()));
+                }
+            });
+        });
+    }
+
+    @Override
+    public Mono<Enterprise> getCompanyById(Long id) {
+        return Mono.defer(() -> {
+            Enterprise cached = enterpriseCache.getById(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            return jdbcExecutor.mono(WRITE, () -> {
+                try {
+                    return Mono.just(findCompanyById(id));
+                } catch (EnterpriseNotExistsException e) {
+                    return Mono.error(e);
+                } catch (Exception e) {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return Mono.error(new EnterpriseException(e.getMessage()));
+                }
+            });
+        });
+    }
+
+    /**
+     * Busca síncrona usada pelas operações que já estão na thread JDBC.
+     */
+    private Enterprise findCompanyById(Long id) {
+        Enterprise cached = enterpriseCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        SqlParameterSource param = new MapSqlParameterSource("id", id);
+        long generation = enterpriseCache.generation();
+
+        try {
+            Enterprise enterprise = jdbcTemplate.queryForObject(QUERY_GET_COMPANY_BY_ID, param, rowMapper);
+            enterpriseCache.put(enterprise, generation);
+            return enterprise;
+        } catch (EmptyResultDataAccessException e) {
+            log.info("Empresa, cujo id é {} não existe", id);
+            throw new EnterpriseNotExistsException("Empresa, cujo id é  "+id+" não existe.");
+        }
+    }
+
+    /**
+     * Apaga a ocupação diária e o limite da empresa na mesma transação; se a empresa ainda tiver empregados,
+     * a chave estrangeira desfaz tudo.
+     */
+    @Override
+    public Mono<Void> deleteCompanyById(Long id) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                Enterprise oldEnterprise = findCompanyById(id);
+                SqlParameterSource param = new MapSqlParameterSource("id", id)
+                        .addValue("enterpriseId", id);
+                transactionTemplate.execute(status -> {
+                    jdbcTemplate.update(QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID, param);
+                    jdbcTemplate.update(QUERY_DELETE_CAPACITY, param);
+                    return jdbcTemplate.update(QUERY_DELETE_COMPANY, param);
+                });
+                enterpriseCache.invalidate(id, oldEnterprise.getName());
+                log.info("Empresa, cujo id é {}, foi apagada com sucesso.", id);
+                return Mono.empty();
+            } catch (EnterpriseNotExistsException e){
+                log.info("Empresa de id = {} não existe.", id);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao apagar a empresa id = {} :: Messagem - {}", id, e.getMessage());
+                return Mono.error(new EnterpriseException("Erro ao apagar empresa id = "+id));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> updateCompany(Long id, String name) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                Enterprise oldEnterprise = findCompanyById(id);
+                SqlParameterSource paramSource = new MapSqlParameterSource("id", id)
+                        .addValue("name", name)
+                        .addValue("normalizedName", EnterpriseCache.normalize(name));
+                jdbcTemplate.update(QUERY_UPDATE_COMPANY, paramSource);
+                enterpriseCache.invalidate(id, oldEnterprise.getName(), name);
+                employeeDetailCache.invalidateByEnterpriseId(id);
+                log.info("Empresa, cujo id é {}, foi autulizada de {} para {} com sucesso.", id, oldEnterprise.getName(), name);
+                return Mono.empty();
+            } catch (EnterpriseNotExistsException e){
+                log.error("Empresa de id = {} não existe.", id);
+                return Mono.error(new EnterpriseNotExistsException("Empresa de id = "+id+" e nome = "+name+" não existe."));
+            } catch (DuplicateKeyException e) {
+                log.info("Empresa {} já existe.", name);
+                return Mono.error(new EnterpriseExistsException("Empresa "+name+" já existe."));
+            } catch (Exception e) {
+                log.error("Erro ao atualizar a empresa id = {} :: Messagem - {}", id, e.getMessage());
+                return Mono.error(new EnterpriseException("Erro ao atualizar empresa id = "+id));
+            }
+        });
+    }
+}
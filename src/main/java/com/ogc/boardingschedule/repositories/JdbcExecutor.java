@@ -0,0 +1,88 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.config.VirtualThreads;
+import com.ogc.boardingschedule.exceptions.RepositoryBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Executa as chamadas JDBC, que bloqueiam a thread, fora da thread do servidor (event loop do Netty no modo WebFlux).
+ * A chamada só acontece na assinatura.
+ * <p>
+ * Cada {@link Bulkhead} tem suas próprias threads e fila limitada: listagens e relatórios não ocupam as conexões
+ * das escritas, e com a fila cheia a chamada é rejeitada na hora com {@link RepositoryBusyException}.
+ * A soma das threads não deve passar do tamanho do pool de conexões.
+ * <p>
+ * Com {@code boarding.jdbc.virtual-threads} as threads dos bulkheads são virtual threads (JDK 21+); os limites
+ * de threads e fila continuam valendo, já que quem limita a concorrência é o pool de conexões.
+ */
+@Component
+@Slf4j
+public class JdbcExecutor {
+
+    public enum Bulkhead {
+        /** Listagens completas, páginas, exportações em streaming e consultas por período. */
+        LISTING,
+        /** Escritas transacionais e as consultas pontuais, curtas, dos fluxos de cadastro. */
+        WRITE
+    }
+
+    private static final int THREAD_TTL_SECONDS = 60;
+
+    private final Map<Bulkhead, Scheduler> schedulers = new EnumMap<>(Bulkhead.class);
+
+    public JdbcExecutor(@Value("${boarding.jdbc.listing.threads:4}") int listingThreads,
+                        @Value("${boarding.jdbc.listing.queue-size:100}") int listingQueueSize,
+                        @Value("${boarding.jdbc.write.threads:6}") int writeThreads,
+                        @Value("${boarding.jdbc.write.queue-size:1000}") int writeQueueSize,
+                        @Value("${boarding.jdbc.virtual-threads:false}") boolean virtualThreads) {
+        schedulers.put(Bulkhead.LISTING, newScheduler("jdbc-listing", listingThreads, listingQueueSize, virtualThreads));
+        schedulers.put(Bulkhead.WRITE, newScheduler("jdbc-write", writeThreads, writeQueueSize, virtualThreads));
+    }
+
+    private static Scheduler newScheduler(String name, int threads, int queueSize, boolean virtualThreads) {
+        log.info("Scheduler {} criado com {} {} e fila de {} tarefas.", name, threads,
+                virtualThreads ? "virtual threads" : "threads", queueSize);
+        if (virtualThreads) {
+            return Schedulers.newBoundedElastic(threads, queueSize, VirtualThreads.factory(name), THREAD_TTL_SECONDS);
+        }
+        return Schedulers.newBoundedElastic(threads, queueSize, name);
+    }
+
+    public <T> Mono<T> mono(Bulkhead bulkhead, Supplier<Mono<T>> call) {
+        return Mono.defer(call)
+                .subscribeOn(scheduler(bulkhead))
+                .onErrorMap(RejectedExecutionException.class, e -> busy(bulkhead, e));
+    }
+
+    public <T> Flux<T> flux(Bulkhead bulkhead, Supplier<Flux<T>> call) {
+        return Flux.defer(call)
+                .subscribeOn(scheduler(bulkhead))
+                .onErrorMap(RejectedExecutionException.class, e -> busy(bulkhead, e));
+    }
+
+    private Scheduler scheduler(Bulkhead bulkhead) {
+        return schedulers.get(bulkhead);
+    }
+
+    private static RepositoryBusyException busy(Bulkhead bulkhead, RejectedExecutionException e) {
+        log.error("Fila do bulkhead {} cheia, chamada rejeitada :: Message - {}", bulkhead, e.getMessage());
+        return new RepositoryBusyException("Serviço sobrecarregado, tente novamente mais tarde.");
+    }
+
+    @PreDestroy
+    public void dispose() {
+        schedulers.values().forEach(Scheduler::dispose);
+    }
+}
@@ -0,0 +1,282 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.EnterpriseException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.LISTING;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.WRITE;
+import static com.ogc.boardingschedule.repositories.OccupancyQueries.*;
+
+
+@Repository
+@Profile("!r2dbc")
+@Slf4j
+public class JdbcOccupancyRepository implements OccupancyRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowMapper<DailyOccupancy> rowMapper = RowMappers.DAILY_OCCUPANCY;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcExecutor jdbcExecutor;
+
+    public JdbcOccupancyRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   JdbcExecutor jdbcExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcExecutor = jdbcExecutor;
+    }
+
+    /**
+     * Bancos migrados com agendamentos já existentes começam com a tabela vazia.
+     */
+    @PostConstruct
+    public void rebuildIfEmpty() {
+        MapSqlParameterSource noParams = new MapSqlParameterSource();
+        if (jdbcTemplate.queryForList(QUERY_ANY_OCCUPANCY, noParams, Long.class).isEmpty()
+                && !jdbcTemplate.queryForList(QUERY_ANY_BOARD_SCHEDULE, noParams, Long.class).isEmpty()) {
+            log.info("Ocupação diária vazia com agendamentos existentes, recalculando.");
+            rebuild();
+        }
+    }
+
+    @Override
+    public Flux<DailyOccupancy> getDailyOccupancy(Long enterpriseId, LocalDate initDate, LocalDate endDate) {
+        return jdbcExecutor.flux(LISTING, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("enterpriseId", enterpriseId)
+                        .addValue("initDate", initDate)
+                        .addValue("endDate", endDate);
+                List<DailyOccupancy> occupancy = jdbcTemplate.query(QUERY_GET_DAILY_OCCUPANCY, param, rowMapper);
+                return Flux.fromIterable(occupancy);
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Flux.error(new BoardingException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Integer> rebuildDailyOccupancy() {
+        return jdbcExecutor.mono(LISTING, () -> {
+            try {
+                return Mono.just(rebuild());
+            } catch (Exception e) {
+                log.error("Erro ao recalcular a ocupação diária :: Messagem - {}", e.getMessage());
+                return Mono.error(new BoardingException("Erro ao recalcular a ocupação diária "+e.getMessage()));
+            }
+        });
+    }
+
+    private int rebuild() {
+        int rows = 0;
+        for (Long enterpriseId : jdbcTemplate.queryForList(QUERY_GET_ENTERPRISE_IDS, new MapSqlParameterSource(), Long.class)) {
+            rows += transactionTemplate.execute(status -> rebuild(enterpriseId));
+        }
+        log.info("Ocupação diária recalculada com {} dias.", rows);
+        return rows;
+    }
+
+    private int rebuild(Long enterpriseId) {
+        SqlParameterSource param = new MapSqlParameterSource("enterpriseId", enterpriseId);
+        jdbcTemplate.queryForList(QUERY_LOCK_ENTERPRISE, param, Long.class);
+        jdbcTemplate.update(QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID, param);
+
+        OccupancyDelta occupancy = new OccupancyDelta();
+        jdbcTemplate.query(QUERY_GET_SCHEDULES_BY_ENTERPRISE_ID, param, RowMappers.BOARD_SCHEDULE)
+                .forEach(schedule -> occupancy.add(enterpriseId, schedule.getInitDate(), schedule.getEndDate(), 1));
+        List<SqlParameterSource> rows = params(enterpriseId, occupancy);
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(QUERY_INSERT_OCCUPANCY, rows.toArray(new SqlParameterSource[0]));
+        }
+        return rows.size();
+    }
+
+    @Override
+    public Mono<EnterpriseCapacity> getCapacity(Long enterpriseId) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                List<EnterpriseCapacity> capacity = jdbcTemplate.query(QUERY_GET_CAPACITY_BY_ENTERPRISE_ID,
+                        new MapSqlParameterSource("enterpriseId", enterpriseId), RowMappers.ENTERPRISE_CAPACITY);
+                return capacity.isEmpty() ? Mono.empty() : Mono.just(capacity.get(0));
+            } catch (Exception e) {
+                log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                return Mono.error(new EnterpriseException(e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> setCapacity(Long enterpriseId, int maxHeadcount) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                SqlParameterSource param = new MapSqlParameterSource("enterpriseId", enterpriseId)
+                        .addValue("maxHeadcount", maxHeadcount);
+                transactionTemplate.execute(status -> {
+                    if (jdbcTemplate.queryForList(QUERY_LOCK_ENTERPRISE, param, Long.class).isEmpty()) {
+                        throw new EnterpriseNotExistsException("Empresa com id = "+enterpriseId+" não existe.");
+                    }
+                    if (jdbcTemplate.update(QUERY_UPDATE_CAPACITY, param) == 0) {
+                        jdbcTemplate.update(QUERY_INSERT_CAPACITY, param);
+                    }
+                    return null;
+                });
+                log.info("Limite de empregados a bordo da empresa id = {} definido em {}.", enterpriseId, maxHeadcount);
+                return Mono.empty();
+            } catch (EnterpriseNotExistsException e) {
+                log.info(e.getMessage());
+                return Mono.error(e);
+            } catch (Exception e) {
+                log.error("Erro ao definir o limite da empresa id = {} :: Messagem - {}", enterpriseId, e.getMessage());
+                return Mono.error(new EnterpriseException("Erro ao definir o limite da empresa id = "+enterpriseId));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteCapacity(Long enterpriseId) {
+        return jdbcExecutor.mono(WRITE, () -> {
+            try {
+                jdbcTemplate.update(QUERY_DELETE_CAPACITY, new MapSqlParameterSource("enterpriseId", enterpriseId));
+                log.info("Limite de empregados a bordo da empresa id = {} removido.", enterpriseId);
+                return Mono.empty();
+            } catch (Exception e) {
+                log.error("Erro ao remover o limite da empresa id = {} :: Messagem - {}", enterpriseId, e.getMessage());
+                return Mono.error(new EnterpriseException("Erro ao remover o limite da empresa id = "+enterpriseId));
+            }
+        });
+    }
+
+    /**
+     * Trava as empresas em ordem de id e carrega os limites e a ocupação gravada no período, para validar
+     * novas entradas sem contar agendamentos. Deve ser chamado dentro da transação da escrita.
+     */
+    CapacityLimits lockCapacity(Map<Long, Long> enterpriseIdsByEmployee, Collection<Long> enterpriseIds,
+                                LocalDate initDate, LocalDate endDate) {
+        if (enterpriseIds.isEmpty()) {
+            return CapacityLimits.none();
+        }
+        SqlParameterSource param = new MapSqlParameterSource("ids", enterpriseIds);
+        jdbcTemplate.queryForList(QUERY_LOCK_ENTERPRISES, param, Long.class);
+        Map<Long, Integer> maxHeadcounts = new HashMap<>();
+        jdbcTemplate.query(QUERY_GET_CAPACITIES_BY_ENTERPRISE_IDS, param,
+                rs -> { maxHeadcounts.put(rs.getLong(1), rs.getInt(2)); });
+        if (maxHeadcounts.isEmpty()) {
+            return new CapacityLimits(enterpriseIdsByEmployee, maxHeadcounts, Collections.emptyList());
+        }
+        List<DailyOccupancy> occupancy = jdbcTemplate.query(QUERY_GET_DAILY_OCCUPANCY_BY_ENTERPRISE_IDS,
+                new MapSqlParameterSource("ids", maxHeadcounts.keySet())
+                        .addValue("initDate", initDate)
+                        .addValue("endDate", endDate), rowMapper);
+        return new CapacityLimits(enterpriseIdsByEmployee, maxHeadcounts, occupancy);
+    }
+
+    /**
+     * Empresa de cada empregado. Deve ser chamado com os empregados já travados, para que uma transferência
+     * concorrente não mude a empresa antes do commit.
+     */
+    Map<Long, Long> enterpriseIdsByEmployee(Collection<Long> employeeIds) {
+        Map<Long, Long> enterpriseIds = new HashMap<>();
+        if (employeeIds.isEmpty()) {
+            return enterpriseIds;
+        }
+        jdbcTemplate.query(QUERY_GET_ENTERPRISE_IDS_BY_EMPLOYEE_IDS, new MapSqlParameterSource("ids", employeeIds), rs -> {
+            long enterpriseId = rs.getLong(2);
+            enterpriseIds.put(rs.getLong(1), rs.wasNull() ? null : enterpriseId);
+        });
+        return enterpriseIds;
+    }
+
+    /**
+     * Leva os agendamentos do empregado de uma empresa para a outra. Deve ser chamado com o empregado travado.
+     */
+    void transferEmployee(Long employeeId, Long fromEnterpriseId, Long toEnterpriseId) {
+        OccupancyDelta delta = new OccupancyDelta();
+        for (BoardSchedule schedule : jdbcTemplate.query(QUERY_GET_SCHEDULES_BY_EMPLOYEE_ID,
+                new MapSqlParameterSource("employeeId", employeeId), RowMappers.BOARD_SCHEDULE)) {
+            delta.add(fromEnterpriseId, schedule.getInitDate(), schedule.getEndDate(), -1)
+                    .add(toEnterpriseId, schedule.getInitDate(), schedule.getEndDate(), 1);
+        }
+        apply(delta);
+    }
+
+    /**
+     * Aplica a variação na transação corrente. As empresas são travadas em ordem de id, o que serializa as
+     * escritas de ocupação da mesma empresa e torna seguro o UPDATE seguido de INSERT dos dias ainda sem linha.
+     * Falha com EnterpriseCapacityExceededException, antes de qualquer escrita, se algum dia passar do limite.
+     * Dias que chegam a zero são apagados, então a tabela só guarda dias ocupados.
+     */
+    void apply(OccupancyDelta delta) {
+        checkCapacity(delta);
+        write(delta);
+    }
+
+    /**
+     * Trava as empresas da variação e verifica o limite sem escrever nada, para que a escrita que gera a
+     * variação possa ser recusada antes de acontecer.
+     */
+    void checkCapacity(OccupancyDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        lockCapacity(Collections.emptyMap(), delta.enterpriseIds(), delta.firstDay(), delta.lastDay()).check(delta);
+    }
+
+    /**
+     * Grava uma variação já verificada por {@link #checkCapacity(OccupancyDelta)} na mesma transação.
+     */
+    void write(OccupancyDelta delta) {
+        for (Long enterpriseId : delta.enterpriseIds()) {
+            List<SqlParameterSource> days = params(enterpriseId, delta);
+            int[] updated = jdbcTemplate.batchUpdate(QUERY_ADD_OCCUPANCY, days.toArray(new SqlParameterSource[0]));
+            List<SqlParameterSource> missing = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    missing.add(days.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(QUERY_INSERT_OCCUPANCY, missing.toArray(new SqlParameterSource[0]));
+            }
+            if (delta.decreases(enterpriseId)) {
+                jdbcTemplate.update(QUERY_DELETE_EMPTY_OCCUPANCY, emptyDaysParams(enterpriseId, delta));
+            }
+        }
+    }
+
+    private static SqlParameterSource emptyDaysParams(Long enterpriseId, OccupancyDelta delta) {
+        return new MapSqlParameterSource("enterpriseId", enterpriseId)
+                .addValue("initDate", delta.days(enterpriseId).firstKey())
+                .addValue("endDate", delta.days(enterpriseId).lastKey());
+    }
+
+    private static List<SqlParameterSource> params(Long enterpriseId, OccupancyDelta delta) {
+        List<SqlParameterSource> params = new ArrayList<>();
+        delta.days(enterpriseId).forEach((day, value) -> params.add(new MapSqlParameterSource("enterpriseId", enterpriseId)
+                .addValue("day", day)
+                .addValue("delta", value)));
+        return params;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.exceptions.RepositoryBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.LISTING;
+
+/**
+ * Lê um result set forward-only com fetch size configurado e emite uma linha por demanda do assinante.
+ * A conexão é devolvida ao pool ao término, em caso de erro ou cancelamento. Roda no bulkhead de listagens,
+ * já que uma exportação segura a conexão até o fim. O bulkhead limita threads, não conexões: um cliente lento
+ * mantém o cursor aberto enquanto a thread volta ao pool, por isso os cursores abertos ao mesmo tempo são
+ * limitados por {@code boarding.streaming.max-open-cursors}, abaixo do tamanho do pool de conexões, e o excedente
+ * é rejeitado na hora com {@link RepositoryBusyException}.
+ */
+@Component
+@Slf4j
+public class JdbcResultSetStreamer {
+
+    private final DataSource dataSource;
+    private final int fetchSize;
+    private final JdbcExecutor jdbcExecutor;
+    private final QueryMetrics queryMetrics;
+    private final Semaphore openCursors;
+
+    public JdbcResultSetStreamer(DataSource dataSource,
+                                 @Value("${boarding.streaming.fetch-size:500}") int fetchSize,
+                                 @Value("${boarding.streaming.max-open-cursors:4}") int maxOpenCursors,
+                                 JdbcExecutor jdbcExecutor,
+                                 QueryMetrics queryMetrics) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+        this.openCursors = new Semaphore(maxOpenCursors);
+        this.jdbcExecutor = jdbcExecutor;
+        this.queryMetrics = queryMetrics;
+    }
+
+    public <T> Flux<T> stream(String sql, RowMapper<T> rowMapper) {
+        return stream(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
+    }
+
+    public <T> Flux<T> stream(String sql, SqlParameterSource params, RowMapper<T> rowMapper) {
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        String jdbcSql = NamedParameterUtils.substituteNamedParameters(parsedSql, params);
+        Object[] args = NamedParameterUtils.buildValueArray(parsedSql, params, null);
+        return jdbcExecutor.flux(LISTING, () -> queryMetrics.record(sql, Flux.using(
+                () -> open(jdbcSql, args),
+                cursor -> Flux.<T>generate(sink -> cursor.next(rowMapper, sink)),
+                this::close)));
+    }
+
+    private Cursor open(String sql, Object[] args) throws SQLException {
+        if (!openCursors.tryAcquire()) {
+            log.error("Limite de cursores de streaming abertos atingido, exportação rejeitada.");
+            throw new RepositoryBusyException("Serviço sobrecarregado, tente novamente mais tarde.");
+        }
+        Connection connection;
+        try {
+            connection = DataSourceUtils.getConnection(dataSource);
+        } catch (RuntimeException e) {
+            openCursors.release();
+            throw e;
+        }
+        PreparedStatement statement = null;
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                StatementCreatorUtils.setParameterValue(statement, i + 1, SqlTypeValue.TYPE_UNKNOWN, args[i]);
+            }
+            return new Cursor(connection, autoCommit, statement, statement.executeQuery());
+        } catch (SQLException e) {
+            JdbcUtils.closeStatement(statement);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            openCursors.release();
+            throw e;
+        }
+    }
+
+    private void close(Cursor cursor) {
+        JdbcUtils.closeResultSet(cursor.resultSet);
+        JdbcUtils.closeStatement(cursor.statement);
+        try {
+            if (cursor.autoCommit) {
+                cursor.connection.rollback();
+                cursor.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.error("Erro ao restaurar a conexão após streaming :: Message - {}", e.getMessage());
+        } finally {
+            DataSourceUtils.releaseConnection(cursor.connection, dataSource);
+            openCursors.release();
+            log.info("Streaming encerrado após {} linhas.", cursor.rowNum);
+        }
+    }
+
+    private static final class Cursor {
+        private final Connection connection;
+        private final boolean autoCommit;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private int rowNum;
+
+        private Cursor(Connection connection, boolean autoCommit, PreparedStatement statement, ResultSet resultSet) {
+            this.connection = connection;
+            this.autoCommit = autoCommit;
+            this.statement = statement;
+            this.resultSet = resultSet;
+        }
+
+        private <T> void next(RowMapper<T> rowMapper, SynchronousSink<T> sink) {
+            try {
+                if (resultSet.next()) {
+                    sink.next(rowMapper.mapRow(resultSet, rowNum++));
+                } else {
+                    sink.complete();
+                }
+            } catch (SQLException e) {
+                sink.error(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ogc.boardingschedule.repositories;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Variação da ocupação diária causada por uma escrita, agrupada por empresa e dia, comum às implementações
+ * JDBC e R2DBC do OccupancyRepository. Dias em que entradas e saídas se anulam, como no trecho comum de um
+ * embarque remarcado, não geram escrita.
+ */
+final class OccupancyDelta {
+
+    private final SortedMap<Long, SortedMap<LocalDate, Integer>> days = new TreeMap<>();
+
+    /**
+     * Soma a variação a todos os dias do intervalo, com o dia de início e o de fim incluídos. Empregados sem
+     * empresa não contam.
+     */
+    OccupancyDelta add(Long enterpriseId, LocalDate initDate, LocalDate endDate, int delta) {
+        if (enterpriseId == null || initDate == null || endDate == null) {
+            return this;
+        }
+        SortedMap<LocalDate, Integer> byDay = days.computeIfAbsent(enterpriseId, id -> new TreeMap<>());
+        for (LocalDate day = initDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            byDay.merge(day, delta, (current, value) -> current + value == 0 ? null : current + value);
+        }
+        if (byDay.isEmpty()) {
+            days.remove(enterpriseId);
+        }
+        return this;
+    }
+
+    boolean isEmpty() {
+        return days.isEmpty();
+    }
+
+    /**
+     * Empresas afetadas em ordem crescente de id, a mesma ordem em que são travadas.
+     */
+    SortedSet<Long> enterpriseIds() {
+        return new TreeSet<>(days.keySet());
+    }
+
+    LocalDate firstDay() {
+        return days.values().stream().map(SortedMap::firstKey).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    LocalDate lastDay() {
+        return days.values().stream().map(SortedMap::lastKey).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    /**
+     * Se algum dia da empresa perde ocupação e pode ter chegado a zero.
+     */
+    boolean decreases(Long enterpriseId) {
+        return days(enterpriseId).values().stream().anyMatch(value -> value < 0);
+    }
+
+    SortedMap<LocalDate, Integer> days(Long enterpriseId) {
+        return days.getOrDefault(enterpriseId, Collections.emptySortedMap());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ogc.boardingschedule.repositories;
+
+/**
+ * Consultas compartilhadas pelas implementações JDBC e R2DBC do OccupancyRepository.
+ */
+final class OccupancyQueries {
+
+    static final String QUERY_GET_DAILY_OCCUPANCY = "SELECT o.enterprise_id, o.occupied_on, o.headcount " +
+            " FROM daily_occupancy o " +
+            "WHERE o.enterprise_id = :enterpriseId " +
+            "  AND o.occupied_on >= :initDate " +
+            "  AND o.occupied_on <= :endDate " +
+            "ORDER BY o.occupied_on";
+
+    static final String QUERY_GET_ENTERPRISE_IDS_BY_EMPLOYEE_IDS = "SELECT id, enterprise_id FROM employee " +
+            "WHERE id in (:ids)";
+
+    static final String QUERY_GET_SCHEDULES_BY_EMPLOYEE_ID = "SELECT bs.id, bs.employee_id as employeeId, " +
+            "bs.init_date as initDate, bs.end_date as endDate " +
+            " FROM board_schedule bs " +
+            "WHERE bs.employee_id = :employeeId";
+
+    static final String QUERY_GET_SCHEDULES_BY_ENTERPRISE_ID = "SELECT bs.id, bs.employee_id as employeeId, " +
+            "bs.init_date as initDate, bs.end_date as endDate " +
+            " FROM board_schedule bs " +
+            "     inner join employee emp on bs.employee_id = emp.id " +
+            "WHERE emp.enterprise_id = :enterpriseId";
+
+    static final String QUERY_GET_ENTERPRISE_IDS = "SELECT id FROM enterprise ORDER BY id";
+
+    static final String QUERY_LOCK_ENTERPRISE = "SELECT id FROM enterprise " +
+            "WHERE id = :enterpriseId FOR UPDATE";
+
+    static final String QUERY_LOCK_ENTERPRISES = "SELECT id FROM enterprise " +
+            "WHERE id in (:ids) ORDER BY id FOR UPDATE";
+
+    static final String QUERY_LOCK_BOARDING_SCHEDULE = "SELECT bs.id, bs.employee_id as employeeId, " +
+            "bs.init_date as initDate, bs.end_date as endDate " +
+            " FROM board_schedule bs " +
+            "WHERE bs.id = :id FOR UPDATE";
+
+    static final String QUERY_LOCK_EMPLOYEE_ENTERPRISE = "SELECT enterprise_id FROM employee " +
+            "WHERE id = :id FOR UPDATE";
+
+    static final String QUERY_ADD_OCCUPANCY = "UPDATE daily_occupancy SET headcount = headcount + :delta " +
+            "WHERE enterprise_id = :enterpriseId AND occupied_on = :day";
+
+    static final String QUERY_INSERT_OCCUPANCY = "INSERT INTO daily_occupancy (enterprise_id, occupied_on, headcount) " +
+            "VALUES (:enterpriseId, :day, :delta)";
+
+    static final String QUERY_DELETE_EMPTY_OCCUPANCY = "DELETE FROM daily_occupancy " +
+            "WHERE enterprise_id = :enterpriseId " +
+            "  AND occupied_on >= :initDate " +
+            "  AND occupied_on <= :endDate " +
+            "  AND headcount = 0";
+
+    static final String QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID = "DELETE FROM daily_occupancy " +
+            "WHERE enterprise_id = :enterpriseId";
+
+    static final String QUERY_ANY_OCCUPANCY = "SELECT enterprise_id FROM daily_occupancy LIMIT 1";
+
+    static final String QUERY_ANY_BOARD_SCHEDULE = "SELECT id FROM board_schedule LIMIT 1";
+
+    static final String QUERY_GET_DAILY_OCCUPANCY_BY_ENTERPRISE_IDS = "SELECT o.enterprise_id, o.occupied_on, o.headcount " +
+            " FROM daily_occupancy o " +
+            "WHERE o.enterprise_id in (:ids) " +
+            "  AND o.occupied_on >= :initDate " +
+            "  AND o.occupied_on <= :endDate";
+
+    static final String QUERY_GET_CAPACITY_BY_ENTERPRISE_ID = "SELECT enterprise_id, max_headcount " +
+            " FROM enterprise_capacity WHERE enterprise_id = :enterpriseId";
+
+    static final String QUERY_GET_CAPACITIES_BY_ENTERPRISE_IDS = "SELECT enterprise_id, max_headcount " +
+            " FROM enterprise_capacity WHERE enterprise_id in (:ids)";
+
+    static final String QUERY_UPDATE_CAPACITY = "UPDATE enterprise_capacity SET max_headcount = :maxHeadcount " +
+            "WHERE enterprise_id = :enterpriseId";
+
+    static final String QUERY_INSERT_CAPACITY = "INSERT INTO enterprise_capacity (enterprise_id, max_headcount) " +
+            "VALUES (:enterpriseId, :maxHeadcount)";
+
+    static final String QUERY_DELETE_CAPACITY = "DELETE FROM enterprise_capacity " +
+            "WHERE enterprise_id = :enterpriseId";
+
+    private OccupancyQueries() {
+    }
+}
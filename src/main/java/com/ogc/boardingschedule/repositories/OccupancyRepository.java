@@ -0,0 +1,39 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Acesso à ocupação diária por empresa. A tabela é mantida pelas escritas do BoardingRepository e do
+ * EmployeeRepository na mesma transação do agendamento, sempre com a linha da empresa travada. A implementação
+ * JDBC é a padrão e a R2DBC é ativada pelo profile {@code r2dbc}.
+ */
+public interface OccupancyRepository {
+
+    /**
+     * Dias do período com ao menos um empregado embarcado, em ordem de data. Dias sem ninguém a bordo não têm linha.
+     */
+    Flux<DailyOccupancy> getDailyOccupancy(Long enterpriseId, LocalDate initDate, LocalDate endDate);
+
+    /**
+     * Recalcula a tabela a partir dos agendamentos, uma empresa por transação, e devolve a quantidade de linhas gravadas.
+     */
+    Mono<Integer> rebuildDailyOccupancy();
+
+    /**
+     * Limite de empregados a bordo da empresa, ou vazio quando ela não tem limite.
+     */
+    Mono<EnterpriseCapacity> getCapacity(Long enterpriseId);
+
+    /**
+     * Grava o limite com a empresa travada. Falha com EnterpriseNotExistsException. Agendamentos já gravados
+     * acima do novo limite são mantidos; só novas entradas são recusadas.
+     */
+    Mono<Void> setCapacity(Long enterpriseId, int maxHeadcount);
+
+    Mono<Void> deleteCapacity(Long enterpriseId);
+}
@@ -0,0 +1,139 @@
+package com.ogc.boardingschedule.repositories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timer {@code boarding.repository.query} e contador {@code boarding.repository.query.errors} por consulta, com a
+ * tag {@code query} igual ao nome da constante SQL nas classes *Queries e {@code repository} igual à classe. SQL
+ * fora delas aparece como {@code other}. Usado pelo NamedParameterJdbcTemplate e pelo DatabaseClient instrumentados
+ * e pelo streaming JDBC, então os repositórios continuam chamando as consultas como antes.
+ */
+@Component
+@Slf4j
+public class QueryMetrics {
+
+    static final String TIMER = "boarding.repository.query";
+    static final String ERRORS = "boarding.repository.query.errors";
+    static final String OTHER = "other";
+
+    private static final Map<String, QueryName> NAMES = queryNames(
+            BoardingQueries.class, EmployeeQueries.class, EnterpriseQueries.class, OccupancyQueries.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String sql, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            stop(sample, sql, "success");
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, sql, "error");
+            error(sql, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Mede da assinatura ao término, incluindo a leitura de todas as linhas.
+     */
+    public <T> Mono<T> record(String sql, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnError(e -> error(sql, e))
+                    .doFinally(signal -> stop(sample, sql, outcome(signal)));
+        });
+    }
+
+    public <T> Flux<T> record(String sql, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnError(e -> error(sql, e))
+                    .doFinally(signal -> stop(sample, sql, outcome(signal)));
+        });
+    }
+
+    static String name(String sql) {
+        QueryName name = NAMES.get(sql);
+        return name == null ? OTHER : name.query;
+    }
+
+    private void stop(Timer.Sample sample, String sql, String outcome) {
+        QueryName name = NAMES.getOrDefault(sql, QueryName.UNKNOWN);
+        sample.stop(Timer.builder(TIMER)
+                .description("Tempo de execução das consultas dos repositórios")
+                .tag("repository", name.repository)
+                .tag("query", name.query)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private void error(String sql, Throwable e) {
+        QueryName name = NAMES.getOrDefault(sql, QueryName.UNKNOWN);
+        Counter.builder(ERRORS)
+                .description("Consultas dos repositórios que terminaram com erro")
+                .tag("repository", name.repository)
+                .tag("query", name.query)
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String outcome(SignalType signal) {
+        switch (signal) {
+            case ON_ERROR:
+                return "error";
+            case CANCEL:
+                return "cancelled";
+            default:
+                return "success";
+        }
+    }
+
+    private static Map<String, QueryName> queryNames(Class<?>... queries) {
+        Map<String, QueryName> names = new HashMap<>();
+        for (Class<?> type : queries) {
+            String repository = type.getSimpleName().replace("Queries", "").toLowerCase();
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                    try {
+                        names.putIfAbsent((String) field.get(null), new QueryName(repository, field.getName()));
+                    } catch (IllegalAccessException e) {
+                        log.error("Constante {} sem acesso para métricas :: Message - {}", field.getName(), e.getMessage());
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    private static final class QueryName {
+        static final QueryName UNKNOWN = new QueryName(OTHER, OTHER);
+
+        final String repository;
+        final String query;
+
+        QueryName(String repository, String query) {
+            this.repository = repository;
+            this.query = query;
+        }
+    }
+}
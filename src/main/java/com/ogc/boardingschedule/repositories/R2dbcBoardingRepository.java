@@ -0,0 +1,486 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.CoverageGap;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.*;
+import com.ogc.boardingschedule.index.AvailabilityIndex;
+import com.ogc.boardingschedule.index.BoardingIntervalIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ogc.boardingschedule.repositories.BoardingQueries.*;
+
+
+@Repository
+@Profile("r2dbc")
+@Slf4j
+public class R2dbcBoardingRepository implements BoardingRepository {
+
+    private final DatabaseClient databaseClient;
+    private final EmployeeRepository employeeRepository;
+    private final BoardingIntervalIndex boardingIntervalIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final TransactionalOperator transactionalOperator;
+    private final R2dbcOccupancyRepository occupancyRepository;
+
+    public R2dbcBoardingRepository(DatabaseClient databaseClient,
+                                   EmployeeRepository employeeRepository,
+                                   BoardingIntervalIndex boardingIntervalIndex,
+                                   AvailabilityIndex availabilityIndex,
+                                   TransactionalOperator transactionalOperator,
+                                   R2dbcOccupancyRepository occupancyRepository) {
+        this.databaseClient = databaseClient;
+        this.employeeRepository = employeeRepository;
+        this.boardingIntervalIndex = boardingIntervalIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionalOperator = transactionalOperator;
+        this.occupancyRepository = occupancyRepository;
+    }
+
+    @PostConstruct
+    public void loadBoardingIntervalIndex() {
+        List<BoardSchedule> schedules = databaseClient.sql(QUERY_GET_ALL_BOARD_SCHEDULES)
+                .map(R2dbcSupport.BOARD_SCHEDULE)
+                .all()
+                .collectList()
+                .block();
+        boardingIntervalIndex.load(schedules);
+        availabilityIndex.loadSchedules(schedules);
+        log.info("Índice de embarques carregado com {} agendamentos.", schedules.size());
+    }
+
+    @Override
+    public EmployeeRepository getEmployeeRepository(){
+        return this.employeeRepository;
+    }
+
+    @Override
+    public Mono<BoardSchedule> getBoardingScheduleById(Long id){
+        return databaseClient.sql(QUERY_GET_BOARDING_SCHEDULE_BY_ID)
+                .bind("id", id)
+                .map(R2dbcSupport.BOARD_SCHEDULE)
+                .one()
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new BoardingException(e.getMessage());
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Não há nenhuma embarque agendado com o id {}.", id);
+                    return Mono.error(new BoardingScheduleNotExistsException("Não há nenhum embarque agendado com id "+id+"."));
+                }));
+    }
+
+    /**
+     * Mesma estratégia da implementação JDBC: trava o empregado com SELECT ... FOR UPDATE e insere
+     * somente se não houver embarque ou folga conflitante, com a ocupação diária atualizada na mesma transação.
+     * O limite da empresa é verificado antes do INSERT, para que um pedido recusado não consuma um id.
+     */
+    @Override
+    public Mono<Void> insertNewBoarding(Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return lockEmployee(employeeId)
+                .then(occupancyRepository.enterpriseIdsByEmployee(Collections.singleton(employeeId)))
+                .map(enterpriseIds -> new OccupancyDelta().add(enterpriseIds.get(employeeId), initDate, endDate, 1))
+                .flatMap(delta -> checkCapacity(delta, employeeId, initDate, endDate)
+                        .then(databaseClient.sql(QUERY_INSERT_NEW_BOARDING_WITHOUT_CONFLICT)
+                                .bind("employeeId", employeeId)
+                                .bind("initDate", initDate)
+                                .bind("endDate", endDate)
+                                .bind("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                                .bind("dayOffEndDate", endDate.plusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                                .filter(statement -> statement.returnGeneratedValues("id"))
+                                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                                .one())
+                        .switchIfEmpty(conflictError(0L, employeeId, initDate, endDate))
+                        .flatMap(id -> occupancyRepository.write(delta).thenReturn(id)))
+                .as(transactionalOperator::transactional)
+                .doOnNext(id -> {
+                    BoardSchedule newBoarding = new BoardSchedule(id, employeeId, initDate, endDate);
+                    boardingIntervalIndex.put(newBoarding);
+                    availabilityIndex.reindex(newBoarding);
+                    log.info("Empregado agendado para o intervalo entre {} e {}.", initDate, endDate);
+                })
+                .then()
+                .doOnError(R2dbcBoardingRepository::isExpectedError, e -> log.info(e.getMessage()))
+                .onErrorMap(e -> !isExpectedError(e), e -> {
+                    log.error("Erro ao agendar embarque :: Messagem - {}", e.getMessage());
+                    return new BoardingInsertException("Erro ao agendar embarque "+e.getMessage());
+                });
+    }
+
+    /**
+     * Agenda o lote em uma única transação. Os itens aceitos são inseridos um a um, em sequência,
+     * já que o DatabaseClient não agrupa execuções em batch.
+     */
+    @Override
+    public Mono<List<BoardingResult>> insertNewBoardings(List<BoardSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        Set<Long> employeeIds = BoardingBatch.employeeIds(schedules);
+        if (employeeIds.isEmpty()) {
+            return Mono.fromSupplier(() -> BoardingBatch.classify(schedules, Collections.emptySet(),
+                    Collections.emptyList(), CapacityLimits.none(), new ArrayList<>()));
+        }
+        LocalDate fromDate = BoardingBatch.fromDate(schedules);
+        LocalDate toDate = BoardingBatch.toDate(schedules);
+
+        return databaseClient.sql(QUERY_LOCK_EMPLOYEES)
+                .bind("ids", employeeIds)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .all()
+                .then(databaseClient.sql(QUERY_GET_EXISTING_EMPLOYEE_IDS)
+                        .bind("ids", employeeIds)
+                        .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                        .all()
+                        .collect(HashSet<Long>::new, Set::add))
+                .zipWhen(existingEmployees -> schedulesByEmployeeIds(employeeIds, fromDate, toDate).collectList())
+                .flatMap(existing -> occupancyRepository.enterpriseIdsByEmployee(employeeIds)
+                        .flatMap(enterpriseIds -> occupancyRepository.lockCapacity(enterpriseIds,
+                                        enterpriseIds.values().stream().filter(Objects::nonNull).collect(Collectors.toSet()),
+                                        fromDate, BoardingBatch.lastEndDate(schedules))
+                                .flatMap(capacity -> {
+                                    List<BoardSchedule> accepted = new ArrayList<>();
+                                    List<BoardingResult> results = BoardingBatch.classify(schedules, existing.getT1(), existing.getT2(),
+                                            capacity, accepted);
+                                    OccupancyDelta delta = new OccupancyDelta();
+                                    accepted.forEach(schedule -> delta.add(enterpriseIds.get(schedule.getEmployeeId()),
+                                            schedule.getInitDate(), schedule.getEndDate(), 1));
+                                    return Flux.fromIterable(accepted)
+                                            .concatMap(schedule -> databaseClient.sql(QUERY_INSERT_NEW_BOARDING)
+                                                    .bind("employeeId", schedule.getEmployeeId())
+                                                    .bind("initDate", schedule.getInitDate())
+                                                    .bind("endDate", schedule.getEndDate())
+                                                    .fetch()
+                                                    .rowsUpdated())
+                                            .then(occupancyRepository.apply(delta))
+                                            .then(Mono.fromSupplier(() -> {
+                                                log.info("{} de {} embarques do lote foram aceitos.", accepted.size(), schedules.size());
+                                                return results;
+                                            }));
+                                })))
+                .as(transactionalOperator::transactional)
+                .flatMap(results -> schedulesByEmployeeIds(employeeIds, fromDate, toDate)
+                        .doOnNext(boardingIntervalIndex::put)
+                        .doOnNext(availabilityIndex::reindex)
+                        .then(Mono.fromSupplier(() -> {
+                            log.info("Agendamento em lote concluído para {} embarques.", schedules.size());
+                            return results;
+                        })))
+                .onErrorMap(e -> {
+                    log.error("Erro ao agendar embarques em lote :: Messagem - {}", e.getMessage());
+                    return new BoardingInsertException("Erro ao agendar embarques em lote "+e.getMessage());
+                });
+    }
+
+    private Flux<BoardSchedule> schedulesByEmployeeIds(Set<Long> employeeIds, LocalDate fromDate, LocalDate toDate) {
+        return databaseClient.sql(QUERY_GET_SCHEDULES_BY_EMPLOYEE_IDS)
+                .bind("ids", employeeIds)
+                .bind("fromDate", fromDate)
+                .bind("toDate", toDate)
+                .map(R2dbcSupport.BOARD_SCHEDULE)
+                .all();
+    }
+
+    /**
+     * Trava os empregados em ordem de id e falha se o empregado de destino não existir.
+     */
+    private Mono<Void> lockEmployees(Set<Long> employeeIds, Long employeeId) {
+        return databaseClient.sql(QUERY_LOCK_EMPLOYEES)
+                .bind("ids", employeeIds)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .all()
+                .collect(HashSet<Long>::new, Set::add)
+                .flatMap(locked -> locked.contains(employeeId)
+                        ? Mono.<Void>empty()
+                        : Mono.error(new EmployeeNotExistsException("Empregado com id = "+employeeId+" não existe.")));
+    }
+
+    private Mono<Void> lockEmployee(Long employeeId) {
+        return databaseClient.sql(QUERY_LOCK_EMPLOYEE)
+                .bind("employeeId", employeeId)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .first()
+                .switchIfEmpty(Mono.error(() -> new EmployeeNotExistsException("Empregado com id = "+employeeId+" não existe.")))
+                .then();
+    }
+
+    /**
+     * Trava o agendamento e devolve os valores gravados, ou vazio se ele não existir.
+     */
+    private Mono<BoardSchedule> lockBoardingSchedule(Long id) {
+        return databaseClient.sql(OccupancyQueries.QUERY_LOCK_BOARDING_SCHEDULE)
+                .bind("id", id)
+                .map(R2dbcSupport.BOARD_SCHEDULE)
+                .first();
+    }
+
+    /**
+     * Deve ser chamado com o empregado do agendamento travado.
+     */
+    private Mono<OccupancyDelta> removal(BoardSchedule schedule) {
+        if (schedule.getEmployeeId() == null) {
+            return Mono.just(new OccupancyDelta());
+        }
+        return occupancyRepository.enterpriseIdsByEmployee(Collections.singleton(schedule.getEmployeeId()))
+                .map(enterpriseIds -> new OccupancyDelta().add(enterpriseIds.get(schedule.getEmployeeId()),
+                        schedule.getInitDate(), schedule.getEndDate(), -1));
+    }
+
+    /**
+     * Como no JDBC, o conflito com outro embarque tem precedência sobre o limite da empresa.
+     */
+    private Mono<Void> checkCapacity(OccupancyDelta delta, Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return occupancyRepository.checkCapacity(delta)
+                .onErrorResume(EnterpriseCapacityExceededException.class, e -> databaseClient.sql(QUERY_COUNT_EMPLOYEE_CONFLICTS)
+                        .bind("employeeId", employeeId)
+                        .bind("id", 0L)
+                        .bind("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                        .bind("dayOffEndDate", endDate.plusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                        .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                        .one()
+                        .flatMap(conflicts -> conflicts > 0
+                                ? conflictError(0L, employeeId, initDate, endDate)
+                                : Mono.error(e)));
+    }
+
+    private <T> Mono<T> conflictError(Long id, Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return databaseClient.sql(QUERY_COUNT_EMPLOYEE_IN_DAY_OFF)
+                .bind("employeeId", employeeId)
+                .bind("id", id)
+                .bind("initDate", initDate)
+                .bind("endDate", endDate)
+                .bind("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                .bind("dayOffEndDate", endDate.plusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .one()
+                .flatMap(inDayOff -> Mono.error(inDayOff > 0
+                        ? new EmployeeInDayOffException("Empregado id = "+employeeId+" está em período de folga")
+                        : new EmployeeOnBoardException("Empregado id = "+employeeId+" já  está embarcado.")));
+    }
+
+    private static boolean isExpectedError(Throwable e) {
+        return e instanceof BoardingScheduleNotExistsException
+                || e instanceof EmployeeNotExistsException
+                || e instanceof EmployeeInDayOffException
+                || e instanceof EmployeeOnBoardException
+                || e instanceof EnterpriseCapacityExceededException;
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardings() {
+        return databaseClient.sql(QUERY_GET_ALL_SCHEDULES)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .all()
+                .onErrorMap(databaseError());
+    }
+
+    /**
+     * O driver R2DBC já entrega as linhas conforme a demanda do assinante.
+     */
+    @Override
+    public Flux<BoardingDetail> streamBoardings() {
+        return getBoardings();
+    }
+
+    @Override
+    public Flux<BoardingDetail> streamBoardingByEnterpriseId(Long id) {
+        return getBoardingByEnterpriseId(id);
+    }
+
+    @Override
+    public Mono<Page<BoardingDetail>> getBoardingsPage(PageCursor cursor, int limit) {
+        return databaseClient.sql(QUERY_GET_SCHEDULES_PAGE)
+                .bind("initDate", cursor.getInitDate())
+                .bind("id", cursor.getId())
+                .bind("limit", limit + 1)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .all()
+                .collectList()
+                .map(boardingDetails -> PageCursor.page(boardingDetails, limit,
+                        b -> new PageCursor(b.getInitDate(), b.getId())))
+                .onErrorMap(databaseError());
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardingByEmployeeId(Long id) {
+        return databaseClient.sql(QUERY_GET_SCHEDULE_BY_EMPLOYEE_ID)
+                .bind("id", id)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .all()
+                .onErrorMap(databaseError());
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardingByEnterpriseId(Long id) {
+        return databaseClient.sql(QUERY_GET_SCHEDULE_BY_ENTERPRISE_ID)
+                .bind("id", id)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .all()
+                .onErrorMap(databaseError());
+    }
+
+    @Override
+    public Mono<Page<BoardingDetail>> getBoardingPageByEnterpriseId(Long id, PageCursor cursor, int limit) {
+        return databaseClient.sql(QUERY_GET_SCHEDULES_PAGE_BY_ENTERPRISE_ID)
+                .bind("enterpriseId", id)
+                .bind("initDate", cursor.getInitDate())
+                .bind("id", cursor.getId())
+                .bind("limit", limit + 1)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .all()
+                .collectList()
+                .map(boardingDetails -> PageCursor.page(boardingDetails, limit,
+                        b -> new PageCursor(b.getInitDate(), b.getId())))
+                .onErrorMap(databaseError());
+    }
+
+    @Override
+    public Mono<EmployeeDetail> getEmployeeInDayOff(Long id, LocalDate initDate) {
+        return databaseClient.sql(QUERY_GET_EMPLOYEE_IN_DAY_OFF)
+                .bind("employeeId", id)
+                .bind("initDate", initDate)
+                .bind("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                .map(R2dbcSupport.EMPLOYEE_DETAIL)
+                .first()
+                .doOnNext(employee -> log.info("Há embarque agendado para o empregado id = {} no dia {}",id, initDate))
+                .onErrorMap(databaseError())
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Não há embarque agendado para o empregado id = {} no dia {}",id, initDate);
+                    return Mono.empty();
+                }));
+    }
+
+    @Override
+    public Mono<BoardingDetail> getEmployeeOnBoard(Long id, LocalDate initDate) {
+        return databaseClient.sql(QUERY_GET_EMPLOYEE_ON_BOARD)
+                .bind("employeeId", id)
+                .bind("initDate", initDate)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .first()
+                .doOnNext(boardingDetail -> log.info("Empregado já embarcado id = {} .",id))
+                .onErrorMap(databaseError())
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Empregado não está embarcado id = {}",id);
+                    return Mono.empty();
+                }));
+    }
+
+    @Override
+    public Mono<Void> deleteBordingScheduleById(Long id) {
+        return lockBoardingSchedule(id)
+                .flatMap(oldBoard -> (oldBoard.getEmployeeId() == null ? Mono.<Void>empty() : lockEmployee(oldBoard.getEmployeeId()))
+                        .then(databaseClient.sql(QUERY_DELETE_SCHEDULE)
+                                .bind("id", id)
+                                .fetch()
+                                .rowsUpdated())
+                        .then(removal(oldBoard))
+                        .flatMap(occupancyRepository::apply)
+                        .thenReturn(oldBoard))
+                .as(transactionalOperator::transactional)
+                .doOnNext(oldBoard -> {
+                    boardingIntervalIndex.remove(id);
+                    availabilityIndex.reindex(oldBoard);
+                })
+                .then(Mono.fromRunnable(() -> log.info("Embarque, cujo id é {}, foi apagado com sucesso.", id)))
+                .then()
+                .onErrorMap(e -> {
+                    log.error("Erro ao apagar a agendamento de embarque id = {} :: Messagem - {}", id, e.getMessage());
+                    return new BoardingException("Erro ao apagar agendamento de embarque id = "+id);
+                });
+    }
+
+    /**
+     * Atualiza o agendamento na mesma transação que trava o agendamento e os empregados de origem e destino,
+     * com a verificação de conflitos feita pelo próprio UPDATE e a ocupação diária movida do período antigo
+     * para o novo.
+     */
+    @Override
+    public Mono<Void> updateBoardingSchedule(Long id, Long employeeId, LocalDate initDate, LocalDate endDate) {
+        return lockBoardingSchedule(id)
+                .switchIfEmpty(Mono.error(() -> new BoardingScheduleNotExistsException("Não há nenhum embarque agendado com id "+id+".")))
+                .flatMap(oldBoard -> lockEmployees(new HashSet<>(Arrays.asList(oldBoard.getEmployeeId(), employeeId)), employeeId)
+                        .then(databaseClient.sql(QUERY_UPDATE_SCHEDULE_WITHOUT_CONFLICT)
+                                .bind("id", id)
+                                .bind("employeeId", employeeId)
+                                .bind("initDate", initDate)
+                                .bind("endDate", endDate)
+                                .bind("dayOffInitDate", initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                                .bind("dayOffEndDate", endDate.plusDays(BoardingIntervalIndex.DAY_OFF_DAYS))
+                                .fetch()
+                                .rowsUpdated())
+                        .flatMap(rows -> rows > 0 ? Mono.just(rows) : this.<Integer>conflictError(id, employeeId, initDate, endDate))
+                        .then(removal(oldBoard))
+                        .flatMap(delta -> occupancyRepository.enterpriseIdsByEmployee(Collections.singleton(employeeId))
+                                .flatMap(enterpriseIds -> occupancyRepository.apply(delta
+                                        .add(enterpriseIds.get(employeeId), initDate, endDate, 1))))
+                        .thenReturn(oldBoard))
+                .as(transactionalOperator::transactional)
+                .doOnNext(oldBoard -> {
+                    BoardSchedule newBoard = new BoardSchedule(id, employeeId, initDate, endDate);
+                    boardingIntervalIndex.put(newBoard);
+                    availabilityIndex.reindex(oldBoard);
+                    availabilityIndex.reindex(newBoard);
+                    log.info("Agendamento de embarque, cujo id é {}, foi atualizado de {} para {} " +
+                                    "de {} para {} " +
+                                    "de {} para {} com sucesso.", id, oldBoard.getEmployeeId(), employeeId,
+                            oldBoard.getInitDate(), initDate,
+                            oldBoard.getEndDate(), endDate);
+                })
+                .then()
+                .doOnError(R2dbcBoardingRepository::isExpectedError, e -> log.info(e.getMessage()))
+                .onErrorMap(e -> !isExpectedError(e), e -> {
+                    log.error("Erro ao atualizar a agendamento de embarque id = {} :: Messagem - {}", id, e.getMessage());
+                    return new BoardingException("Erro ao atualizar agendamento de embarque id = "+id);
+                });
+    }
+
+    @Override
+    public Flux<BoardingDetail> getBoardingScheduleBetweenDates(LocalDate initDate, LocalDate endDate) {
+        return databaseClient.sql(QUERY_GET_SCHEDULE_BETWEEN_DATES)
+                .bind("initDate", initDate)
+                .bind("endDate", endDate)
+                .map(R2dbcSupport.BOARDING_DETAIL)
+                .all()
+                .onErrorMap(databaseError());
+    }
+
+    @Override
+    public Flux<CoverageGap> streamCoverageGapsByEnterpriseId(Long id, LocalDate initDate, LocalDate endDate) {
+        return CoverageGapSweep.gaps(databaseClient.sql(QUERY_GET_ROLE_INTERVALS_BY_ENTERPRISE_ID)
+                        .bind("id", id)
+                        .bind("initDate", initDate)
+                        .bind("endDate", endDate)
+                        .map(R2dbcSupport.ROLE_INTERVAL)
+                        .all(), initDate, endDate)
+                .onErrorMap(databaseError());
+    }
+
+    private static Function<Throwable, Throwable> databaseError() {
+        return e -> {
+            log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+            return new BoardingException(e.getMessage());
+        };
+    }
+}
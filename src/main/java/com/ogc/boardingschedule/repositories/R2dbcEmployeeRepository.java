@@ -0,0 +1,322 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.cache.EmployeeDetailCache;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.EmployeeException;
+import com.ogc.boardingschedule.exceptions.EmployeeInsertException;
+import com.ogc.boardingschedule.exceptions.EmployeeNotExistsException;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+import com.ogc.boardingschedule.index.AvailabilityIndex;
+import com.ogc.boardingschedule.index.EmployeeNameIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.ogc.boardingschedule.repositories.EmployeeQueries.*;
+
+
+@Repository
+@Profile("r2dbc")
+@Slf4j
+public class R2dbcEmployeeRepository implements EmployeeRepository {
+
+    private final DatabaseClient databaseClient;
+    private final EnterpriseRepository enterpriseRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final EmployeeDetailCache employeeDetailCache;
+    private final EmployeeNameIndex employeeNameIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final R2dbcOccupancyRepository occupancyRepository;
+
+    public R2dbcEmployeeRepository(DatabaseClient databaseClient,
+                                   EnterpriseRepository enterpriseRepository,
+                                   TransactionalOperator transactionalOperator,
+                                   EmployeeDetailCache employeeDetailCache,
+                                   EmployeeNameIndex employeeNameIndex,
+                                   AvailabilityIndex availabilityIndex,
+                                   R2dbcOccupancyRepository occupancyRepository) {
+        this.databaseClient = databaseClient;
+        this.enterpriseRepository = enterpriseRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.employeeDetailCache = employeeDetailCache;
+        this.employeeNameIndex = employeeNameIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyRepository = occupancyRepository;
+    }
+
+    @PostConstruct
+    public void loadEmployeeIndexes() {
+        employeeNameIndex.load(queryNames(databaseClient.sql(QUERY_GET_EMPLOYEE_NAMES)).block());
+        log.info("Índice de nomes carregado com {} empregados.", employeeNameIndex.size());
+        availabilityIndex.loadEmployees(getEmployees().collectList().block());
+    }
+
+    private Mono<Map<Long, String>> queryNames(GenericExecuteSpec spec) {
+        return spec.map((row, metadata) -> new SimpleImmutableEntry<>(R2dbcSupport.getLong(row, 0), row.get(1, String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new);
+    }
+
+    private GenericExecuteSpec bindEmployee(GenericExecuteSpec spec, String name, String role, Long enterpriseId) {
+        spec = R2dbcSupport.bind(spec, "name", name, String.class);
+        spec = R2dbcSupport.bind(spec, "role", role, String.class);
+        return R2dbcSupport.bind(spec, "enterpriseId", enterpriseId, Long.class);
+    }
+
+    @Override
+    public EnterpriseRepository getEnterpriseRepository(){
+        return this.enterpriseRepository;
+    }
+
+    @Override
+    public Mono<Void> insertNewEmployee(String name, String role, Long enterpriseId) {
+        return bindEmployee(databaseClient.sql(QUERY_INSERT_NEW_EMPLOYEE), name, role, enterpriseId)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .one()
+                .doOnNext(id -> {
+                    employeeNameIndex.put(id, name);
+                    availabilityIndex.putEmployee(id, role, enterpriseId);
+                    employeeDetailCache.invalidateMissing();
+                    log.info("Empregado {} inserida com sucesso.", name);
+                })
+                .then()
+                .onErrorMap(e -> {
+                    log.error("Erro ao inserir a empregado {} :: Messagem - {}", name, e.getMessage());
+                    return new EmployeeInsertException("Erro ao inserir empregado "+name);
+                });
+    }
+
+    /**
+     * Insere o lote em uma única transação, um comando por empregado, já que o DatabaseClient não agrupa
+     * execuções em batch. Os ids vêm das chaves geradas de cada comando, sem reler a tabela.
+     */
+    @Override
+    public Mono<Integer> insertNewEmployees(List<Employee> employees) {
+        return Flux.fromIterable(employees)
+                .concatMap(employee -> bindEmployee(databaseClient.sql(QUERY_INSERT_NEW_EMPLOYEE),
+                        employee.getName(), employee.getRole(), employee.getEnterpriseId())
+                        .filter(statement -> statement.returnGeneratedValues("id"))
+                        .map((row, metadata) -> new Employee(R2dbcSupport.getLong(row, 0),
+                                employee.getName(), employee.getRole(), employee.getEnterpriseId()))
+                        .one())
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .map(inserted -> {
+                    inserted.forEach(employee -> {
+                        employeeNameIndex.put(employee.getId(), employee.getName());
+                        availabilityIndex.putEmployee(employee.getId(), employee.getRole(), employee.getEnterpriseId());
+                    });
+                    employeeDetailCache.invalidateMissing();
+                    log.info("{} empregados inseridos em lote com sucesso.", employees.size());
+                    return employees.size();
+                })
+                .onErrorMap(e -> {
+                    log.error("Erro ao inserir lote de {} empregados :: Messagem - {}", employees.size(), e.getMessage());
+                    return new EmployeeInsertException("Erro ao inserir lote de empregados "+e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<Employee> getEmployees() {
+        return databaseClient.sql(QUERY_GET_EMPLOYEES)
+                .map(R2dbcSupport.EMPLOYEE)
+                .all()
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EmployeeException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<Employee> getEmployeesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(QUERY_GET_EMPLOYEES_BY_IDS)
+                .bind("ids", ids)
+                .map(R2dbcSupport.EMPLOYEE)
+                .all()
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EmployeeException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<EmployeeDetail> getEmployeesDetail() {
+        return databaseClient.sql(QUERY_GET_EMPLOYEES_DETAIL)
+                .map(R2dbcSupport.EMPLOYEE_DETAIL)
+                .all()
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EmployeeException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Page<Employee>> getEmployeesPage(PageCursor cursor, int limit) {
+        return databaseClient.sql(QUERY_GET_EMPLOYEES_PAGE)
+                .bind("id", cursor.getId())
+                .bind("limit", limit + 1)
+                .map(R2dbcSupport.EMPLOYEE)
+                .all()
+                .collectList()
+                .map(employees -> PageCursor.page(employees, limit, emp -> PageCursor.byId(emp.getId())))
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EmployeeException(e.getMessage());
+                });
+    }
+
+    /**
+     * O driver R2DBC já entrega as linhas conforme a demanda do assinante.
+     */
+    @Override
+    public Flux<EmployeeDetail> streamEmployeesDetail() {
+        return getEmployeesDetail();
+    }
+
+    @Override
+    public Mono<Page<EmployeeDetail>> getEmployeesDetailPage(PageCursor cursor, int limit) {
+        return databaseClient.sql(QUERY_GET_EMPLOYEES_DETAIL_PAGE)
+                .bind("id", cursor.getId())
+                .bind("limit", limit + 1)
+                .map(R2dbcSupport.EMPLOYEE_DETAIL)
+                .all()
+                .collectList()
+                .map(employees -> PageCursor.page(employees, limit, emp -> PageCursor.byId(emp.getId())))
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EmployeeException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<EmployeeDetail> getEmployeeDetailByName(String name, int limit, boolean fuzzy) {
+        return Flux.defer(() -> {
+            List<Long> ids = employeeNameIndex.search(name, limit, fuzzy);
+            if (ids.isEmpty()) {
+                log.info("Nenhum empregado com nome parecido com {}.", name);
+                return Flux.empty();
+            }
+            Map<Long, Integer> positions = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                positions.put(ids.get(i), i);
+            }
+            return databaseClient.sql(QUERY_GET_EMPLOYEE_DETAIL_BY_IDS)
+                    .bind("ids", ids)
+                    .map(R2dbcSupport.EMPLOYEE_DETAIL)
+                    .all()
+                    .sort(Comparator.comparing(emp -> positions.get(emp.getId())));
+        }).onErrorMap(e -> {
+            log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+            return new EmployeeException(e.getMessage());
+        });
+    }
+
+    @Override
+    public Mono<EmployeeDetail> getEmployeeDetailById(Long id) {
+        return Mono.defer(() -> {
+            EmployeeDetail cached = employeeDetailCache.get(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            if (employeeDetailCache.isMissing(id)) {
+                log.info("Empregdo {} não existe", id);
+                return Mono.error(new EmployeeNotExistsException("Empregado "+id+" não existe."));
+            }
+            long generation = employeeDetailCache.generation();
+            return databaseClient.sql(QUERY_GET_EMPLOYEE_DETAIL_BY_ID)
+                    .bind("id", id)
+                    .map(R2dbcSupport.EMPLOYEE_DETAIL)
+                    .one()
+                    .doOnNext(employee -> employeeDetailCache.put(employee, generation))
+                    .onErrorMap(e -> {
+                        log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                        return new EmployeeException(e.getMessage());
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        employeeDetailCache.putMissing(id, generation);
+                        log.info("Empregdo {} não existe", id);
+                        return Mono.error(new EmployeeNotExistsException("Empregado "+id+" não existe."));
+                    }));
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteEmployeeById(Long id) {
+        return databaseClient.sql(QUERY_DELETE_EMPLOYEE)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(rows -> {
+                    employeeNameIndex.remove(id);
+                    availabilityIndex.removeEmployee(id);
+                    employeeDetailCache.invalidate(id);
+                    log.info("Empregado, cujo id é {}, foi apagado com sucesso.", id);
+                })
+                .then()
+                .onErrorMap(e -> {
+                    log.error("Erro ao apagar a empregado id = {} :: Messagem - {}", id, e.getMessage());
+                    return new EmployeeException("Erro ao apagar empregado id = "+id);
+                });
+    }
+
+    /**
+     * Mesma estratégia da implementação JDBC: trava o empregado para que a troca de empresa leve os agendamentos
+     * dele para a ocupação diária da nova empresa na mesma transação, respeitando o limite dela.
+     */
+    @Override
+    public Mono<Void> updateEmployee(Long id, String name, String role, Long enterpriseId) {
+        return getEmployeeDetailById(id)
+                .flatMap(oldEmployee -> databaseClient.sql(OccupancyQueries.QUERY_LOCK_EMPLOYEE_ENTERPRISE)
+                        .bind("id", id)
+                        .map((row, metadata) -> Optional.ofNullable(R2dbcSupport.getLong(row, 0)))
+                        .first()
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(oldEnterpriseId -> bindEmployee(databaseClient.sql(QUERY_UPDATE_EMPLOYEE), name, role, enterpriseId)
+                                .bind("id", id)
+                                .fetch()
+                                .rowsUpdated()
+                                .flatMap(rows -> Objects.equals(oldEnterpriseId.orElse(null), enterpriseId)
+                                        ? Mono.just(rows)
+                                        : occupancyRepository.transferEmployee(id, oldEnterpriseId.orElse(null), enterpriseId)
+                                                .thenReturn(rows)))
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(rows -> {
+                            employeeNameIndex.put(id, name);
+                            availabilityIndex.putEmployee(id, role, enterpriseId);
+                            employeeDetailCache.invalidate(id);
+                            log.info("Empregado, cujo id é {}, foi atulizado de {} para {} " +
+                                    "de {} para {} " +
+                                    "de {} para {} com sucesso.", id, oldEmployee.getName(), name, oldEmployee.getRole(), role,
+                                    oldEmployee.getEnterpriseId(), enterpriseId);
+                        }))
+                .then()
+                .doOnError(EmployeeNotExistsException.class, e -> log.error("Empregado de id = {} não existe.", id))
+                .doOnError(EnterpriseCapacityExceededException.class, e -> log.info(e.getMessage()))
+                .onErrorMap(e -> !(e instanceof EmployeeNotExistsException || e instanceof EnterpriseCapacityExceededException), e -> {
+                    log.error("Erro ao atualizar a empregado id = {} :: Messagem - {}", id, e.getMessage());
+                    return new EmployeeException("Erro ao atualizar empregado id = "+id);
+                });
+    }
+}
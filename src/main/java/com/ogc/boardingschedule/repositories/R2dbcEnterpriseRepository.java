@@ -0,0 +1,241 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.cache.EmployeeDetailCache;
+import com.ogc.boardingschedule.cache.EnterpriseCache;
+import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.EnterpriseException;
+import com.ogc.boardingschedule.exceptions.EnterpriseExistsException;
+import com.ogc.boardingschedule.exceptions.EnterpriseInsertException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.ogc.boardingschedule.repositories.EnterpriseQueries.*;
+import static com.ogc.boardingschedule.repositories.OccupancyQueries.QUERY_DELETE_CAPACITY;
+import static com.ogc.boardingschedule.repositories.OccupancyQueries.QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID;
+
+
+@Repository
+@Profile("r2dbc")
+@Slf4j
+public class R2dbcEnterpriseRepository implements EnterpriseRepository {
+
+    private final DatabaseClient databaseClient;
+    private final EnterpriseCache enterpriseCache;
+    private final EmployeeDetailCache employeeDetailCache;
+    private final TransactionalOperator transactionalOperator;
+
+    public R2dbcEnterpriseRepository(DatabaseClient databaseClient,
+                                     EnterpriseCache enterpriseCache,
+                                     EmployeeDetailCache employeeDetailCache,
+                                     TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.enterpriseCache = enterpriseCache;
+        this.employeeDetailCache = employeeDetailCache;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Mono<Boolean> insertNewCompany(String name) {
+        return databaseClient.sql(QUERY_INSERT_NEW_COMPANY)
+                .bind("name", name)
+                .bind("normalizedName", EnterpriseCache.normalize(name))
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> {
+                    if (rows == 0) {
+                        log.info("Empresa {} já existe.", name);
+                        return false;
+                    }
+                    enterpriseCache.invalidate(null, name);
+                    log.info("Empresa {} inserida com sucesso.", name);
+                    return true;
+                })
+                .onErrorResume(DataIntegrityViolationException.class, e -> {
+                    log.info("Empresa {} já existe.", name);
+                    return Mono.just(false);
+                })
+                .onErrorMap(e -> {
+                    log.error("Erro ao inserir a empresa {} :: Messagem - {}", name, e.getMessage());
+                    return new EnterpriseInsertException("Erro ao inserir empresa "+name);
+                });
+    }
+
+    @Override
+    public Flux<Enterprise> getCompanies() {
+        return loadCompanies()
+                .flatMapMany(Flux::fromIterable)
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EnterpriseException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Set<Long>> getCompanyIds() {
+        return loadCompanies()
+                .<Set<Long>>map(enterprises -> enterprises.stream()
+                        .map(Enterprise::getId)
+                        .collect(Collectors.toCollection(HashSet::new)))
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EnterpriseException(e.getMessage());
+                });
+    }
+
+    private Mono<List<Enterprise>> loadCompanies() {
+        return Mono.defer(() -> {
+            List<Enterprise> cached = enterpriseCache.getAll();
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long generation = enterpriseCache.generation();
+            return databaseClient.sql(QUERY_GET_COMPANIES)
+                    .map(R2dbcSupport.ENTERPRISE)
+                    .all()
+                    .collectList()
+                    .map(Collections::unmodifiableList)
+                    .doOnNext(enterprises -> enterpriseCache.putAll(enterprises, generation));
+        });
+    }
+
+    @Override
+    public Mono<Page<Enterprise>> getCompaniesPage(PageCursor cursor, int limit) {
+        return databaseClient.sql(QUERY_GET_COMPANIES_PAGE)
+                .bind("id", cursor.getId())
+                .bind("limit", limit + 1)
+                .map(R2dbcSupport.ENTERPRISE)
+                .all()
+                .collectList()
+                .map(enterprises -> PageCursor.page(enterprises, limit, e -> PageCursor.byId(e.getId())))
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EnterpriseException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Enterprise> getCompanyByName(String name) {
+        return Mono.defer(() -> {
+            Enterprise cached = enterpriseCache.getByName(name);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long generation = enterpriseCache.generation();
+            return databaseClient.sql(QUERY_GET_COMPANY_BY_NAME)
+                    .bind("normalizedName", EnterpriseCache.normalize(name))
+                    .map(R2dbcSupport.ENTERPRISE)
+                    .one()
+                    .doOnNext(enterprise -> enterpriseCache.put(enterprise, generation))
+                    .onErrorMap(e -> {
+                        log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                        return new EnterpriseException(e.getMessage());
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        log.info("Empresa {} não existe", name);
+                        return Mono.error(new EnterpriseNotExistsException("Empresa "+name+" não existe."));
+                    }));
+        });
+    }
+
+    @Override
+    public Mono<Enterprise> getCompanyById(Long id) {
+        return Mono.defer(() -> {
+            Enterprise cached = enterpriseCache.getById(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long generation = enterpriseCache.generation();
+            return databaseClient.sql(QUERY_GET_COMPANY_BY_ID)
+                    .bind("id", id)
+                    .map(R2dbcSupport.ENTERPRISE)
+                    .one()
+                    .doOnNext(enterprise -> enterpriseCache.put(enterprise, generation))
+                    .onErrorMap(e -> {
+                        log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                        return new EnterpriseException(e.getMessage());
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        log.info("Empresa, cujo id é {} não existe", id);
+                        return Mono.error(new EnterpriseNotExistsException("Empresa, cujo id é  "+id+" não existe."));
+                    }));
+        });
+    }
+
+    /**
+     * Como no JDBC, a ocupação diária e o limite da empresa são apagados na mesma transação.
+     */
+    @Override
+    public Mono<Void> deleteCompanyById(Long id) {
+        return getCompanyById(id)
+                .flatMap(oldEnterprise -> databaseClient.sql(QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID)
+                        .bind("enterpriseId", id)
+                        .fetch()
+                        .rowsUpdated()
+                        .then(databaseClient.sql(QUERY_DELETE_CAPACITY)
+                                .bind("enterpriseId", id)
+                                .fetch()
+                                .rowsUpdated())
+                        .then(databaseClient.sql(QUERY_DELETE_COMPANY)
+                                .bind("id", id)
+                                .fetch()
+                                .rowsUpdated())
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(rows -> {
+                            enterpriseCache.invalidate(id, oldEnterprise.getName());
+                            log.info("Empresa, cujo id é {}, foi apagada com sucesso.", id);
+                        }))
+                .then()
+                .onErrorResume(EnterpriseNotExistsException.class, e -> {
+                    log.info("Empresa de id = {} não existe.", id);
+                    return Mono.empty();
+                })
+                .onErrorMap(e -> {
+                    log.error("Erro ao apagar a empresa id = {} :: Messagem - {}", id, e.getMessage());
+                    return new EnterpriseException("Erro ao apagar empresa id = "+id);
+                });
+    }
+
+    @Override
+    public Mono<Void> updateCompany(Long id, String name) {
+        return getCompanyById(id)
+                .onErrorMap(EnterpriseNotExistsException.class, e -> {
+                    log.error("Empresa de id = {} não existe.", id);
+                    return new EnterpriseNotExistsException("Empresa de id = "+id+" e nome = "+name+" não existe.");
+                })
+                .flatMap(oldEnterprise -> databaseClient.sql(QUERY_UPDATE_COMPANY)
+                        .bind("id", id)
+                        .bind("name", name)
+                        .bind("normalizedName", EnterpriseCache.normalize(name))
+                        .fetch()
+                        .rowsUpdated()
+                        .doOnNext(rows -> {
+                            enterpriseCache.invalidate(id, oldEnterprise.getName(), name);
+                            employeeDetailCache.invalidateByEnterpriseId(id);
+                            log.info("Empresa, cujo id é {}, foi autulizada de {} para {} com sucesso.", id, oldEnterprise.getName(), name);
+                        })
+                        .onErrorMap(DataIntegrityViolationException.class, e -> {
+                            log.info("Empresa {} já existe.", name);
+                            return new EnterpriseExistsException("Empresa "+name+" já existe.");
+                        }))
+                .then()
+                .onErrorMap(e -> !(e instanceof EnterpriseNotExistsException || e instanceof EnterpriseExistsException), e -> {
+                    log.error("Erro ao atualizar a empresa id = {} :: Messagem - {}", id, e.getMessage());
+                    return new EnterpriseException("Erro ao atualizar empresa id = "+id);
+                });
+    }
+}
@@ -0,0 +1,281 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.EnterpriseException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ogc.boardingschedule.repositories.OccupancyQueries.*;
+
+
+@Repository
+@Profile("r2dbc")
+@Slf4j
+public class R2dbcOccupancyRepository implements OccupancyRepository {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public R2dbcOccupancyRepository(DatabaseClient databaseClient,
+                                    TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Bancos migrados com agendamentos já existentes começam com a tabela vazia.
+     */
+    @PostConstruct
+    public void rebuildIfEmpty() {
+        Boolean empty = databaseClient.sql(QUERY_ANY_OCCUPANCY)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .first()
+                .hasElement()
+                .flatMap(hasOccupancy -> hasOccupancy ? Mono.just(false) : databaseClient.sql(QUERY_ANY_BOARD_SCHEDULE)
+                        .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                        .first()
+                        .hasElement())
+                .block();
+        if (Boolean.TRUE.equals(empty)) {
+            log.info("Ocupação diária vazia com agendamentos existentes, recalculando.");
+            rebuild().block();
+        }
+    }
+
+    @Override
+    public Flux<DailyOccupancy> getDailyOccupancy(Long enterpriseId, LocalDate initDate, LocalDate endDate) {
+        return databaseClient.sql(QUERY_GET_DAILY_OCCUPANCY)
+                .bind("enterpriseId", enterpriseId)
+                .bind("initDate", initDate)
+                .bind("endDate", endDate)
+                .map(R2dbcSupport.DAILY_OCCUPANCY)
+                .all()
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new BoardingException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Integer> rebuildDailyOccupancy() {
+        return rebuild()
+                .onErrorMap(e -> {
+                    log.error("Erro ao recalcular a ocupação diária :: Messagem - {}", e.getMessage());
+                    return new BoardingException("Erro ao recalcular a ocupação diária "+e.getMessage());
+                });
+    }
+
+    private Mono<Integer> rebuild() {
+        return databaseClient.sql(QUERY_GET_ENTERPRISE_IDS)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .all()
+                .concatMap(enterpriseId -> rebuild(enterpriseId).as(transactionalOperator::transactional))
+                .reduce(0, Integer::sum)
+                .doOnNext(rows -> log.info("Ocupação diária recalculada com {} dias.", rows));
+    }
+
+    private Mono<Integer> rebuild(Long enterpriseId) {
+        return databaseClient.sql(QUERY_LOCK_ENTERPRISE)
+                .bind("enterpriseId", enterpriseId)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .all()
+                .then(databaseClient.sql(QUERY_DELETE_OCCUPANCY_BY_ENTERPRISE_ID)
+                        .bind("enterpriseId", enterpriseId)
+                        .fetch()
+                        .rowsUpdated())
+                .thenMany(databaseClient.sql(QUERY_GET_SCHEDULES_BY_ENTERPRISE_ID)
+                        .bind("enterpriseId", enterpriseId)
+                        .map(R2dbcSupport.BOARD_SCHEDULE)
+                        .all())
+                .reduceWith(OccupancyDelta::new, (occupancy, schedule) ->
+                        occupancy.add(enterpriseId, schedule.getInitDate(), schedule.getEndDate(), 1))
+                .flatMap(occupancy -> Flux.fromIterable(occupancy.days(enterpriseId).entrySet())
+                        .concatMap(day -> databaseClient.sql(QUERY_INSERT_OCCUPANCY)
+                                .bind("enterpriseId", enterpriseId)
+                                .bind("day", day.getKey())
+                                .bind("delta", day.getValue())
+                                .fetch()
+                                .rowsUpdated())
+                        .count()
+                        .map(Long::intValue));
+    }
+
+    @Override
+    public Mono<EnterpriseCapacity> getCapacity(Long enterpriseId) {
+        return databaseClient.sql(QUERY_GET_CAPACITY_BY_ENTERPRISE_ID)
+                .bind("enterpriseId", enterpriseId)
+                .map(R2dbcSupport.ENTERPRISE_CAPACITY)
+                .first()
+                .onErrorMap(e -> {
+                    log.error("Erro ao acessar o banco :: Message - {}", e.getMessage());
+                    return new EnterpriseException(e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Void> setCapacity(Long enterpriseId, int maxHeadcount) {
+        return databaseClient.sql(QUERY_LOCK_ENTERPRISE)
+                .bind("enterpriseId", enterpriseId)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .first()
+                .switchIfEmpty(Mono.error(() -> new EnterpriseNotExistsException("Empresa com id = "+enterpriseId+" não existe.")))
+                .then(databaseClient.sql(QUERY_UPDATE_CAPACITY)
+                        .bind("enterpriseId", enterpriseId)
+                        .bind("maxHeadcount", maxHeadcount)
+                        .fetch()
+                        .rowsUpdated())
+                .flatMap(rows -> rows > 0 ? Mono.just(rows) : databaseClient.sql(QUERY_INSERT_CAPACITY)
+                        .bind("enterpriseId", enterpriseId)
+                        .bind("maxHeadcount", maxHeadcount)
+                        .fetch()
+                        .rowsUpdated())
+                .as(transactionalOperator::transactional)
+                .doOnNext(rows -> log.info("Limite de empregados a bordo da empresa id = {} definido em {}.", enterpriseId, maxHeadcount))
+                .then()
+                .doOnError(EnterpriseNotExistsException.class, e -> log.info(e.getMessage()))
+                .onErrorMap(e -> !(e instanceof EnterpriseNotExistsException), e -> {
+                    log.error("Erro ao definir o limite da empresa id = {} :: Messagem - {}", enterpriseId, e.getMessage());
+                    return new EnterpriseException("Erro ao definir o limite da empresa id = "+enterpriseId);
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteCapacity(Long enterpriseId) {
+        return databaseClient.sql(QUERY_DELETE_CAPACITY)
+                .bind("enterpriseId", enterpriseId)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(rows -> log.info("Limite de empregados a bordo da empresa id = {} removido.", enterpriseId))
+                .then()
+                .onErrorMap(e -> {
+                    log.error("Erro ao remover o limite da empresa id = {} :: Messagem - {}", enterpriseId, e.getMessage());
+                    return new EnterpriseException("Erro ao remover o limite da empresa id = "+enterpriseId);
+                });
+    }
+
+    /**
+     * Mesma estratégia da implementação JDBC: trava as empresas em ordem de id e carrega os limites e a ocupação
+     * gravada no período. Deve ser chamado dentro da transação da escrita.
+     */
+    Mono<CapacityLimits> lockCapacity(Map<Long, Long> enterpriseIdsByEmployee, Collection<Long> enterpriseIds,
+                                      LocalDate initDate, LocalDate endDate) {
+        if (enterpriseIds.isEmpty()) {
+            return Mono.just(CapacityLimits.none());
+        }
+        return databaseClient.sql(QUERY_LOCK_ENTERPRISES)
+                .bind("ids", enterpriseIds)
+                .map((row, metadata) -> R2dbcSupport.getLong(row, 0))
+                .all()
+                .thenMany(databaseClient.sql(QUERY_GET_CAPACITIES_BY_ENTERPRISE_IDS)
+                        .bind("ids", enterpriseIds)
+                        .map(R2dbcSupport.ENTERPRISE_CAPACITY)
+                        .all())
+                .collectMap(EnterpriseCapacity::getEnterpriseId, EnterpriseCapacity::getMaxHeadcount, HashMap::new)
+                .flatMap(maxHeadcounts -> maxHeadcounts.isEmpty()
+                        ? Mono.just(new CapacityLimits(enterpriseIdsByEmployee, maxHeadcounts, Collections.emptyList()))
+                        : databaseClient.sql(QUERY_GET_DAILY_OCCUPANCY_BY_ENTERPRISE_IDS)
+                                .bind("ids", maxHeadcounts.keySet())
+                                .bind("initDate", initDate)
+                                .bind("endDate", endDate)
+                                .map(R2dbcSupport.DAILY_OCCUPANCY)
+                                .all()
+                                .collectList()
+                                .map(occupancy -> new CapacityLimits(enterpriseIdsByEmployee, maxHeadcounts, occupancy)));
+    }
+
+    /**
+     * Empresa de cada empregado. Deve ser chamado com os empregados já travados, para que uma transferência
+     * concorrente não mude a empresa antes do commit. Empregados sem empresa ficam de fora.
+     */
+    Mono<Map<Long, Long>> enterpriseIdsByEmployee(Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return Mono.just(new HashMap<>());
+        }
+        return databaseClient.sql(QUERY_GET_ENTERPRISE_IDS_BY_EMPLOYEE_IDS)
+                .bind("ids", employeeIds)
+                .map((row, metadata) -> new SimpleImmutableEntry<>(R2dbcSupport.getLong(row, 0), R2dbcSupport.getLong(row, 1)))
+                .all()
+                .filter(entry -> entry.getValue() != null)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new);
+    }
+
+    /**
+     * Leva os agendamentos do empregado de uma empresa para a outra. Deve ser chamado com o empregado travado.
+     */
+    Mono<Void> transferEmployee(Long employeeId, Long fromEnterpriseId, Long toEnterpriseId) {
+        return databaseClient.sql(QUERY_GET_SCHEDULES_BY_EMPLOYEE_ID)
+                .bind("employeeId", employeeId)
+                .map(R2dbcSupport.BOARD_SCHEDULE)
+                .all()
+                .reduceWith(OccupancyDelta::new, (delta, schedule) -> delta
+                        .add(fromEnterpriseId, schedule.getInitDate(), schedule.getEndDate(), -1)
+                        .add(toEnterpriseId, schedule.getInitDate(), schedule.getEndDate(), 1))
+                .flatMap(this::apply);
+    }
+
+    /**
+     * Mesma estratégia da implementação JDBC: trava as empresas em ordem de id, verifica o limite e, para cada
+     * dia, faz o UPDATE e só insere a linha quando nenhuma foi atualizada. Deve ser chamado dentro da transação
+     * da escrita. Dias que chegam a zero são apagados.
+     */
+    Mono<Void> apply(OccupancyDelta delta) {
+        return checkCapacity(delta).then(write(delta));
+    }
+
+    /**
+     * Trava as empresas da variação e verifica o limite sem escrever nada.
+     */
+    Mono<Void> checkCapacity(OccupancyDelta delta) {
+        if (delta.isEmpty()) {
+            return Mono.empty();
+        }
+        return lockCapacity(Collections.emptyMap(), delta.enterpriseIds(), delta.firstDay(), delta.lastDay())
+                .doOnNext(capacity -> capacity.check(delta))
+                .then();
+    }
+
+    /**
+     * Grava uma variação já verificada por {@link #checkCapacity(OccupancyDelta)} na mesma transação.
+     */
+    Mono<Void> write(OccupancyDelta delta) {
+        return Flux.fromIterable(delta.enterpriseIds())
+                .concatMap(enterpriseId -> Flux.fromIterable(delta.days(enterpriseId).entrySet())
+                        .concatMap(day -> databaseClient.sql(QUERY_ADD_OCCUPANCY)
+                                .bind("enterpriseId", enterpriseId)
+                                .bind("day", day.getKey())
+                                .bind("delta", day.getValue())
+                                .fetch()
+                                .rowsUpdated()
+                                .flatMap(rows -> rows > 0 ? Mono.just(rows) : databaseClient.sql(QUERY_INSERT_OCCUPANCY)
+                                        .bind("enterpriseId", enterpriseId)
+                                        .bind("day", day.getKey())
+                                        .bind("delta", day.getValue())
+                                        .fetch()
+                                        .rowsUpdated()))
+                        .then(delta.decreases(enterpriseId)
+                                ? databaseClient.sql(QUERY_DELETE_EMPTY_OCCUPANCY)
+                                        .bind("enterpriseId", enterpriseId)
+                                        .bind("initDate", delta.days(enterpriseId).firstKey())
+                                        .bind("endDate", delta.days(enterpriseId).lastKey())
+                                        .fetch()
+                                        .rowsUpdated()
+                                : Mono.just(0)))
+                .then();
+    }
+}
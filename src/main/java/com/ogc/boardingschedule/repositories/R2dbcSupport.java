@@ -0,0 +1,93 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+/**
+ * Equivalente R2DBC dos {@link RowMappers}: lê as colunas pela posição (a partir de zero) nas mesmas consultas
+ * e compartilha o pool de cargos e nomes de empresa.
+ */
+final class R2dbcSupport {
+
+    static final BiFunction<Row, RowMetadata, BoardSchedule> BOARD_SCHEDULE = (row, metadata) -> new BoardSchedule(
+            getLong(row, 0),
+            getLong(row, 1),
+            getLocalDate(row, 2),
+            getLocalDate(row, 3));
+
+    static final BiFunction<Row, RowMetadata, BoardingDetail> BOARDING_DETAIL = (row, metadata) -> new BoardingDetail(
+            getLong(row, 0),
+            getLong(row, 3),
+            row.get(1, LocalDateTime.class),
+            row.get(2, LocalDateTime.class),
+            row.get(4, String.class),
+            RowMappers.intern(row.get(5, String.class)),
+            getLong(row, 6),
+            RowMappers.intern(row.get(7, String.class)));
+
+    static final BiFunction<Row, RowMetadata, Employee> EMPLOYEE = (row, metadata) -> new Employee(
+            getLong(row, 0),
+            row.get(1, String.class),
+            RowMappers.intern(row.get(2, String.class)),
+            getLong(row, 3));
+
+    static final BiFunction<Row, RowMetadata, EmployeeDetail> EMPLOYEE_DETAIL = (row, metadata) -> new EmployeeDetail(
+            getLong(row, 0),
+            row.get(1, String.class),
+            RowMappers.intern(row.get(2, String.class)),
+            getLong(row, 3),
+            RowMappers.intern(row.get(4, String.class)));
+
+    static final BiFunction<Row, RowMetadata, Enterprise> ENTERPRISE = (row, metadata) -> new Enterprise(
+            getLong(row, 0),
+            row.get(1, String.class));
+
+    static final BiFunction<Row, RowMetadata, CoverageGapSweep.Interval> ROLE_INTERVAL = (row, metadata) -> new CoverageGapSweep.Interval(
+            RowMappers.intern(row.get(0, String.class)),
+            getLocalDate(row, 1),
+            getLocalDate(row, 2));
+
+    static final BiFunction<Row, RowMetadata, DailyOccupancy> DAILY_OCCUPANCY = (row, metadata) -> new DailyOccupancy(
+            getLong(row, 0),
+            getLocalDate(row, 1),
+            getLong(row, 2).intValue());
+
+    static final BiFunction<Row, RowMetadata, EnterpriseCapacity> ENTERPRISE_CAPACITY = (row, metadata) -> new EnterpriseCapacity(
+            getLong(row, 0),
+            getLong(row, 1).intValue());
+
+    private R2dbcSupport() {
+    }
+
+    /**
+     * As colunas SERIAL chegam como Integer e os agregados como Long.
+     */
+    static Long getLong(Row row, int column) {
+        Number value = row.get(column, Number.class);
+        return value == null ? null : value.longValue();
+    }
+
+    static LocalDate getLocalDate(Row row, int column) {
+        LocalDateTime value = row.get(column, LocalDateTime.class);
+        return value == null ? null : value.toLocalDate();
+    }
+
+    /**
+     * O DatabaseClient exige o tipo para parâmetros nulos.
+     */
+    static GenericExecuteSpec bind(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RowMappers sem reflexão, lendo as colunas pela posição em que aparecem nas consultas dos repositórios.
+ * Cargos e nomes de empresa se repetem em quase todas as linhas e são compartilhados por um pool limitado.
+ */
+public final class RowMappers {
+
+    private static final int MAX_INTERNED = 10_000;
+    private static final Map<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    /** bs.id, bs.employee_id, bs.init_date, bs.end_date */
+    public static final RowMapper<BoardSchedule> BOARD_SCHEDULE = (rs, rowNum) -> new BoardSchedule(
+            getLong(rs, 1),
+            getLong(rs, 2),
+            getLocalDate(rs, 3),
+            getLocalDate(rs, 4));
+
+    /** bs.id, bs.init_date, bs.end_date, bs.employee_id, emp.name, emp.role, e.id, e.name */
+    public static final RowMapper<BoardingDetail> BOARDING_DETAIL = (rs, rowNum) -> new BoardingDetail(
+            getLong(rs, 1),
+            getLong(rs, 4),
+            getLocalDateTime(rs, 2),
+            getLocalDateTime(rs, 3),
+            rs.getString(5),
+            intern(rs.getString(6)),
+            getLong(rs, 7),
+            intern(rs.getString(8)));
+
+    /** emp.id, emp.name, emp.role, emp.enterprise_id */
+    public static final RowMapper<Employee> EMPLOYEE = (rs, rowNum) -> new Employee(
+            getLong(rs, 1),
+            rs.getString(2),
+            intern(rs.getString(3)),
+            getLong(rs, 4));
+
+    /** emp.id, emp.name, emp.role, emp.enterprise_id, e.name */
+    public static final RowMapper<EmployeeDetail> EMPLOYEE_DETAIL = (rs, rowNum) -> new EmployeeDetail(
+            getLong(rs, 1),
+            rs.getString(2),
+            intern(rs.getString(3)),
+            getLong(rs, 4),
+            intern(rs.getString(5)));
+
+    /** e.id, e.name */
+    public static final RowMapper<Enterprise> ENTERPRISE = (rs, rowNum) -> new Enterprise(
+            getLong(rs, 1),
+            rs.getString(2));
+
+    /** emp.role, bs.init_date, bs.end_date */
+    static final RowMapper<CoverageGapSweep.Interval> ROLE_INTERVAL = (rs, rowNum) -> new CoverageGapSweep.Interval(
+            intern(rs.getString(1)),
+            getLocalDate(rs, 2),
+            getLocalDate(rs, 3));
+
+    /** o.enterprise_id, o.occupied_on, o.headcount */
+    public static final RowMapper<DailyOccupancy> DAILY_OCCUPANCY = (rs, rowNum) -> new DailyOccupancy(
+            getLong(rs, 1),
+            getLocalDate(rs, 2),
+            rs.getInt(3));
+
+    /** c.enterprise_id, c.max_headcount */
+    public static final RowMapper<EnterpriseCapacity> ENTERPRISE_CAPACITY = (rs, rowNum) -> new EnterpriseCapacity(
+            getLong(rs, 1),
+            rs.getInt(2));
+
+    private RowMappers() {
+    }
+
+    static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String interned = INTERNED.get(value);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return value;
+        }
+        interned = INTERNED.putIfAbsent(value, value);
+        return interned == null ? value : interned;
+    }
+
+    private static Long getLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static LocalDateTime getLocalDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime();
+    }
+
+    private static LocalDate getLocalDate(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime().toLocalDate();
+    }
+}
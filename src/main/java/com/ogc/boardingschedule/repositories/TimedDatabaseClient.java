@@ -0,0 +1,152 @@
+package com.ogc.boardingschedule.repositories;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.StatementFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * DatabaseClient que mede em QueryMetrics cada consulta dos repositórios R2DBC, da assinatura até a última
+ * linha lida ou a contagem de linhas alteradas.
+ */
+public class TimedDatabaseClient implements DatabaseClient {
+
+    private final DatabaseClient delegate;
+    private final QueryMetrics queryMetrics;
+
+    public TimedDatabaseClient(DatabaseClient delegate, QueryMetrics queryMetrics) {
+        this.delegate = delegate;
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public ConnectionFactory getConnectionFactory() {
+        return delegate.getConnectionFactory();
+    }
+
+    @Override
+    public GenericExecuteSpec sql(String sql) {
+        return new TimedExecuteSpec(sql, delegate.sql(sql));
+    }
+
+    @Override
+    public GenericExecuteSpec sql(Supplier<String> sqlSupplier) {
+        return sql(sqlSupplier.get());
+    }
+
+    @Override
+    public <T> Mono<T> inConnection(Function<Connection, Mono<T>> action) {
+        return delegate.inConnection(action);
+    }
+
+    @Override
+    public <T> Flux<T> inConnectionMany(Function<Connection, Flux<T>> action) {
+        return delegate.inConnectionMany(action);
+    }
+
+    private final class TimedExecuteSpec implements GenericExecuteSpec {
+
+        private final String sql;
+        private final GenericExecuteSpec spec;
+
+        TimedExecuteSpec(String sql, GenericExecuteSpec spec) {
+            this.sql = sql;
+            this.spec = spec;
+        }
+
+        @Override
+        public GenericExecuteSpec bind(int index, Object value) {
+            return new TimedExecuteSpec(sql, spec.bind(index, value));
+        }
+
+        @Override
+        public GenericExecuteSpec bindNull(int index, Class<?> type) {
+            return new TimedExecuteSpec(sql, spec.bindNull(index, type));
+        }
+
+        @Override
+        public GenericExecuteSpec bind(String name, Object value) {
+            return new TimedExecuteSpec(sql, spec.bind(name, value));
+        }
+
+        @Override
+        public GenericExecuteSpec bindNull(String name, Class<?> type) {
+            return new TimedExecuteSpec(sql, spec.bindNull(name, type));
+        }
+
+        public GenericExecuteSpec filter(Function<? super Statement, ? extends Statement> filterFunction) {
+            return new TimedExecuteSpec(sql, spec.filter(filterFunction));
+        }
+
+        @Override
+        public GenericExecuteSpec filter(StatementFilterFunction filter) {
+            return new TimedExecuteSpec(sql, spec.filter(filter));
+        }
+
+        public <R> RowsFetchSpec<R> map(Function<Row, R> mappingFunction) {
+            return new TimedFetchSpec<>(sql, spec.map(mappingFunction));
+        }
+
+        @Override
+        public <R> RowsFetchSpec<R> map(BiFunction<Row, RowMetadata, R> mappingFunction) {
+            return new TimedFetchSpec<>(sql, spec.map(mappingFunction));
+        }
+
+        @Override
+        public FetchSpec<Map<String, Object>> fetch() {
+            return new TimedFetchSpec<>(sql, spec.fetch());
+        }
+
+        @Override
+        public Mono<Void> then() {
+            return queryMetrics.record(sql, spec.then());
+        }
+    }
+
+    /**
+     * Aceita tanto o RowsFetchSpec de {@code map} quanto o FetchSpec de {@code fetch}; {@code rowsUpdated} só é
+     * chamado no segundo caso.
+     */
+    private final class TimedFetchSpec<T> implements FetchSpec<T> {
+
+        private final String sql;
+        private final RowsFetchSpec<T> spec;
+
+        TimedFetchSpec(String sql, RowsFetchSpec<T> spec) {
+            this.sql = sql;
+            this.spec = spec;
+        }
+
+        @Override
+        public Mono<T> one() {
+            return queryMetrics.record(sql, spec.one());
+        }
+
+        @Override
+        public Mono<T> first() {
+            return queryMetrics.record(sql, spec.first());
+        }
+
+        @Override
+        public Flux<T> all() {
+            return queryMetrics.record(sql, spec.all());
+        }
+
+        @Override
+        public Mono<Integer> rowsUpdated() {
+            return queryMetrics.record(sql, ((FetchSpec<T>) spec).rowsUpdated());
+        }
+    }
+}
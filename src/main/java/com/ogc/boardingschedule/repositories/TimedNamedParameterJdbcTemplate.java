@@ -0,0 +1,114 @@
+package com.ogc.boardingschedule.repositories;
+
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * NamedParameterJdbcTemplate que mede cada chamada em QueryMetrics. Substitui o template criado pelo Spring Boot;
+ * as sobrecargas com Map e com tipo de retorno passam pelos métodos abaixo, e nenhum deles chama outro, então cada
+ * execução é medida uma única vez.
+ */
+@Component
+public class TimedNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+
+    private final QueryMetrics queryMetrics;
+
+    public TimedNamedParameterJdbcTemplate(JdbcTemplate jdbcTemplate, QueryMetrics queryMetrics) {
+        super(jdbcTemplate);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public <T> T execute(String sql, SqlParameterSource paramSource, PreparedStatementCallback<T> action) {
+        return queryMetrics.record(sql, () -> super.execute(sql, paramSource, action));
+    }
+
+    @Override
+    public <T> T query(String sql, SqlParameterSource paramSource, ResultSetExtractor<T> rse) {
+        return queryMetrics.record(sql, () -> super.query(sql, paramSource, rse));
+    }
+
+    @Override
+    public void query(String sql, SqlParameterSource paramSource, RowCallbackHandler rch) {
+        queryMetrics.record(sql, () -> {
+            super.query(sql, paramSource, rch);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+        return queryMetrics.record(sql, () -> super.query(sql, paramSource, rowMapper));
+    }
+
+    @Override
+    public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+        return queryMetrics.record(sql, () -> super.queryForObject(sql, paramSource, rowMapper));
+    }
+
+    @Override
+    public SqlRowSet queryForRowSet(String sql, SqlParameterSource paramSource) {
+        return queryMetrics.record(sql, () -> super.queryForRowSet(sql, paramSource));
+    }
+
+    @Override
+    public int update(String sql, SqlParameterSource paramSource) {
+        return queryMetrics.record(sql, () -> super.update(sql, paramSource));
+    }
+
+    @Override
+    public int update(String sql, SqlParameterSource paramSource, KeyHolder generatedKeyHolder, String[] keyColumnNames) {
+        return queryMetrics.record(sql, () -> super.update(sql, paramSource, generatedKeyHolder, keyColumnNames));
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+        return queryMetrics.record(sql, () -> super.batchUpdate(sql, batchArgs));
+    }
+
+    /**
+     * Batch que devolve em {@code generatedKeyHolder} as chaves geradas de cada linha, na ordem do lote, como o
+     * update com KeyHolder faz para uma linha só. O NamedParameterJdbcTemplate desta versão do Spring não tem essa
+     * sobrecarga; o comando é o mesmo para todas as linhas, então basta um PreparedStatement.
+     */
+    public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs, KeyHolder generatedKeyHolder, String[] keyColumnNames) {
+        generatedKeyHolder.getKeyList().clear();
+        if (batchArgs.length == 0) {
+            return new int[0];
+        }
+        return queryMetrics.record(sql, () -> {
+            ParsedSql parsedSql = getParsedSql(sql);
+            PreparedStatementCreatorFactory factory = getPreparedStatementCreatorFactory(parsedSql, batchArgs[0]);
+            factory.setGeneratedKeysColumnNames(keyColumnNames);
+            Object[] first = NamedParameterUtils.buildValueArray(parsedSql, batchArgs[0], null);
+            return getJdbcOperations().execute(factory.newPreparedStatementCreator(first), (PreparedStatement ps) -> {
+                for (SqlParameterSource args : batchArgs) {
+                    factory.newPreparedStatementSetter(NamedParameterUtils.buildValueArray(parsedSql, args, null)).setValues(ps);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    generatedKeyHolder.getKeyList().addAll(new RowMapperResultSetExtractor<>(new ColumnMapRowMapper()).extractData(keys));
+                }
+                return counts;
+            });
+        });
+    }
+}
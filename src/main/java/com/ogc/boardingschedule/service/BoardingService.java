@@ -1,66 +1,113 @@
 package com.ogc.boardingschedule.service;
 
+import com.ogc.boardingschedule.domain.AvailableEmployees;
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingAvailability;
 import com.ogc.boardingschedule.domain.BoardingDetail;
-import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.BoardingStatus;
+import com.ogc.boardingschedule.domain.BoardingWindow;
+import com.ogc.boardingschedule.domain.CoverageGap;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
 import com.ogc.boardingschedule.exceptions.*;
+import com.ogc.boardingschedule.index.AvailabilityIndex;
+import com.ogc.boardingschedule.index.BoardingIntervalIndex;
 import com.ogc.boardingschedule.repositories.BoardingRepository;
+import com.ogc.boardingschedule.repositories.EmployeeRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class BoardingService {
 
+    public static final int BOARDING_DAYS = BoardingIntervalIndex.BOARDING_DAYS;
+    public static final int MAX_FREE_WINDOWS = 100;
+
     private final BoardingRepository boardingRepository;
+    private final EmployeeRepository employeeRepository;
+    private final BoardingIntervalIndex boardingIntervalIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final BusinessMetrics businessMetrics;
 
-    public BoardingService(BoardingRepository boardingRepository) {
+    public BoardingService(BoardingRepository boardingRepository,
+                           EmployeeRepository employeeRepository,
+                           BoardingIntervalIndex boardingIntervalIndex,
+                           AvailabilityIndex availabilityIndex,
+                           BusinessMetrics businessMetrics) {
         this.boardingRepository = boardingRepository;
+        this.employeeRepository = employeeRepository;
+        this.boardingIntervalIndex = boardingIntervalIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.businessMetrics = businessMetrics;
     }
 
     public Mono<Void> insertNewBoarding(Long employeeId, LocalDate initDate) {
-        LocalDate endDate = initDate.plusDays(15);
+        LocalDate endDate = initDate.plusDays(BOARDING_DAYS);
         log.info("Preparando agendando empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
-        EmployeeDetail empty = new EmployeeDetail(null, null, null, null, null);
-        BoardingDetail boardingEmpty = new BoardingDetail();
-
 
         if (initDate.isBefore(LocalDate.now())){
             log.info("Data de agendamento inválida {}", initDate);
-            return Mono.error(new WrongInitDateException("Não pode agendar embarque para o passado data = "+initDate));
+            return rejected(new WrongInitDateException("Não pode agendar embarque para o passado data = "+initDate));
         }
 
-        return boardingRepository
-                .getEmployeeInDayOff(employeeId, initDate)
-                .defaultIfEmpty(empty)
-                .flatMap(item -> {
-                    if (item.getId() == null){
-                        return boardingRepository.getEmployeeOnBoard(employeeId,initDate)
-                               .defaultIfEmpty(boardingEmpty)
-                               .flatMap(onboard -> {
-                                   if(onboard.getId() == null){
-                                       log.info("Agendando empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
-                                       return boardingRepository
-                                               .getEmployeeRepository()
-                                               .getEmployeeDetailById(employeeId)
-                                               .defaultIfEmpty(empty)
-                                               .flatMap( emp -> {
-                                                   if (emp.getId() == null){
-                                                       log.info("Empregado com id = {} não existe.", employeeId);
-                                                       return Mono.error(new EmployeeNotExistsException("Empregado com id = "+employeeId+" não existe."));
-                                                   }
-                                                   return boardingRepository.insertNewBoarding(employeeId, initDate, endDate);
-                                               });
-                                   }
-                                   return Mono.error(new EmployeeOnBoardException("Empregado id = "+employeeId+" já  está embarcado."));
-                               });
-                    }
+        if (boardingIntervalIndex.findInDayOff(employeeId, initDate).isPresent()){
+            log.info("Empregado id = {} está em período de folga no dia {}.", employeeId, initDate);
+            return rejected(new EmployeeInDayOffException("Empregado id = "+employeeId+" está em período de folga"));
+        }
 
-                    return Mono.error(new EmployeeInDayOffException("Empregado id = "+employeeId+" está em período de folga"));
+        if (boardingIntervalIndex.findOnBoard(employeeId, initDate).isPresent()){
+            log.info("Empregado id = {} já está embarcado no dia {}.", employeeId, initDate);
+            return rejected(new EmployeeOnBoardException("Empregado id = "+employeeId+" já  está embarcado."));
+        }
+
+        log.info("Agendando empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
+        return Mono.defer(() -> boardingRepository.insertNewBoarding(employeeId, initDate, endDate))
+                .doOnError(businessMetrics::record);
+    }
+
+    public Mono<List<BoardingResult>> insertNewBoardings(List<BoardingRequest> requests) {
+        log.info("Preparando agendamento em lote de {} embarques.", requests.size());
+        LocalDate today = LocalDate.now();
+        BoardingResult[] results = new BoardingResult[requests.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<BoardSchedule> schedules = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            BoardingRequest request = requests.get(i);
+            LocalDate initDate = request.getInitDate();
+            if (initDate == null || initDate.isBefore(today)) {
+                results[i] = BoardingResult.builder()
+                        .employeeId(request.getEmployeeId())
+                        .initDate(initDate)
+                        .status(BoardingStatus.WRONG_INIT_DATE)
+                        .message("Não pode agendar embarque para o passado data = "+initDate)
+                        .build();
+            } else {
+                positions.add(i);
+                schedules.add(new BoardSchedule(null, request.getEmployeeId(), initDate, initDate.plusDays(BOARDING_DAYS)));
+            }
+        }
 
+        return boardingRepository.insertNewBoardings(schedules)
+                .map(created -> {
+                    for (int i = 0; i < created.size(); i++) {
+                        results[positions.get(i)] = created.get(i);
+                    }
+                    for (BoardingResult result : results) {
+                        businessMetrics.record(result.getStatus());
+                    }
+                    return Arrays.asList(results);
                 });
     }
 
@@ -69,6 +116,22 @@ public class BoardingService {
         return boardingRepository.getBoardings();
     }
 
+    public Flux<BoardingDetail> streamBoardings() {
+        log.info("Exportando todos os agendamentos em streaming.");
+        return boardingRepository.streamBoardings();
+    }
+
+    public Flux<BoardingDetail> streamBoardingsByEnterpriseId(Long id) {
+        log.info("Exportando em streaming os agendamentos da empresa id = {}.", id);
+        return boardingRepository.streamBoardingByEnterpriseId(id);
+    }
+
+    public Mono<Page<BoardingDetail>> getBoardingsPage(String next, Integer limit) {
+        log.info("Buscando página de agendamentos a partir do cursor {}.", next);
+        return Mono.fromCallable(() -> PageCursor.decodeByInitDate(next))
+                .flatMap(cursor -> boardingRepository.getBoardingsPage(cursor, PageCursor.limit(limit)));
+    }
+
     public Flux<BoardingDetail> getBoardingsByEmployeeId(Long id) {
         log.info("Buscando todos os agendamentos do empregado id = {}.", id);
         return boardingRepository.getBoardingByEmployeeId(id);
@@ -79,62 +142,85 @@ public class BoardingService {
         return boardingRepository.getBoardingByEnterpriseId(id);
     }
 
+    public Mono<Page<BoardingDetail>> getBoardingsPageByEnterpriseId(Long id, String next, Integer limit) {
+        log.info("Buscando página de agendamentos da empresa id = {} a partir do cursor {}.", id, next);
+        return Mono.fromCallable(() -> PageCursor.decodeByInitDate(next))
+                .flatMap(cursor -> boardingRepository.getBoardingPageByEnterpriseId(id, cursor, PageCursor.limit(limit)));
+    }
+
     public Mono<Void> deleteBoardingScheduleById(Long id){
         log.info("Apagando agendamento de embarque de id {}.", id);
-        return boardingRepository.deleteBordingScheduleById(id);
+        return boardingRepository.deleteBordingScheduleById(id)
+                .doOnError(businessMetrics::record);
     }
 
     public Mono<Void> updateBoardingSchedule(Long id, Long employeeId, LocalDate initDate){
         log.info("Atualizando agendamento de embarque de id {}.", id);
-        LocalDate endDate = initDate.plusDays(15);
-
-        EmployeeDetail empty = new EmployeeDetail();
-        BoardingDetail emptyBoarding = new BoardingDetail();
+        LocalDate endDate = initDate.plusDays(BOARDING_DAYS);
 
         if (initDate.isBefore(LocalDate.now())){
             log.info("Data de agendamento inválida {}", initDate);
-            return Mono.error(new WrongInitDateException("Não pode agendar embarque para o passado data = "+initDate));
+            return rejected(new WrongInitDateException("Não pode agendar embarque para o passado data = "+initDate));
         }
 
-        return boardingRepository
-                .getEmployeeRepository()
-                .getEmployeeDetailById(employeeId)
-                .defaultIfEmpty(empty)
-                .flatMap(emp -> {
-                    if (emp.getId() == null){
-                        log.info("Empregado com id = {} não existe.", employeeId);
-                        return Mono.error(new EmployeeNotExistsException("Empregado com id = "+employeeId+" não existe."));
-                    }
-                    return boardingRepository
-                            .getEmployeeInDayOff(employeeId, initDate)
-                            .defaultIfEmpty(empty)
-                            .flatMap(item -> {
-                                if (item.getId() == null){
-
-                                    return boardingRepository.getEmployeeOnBoard(employeeId,initDate)
-                                            .defaultIfEmpty(emptyBoarding)
-                                            .flatMap(onboard -> {
-                                                if(onboard.getId() == null || onboard.equals(id)){
-                                                    log.info("Agendando empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
-                                                    return boardingRepository.updateBoardingSchedule(id, employeeId, initDate, endDate)
-                                                            .doOnError(e -> {
-                                                                log.info("Erro no agendamento do empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
-                                                            })
-                                                            .onErrorResume(e -> {
-                                                                return Mono.error(e);
-                                                            });
-                                                }
-                                                return Mono.error(new EmployeeOnBoardException("Empregado id = "+employeeId+" já  está embarcado."));
-                                            });
-                                }
-
-                                return Mono.error(new EmployeeInDayOffException("Empregado id = "+employeeId+" está em período de folga"));
-                    });
+        if (boardingIntervalIndex.findInDayOff(employeeId, initDate, id).isPresent()){
+            return rejected(new EmployeeInDayOffException("Empregado id = "+employeeId+" está em período de folga"));
+        }
 
+        if (boardingIntervalIndex.findOnBoard(employeeId, initDate, id).isPresent()){
+            return rejected(new EmployeeOnBoardException("Empregado id = "+employeeId+" já  está embarcado."));
+        }
 
+        log.info("Agendando empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
+        return Mono.defer(() -> boardingRepository.updateBoardingSchedule(id, employeeId, initDate, endDate))
+                .doOnError(businessMetrics::record)
+                .doOnError(e -> {
+                    log.info("Erro no agendamento do empregado id = {} para embarque no dia {} e saída {}.", employeeId, initDate, endDate);
                 });
     }
 
+    /**
+     * Primeira data a partir de {@code fromDate} (ou de hoje, se for passada) aceita por insertNewBoarding e as
+     * próximas janelas livres, calculadas no índice em memória sem consultar o banco. O empregado é conferido
+     * pelo EmployeeRepository, normalmente no cache, e um id inexistente falha com EmployeeNotExistsException.
+     */
+    public Mono<BoardingAvailability> getBoardingAvailability(Long employeeId, LocalDate fromDate, Integer windows){
+        int limit = windows == null ? 1 : windows;
+        if (limit < 1 || limit > MAX_FREE_WINDOWS) {
+            return Mono.error(new BoardingException("Quantidade de janelas deve estar entre 1 e "+MAX_FREE_WINDOWS));
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = fromDate.isBefore(today) ? today : fromDate;
+        log.info("Buscando as {} próximas janelas de embarque do empregado id = {} a partir de {}.", limit, employeeId, from);
+        return employeeRepository.getEmployeeDetailById(employeeId)
+                .map(employee -> {
+                    List<BoardingWindow> free = boardingIntervalIndex.findFreeWindows(employeeId, from, limit);
+                    return new BoardingAvailability(employeeId, free.get(0).getInitDate(), free);
+                })
+                .doOnError(businessMetrics::record);
+    }
+
+    /**
+     * Empregados que podem embarcar no dia, opcionalmente só do cargo e da empresa informados, respondidos
+     * pelos bitmaps do AvailabilityIndex sem consultar o banco.
+     */
+    public Mono<AvailableEmployees> getAvailableEmployees(LocalDate initDate, String role, Long enterpriseId){
+        if (initDate.isBefore(LocalDate.now())){
+            return Mono.error(new WrongInitDateException("Não pode agendar embarque para o passado data = "+initDate));
+        }
+        log.info("Buscando os empregados livres para embarque no dia {} com cargo {} e empresa id = {}.", initDate, role, enterpriseId);
+        return Mono.fromSupplier(() -> {
+            List<Long> employeeIds = Arrays.stream(availabilityIndex.findAvailable(initDate, role, enterpriseId))
+                    .mapToObj(Long::valueOf)
+                    .collect(Collectors.toList());
+            return new AvailableEmployees(initDate, role, enterpriseId, employeeIds.size(), employeeIds);
+        });
+    }
+
+    private <T> Mono<T> rejected(RuntimeException error) {
+        return Mono.<T>error(error).doOnError(businessMetrics::record);
+    }
+
     public Flux<BoardingDetail> getBoardingScheduleBetweenDates(LocalDate initDate, LocalDate endDate){
         if (initDate.isAfter(endDate)){
             return Flux.error(new BoardingException("Data de início "+initDate+" maior que data fim "+endDate));
@@ -142,6 +228,14 @@ public class BoardingService {
         log.info("Buscando todos os empregados embarcados no período entre {} e {}.", initDate, endDate);
         return boardingRepository.getBoardingScheduleBetweenDates(initDate, endDate);
     }
+
+    public Flux<CoverageGap> streamCoverageGapsByEnterpriseId(Long id, LocalDate initDate, LocalDate endDate){
+        if (initDate.isAfter(endDate)){
+            return Flux.error(new BoardingException("Data de início "+initDate+" maior que data fim "+endDate));
+        }
+        log.info("Calculando as lacunas de cobertura por cargo da empresa id = {} entre {} e {}.", id, initDate, endDate);
+        return boardingRepository.streamCoverageGapsByEnterpriseId(id, initDate, endDate);
+    }
     /*
     public Flux<EmployeeDetail> getEmployeesDetail(){
         log.info("Buscando todos os empregados com detalhes.");
@@ -0,0 +1,85 @@
+package com.ogc.boardingschedule.service;
+
+import com.ogc.boardingschedule.domain.BoardingStatus;
+import com.ogc.boardingschedule.exceptions.BoardingScheduleNotExistsException;
+import com.ogc.boardingschedule.exceptions.EmployeeInDayOffException;
+import com.ogc.boardingschedule.exceptions.EmployeeNotExistsException;
+import com.ogc.boardingschedule.exceptions.EmployeeOnBoardException;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import com.ogc.boardingschedule.exceptions.WrongInitDateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores dos resultados de negócio: {@code boarding.rejections} por motivo (folga, embarcado, limite da
+ * empresa, data no passado) e {@code boarding.not.found} por entidade. Alimentados pelos serviços onde o resultado
+ * acontece: o agendamento em lote item a item e as demais operações pelo erro que devolvem, então as chamadas
+ * individuais contam da mesma forma pelo HTTP, pelo WebFlux ou por outro serviço.
+ */
+@Component
+public class BusinessMetrics {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String ENTERPRISE = "enterprise";
+    public static final String BOARDING_SCHEDULE = "boarding_schedule";
+
+    static final String REJECTIONS = "boarding.rejections";
+    static final String NOT_FOUND = "boarding.not.found";
+
+    private final MeterRegistry meterRegistry;
+
+    public BusinessMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Conta o status de um agendamento; {@code CREATED} não é contado e empregado inexistente vai para
+     * {@code boarding.not.found}.
+     */
+    public void record(BoardingStatus status) {
+        switch (status) {
+            case CREATED:
+                return;
+            case EMPLOYEE_NOT_EXISTS:
+                notFound(EMPLOYEE);
+                return;
+            default:
+                Counter.builder(REJECTIONS)
+                        .description("Agendamentos de embarque rejeitados pelas regras de negócio")
+                        .tag("reason", status.name().toLowerCase())
+                        .register(meterRegistry)
+                        .increment();
+        }
+    }
+
+    /**
+     * Conta o erro de uma operação quando é rejeição de agendamento ou registro inexistente; os demais são ignorados.
+     */
+    public void record(Throwable error) {
+        if (error instanceof EmployeeInDayOffException) {
+            record(BoardingStatus.EMPLOYEE_IN_DAY_OFF);
+        } else if (error instanceof EmployeeOnBoardException) {
+            record(BoardingStatus.EMPLOYEE_ON_BOARD);
+        } else if (error instanceof WrongInitDateException) {
+            record(BoardingStatus.WRONG_INIT_DATE);
+        } else if (error instanceof EnterpriseCapacityExceededException) {
+            record(BoardingStatus.CAPACITY_EXCEEDED);
+        } else if (error instanceof EmployeeNotExistsException) {
+            notFound(EMPLOYEE);
+        } else if (error instanceof EnterpriseNotExistsException) {
+            notFound(ENTERPRISE);
+        } else if (error instanceof BoardingScheduleNotExistsException) {
+            notFound(BOARDING_SCHEDULE);
+        }
+    }
+
+    public void notFound(String entity) {
+        Counter.builder(NOT_FOUND)
+                .description("Buscas e alterações de registros que não existem")
+                .tag("entity", entity)
+                .register(meterRegistry)
+                .increment();
+    }
+}
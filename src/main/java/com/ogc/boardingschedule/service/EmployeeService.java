@@ -1,23 +1,55 @@
 package com.ogc.boardingschedule.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ogc.boardingschedule.domain.Employee;
 import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.EmployeeImportError;
+import com.ogc.boardingschedule.domain.EmployeeImportReport;
 import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
 import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
 import com.ogc.boardingschedule.repositories.EmployeeRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class EmployeeService {
 
+    private static final List<String> CSV_HEADER = Arrays.asList("name", "role", "enterpriseid");
+
     private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+    private final int importChunkSize;
+    private final BusinessMetrics businessMetrics;
 
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${boarding.import.chunk-size:1000}") int importChunkSize,
+                           BusinessMetrics businessMetrics) {
         this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+        this.importChunkSize = importChunkSize;
+        this.businessMetrics = businessMetrics;
     }
 
 
@@ -40,7 +72,130 @@ public class EmployeeService {
                         log.info("Empresa com id = {} não existe.",  enterpriseId);
                         return Mono.error(new EnterpriseNotExistsException("Empresa com id = "+enterpriseId+" não existe."));
                     }
-                });
+                })
+                .doOnError(businessMetrics::record);
+    }
+
+    /**
+     * Importa a partir do corpo da requisição no modo servlet. A leitura bloqueia enquanto o upload chega, então
+     * as linhas são lidas em threads do boundedElastic e não nas do bulkhead de escrita, dimensionadas pelo pool
+     * de conexões.
+     */
+    public Mono<EmployeeImportReport> importEmployees(InputStream input, MediaType contentType) {
+        return importEmployees(Flux.using(
+                () -> new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)),
+                reader -> Flux.fromStream(reader.lines()),
+                this::closeReader)
+                .subscribeOn(Schedulers.boundedElastic()), contentType);
+    }
+
+    /**
+     * Importa a partir das linhas do arquivo já decodificadas, como as entregues pelo WebFlux sem bloquear
+     * a leitura do corpo da requisição.
+     */
+    public Mono<EmployeeImportReport> importEmployees(Flux<String> lines, MediaType contentType) {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        log.info("Importando empregados no formato {}.", ndjson ? "NDJSON" : "CSV");
+        EmployeeImportReport report = new EmployeeImportReport(0, 0, new ArrayList<>());
+
+        return employeeRepository
+                .getEnterpriseRepository()
+                .getCompanyIds()
+                .flatMap(enterpriseIds -> lines
+                        .index((index, line) -> Tuples.of(index + 1, line))
+                        .filter(line -> !line.getT2().trim().isEmpty())
+                        .<Tuple2<Long, Employee>>handle((line, sink) -> {
+                            if (!ndjson && line.getT1() == 1 && isCsvHeader(line.getT2())) {
+                                return;
+                            }
+                            report.setRead(report.getRead() + 1);
+                            try {
+                                sink.next(Tuples.of(line.getT1(), parseEmployee(line.getT2(), ndjson, enterpriseIds)));
+                            } catch (Exception e) {
+                                report.getErrors().add(new EmployeeImportError(line.getT1(), e.getMessage()));
+                            }
+                        })
+                        .buffer(importChunkSize)
+                        .concatMap(chunk -> employeeRepository
+                                .insertNewEmployees(chunk.stream().map(Tuple2::getT2).collect(Collectors.toList()))
+                                .doOnNext(count -> report.setImported(report.getImported() + count))
+                                .onErrorResume(e -> {
+                                    chunk.forEach(line -> report.getErrors().add(new EmployeeImportError(line.getT1(), e.getMessage())));
+                                    return Mono.empty();
+                                }))
+                        .then(Mono.fromSupplier(() -> {
+                            log.info("Importação concluída: {} linhas lidas, {} empregados inseridos e {} erros.",
+                                    report.getRead(), report.getImported(), report.getErrors().size());
+                            return report;
+                        })));
+    }
+
+    private Employee parseEmployee(String line, boolean ndjson, Set<Long> enterpriseIds) throws IOException {
+        Employee employee;
+        if (ndjson) {
+            employee = objectMapper.readValue(line, Employee.class);
+        } else {
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() != 3) {
+                throw new IllegalArgumentException("Linha deve conter name,role,enterpriseId.");
+            }
+            try {
+                employee = new Employee(null, fields.get(0).trim(), fields.get(1).trim(), Long.valueOf(fields.get(2).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Id de empresa inválido "+fields.get(2)+".");
+            }
+        }
+
+        if (employee.getName() == null || employee.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome do empregado é obrigatório.");
+        }
+        if (!enterpriseIds.contains(employee.getEnterpriseId())) {
+            throw new IllegalArgumentException("Empresa com id = "+employee.getEnterpriseId()+" não existe.");
+        }
+        return employee;
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return parseCsvLine(line).stream()
+                .map(field -> field.trim().toLowerCase())
+                .collect(Collectors.toList())
+                .equals(CSV_HEADER);
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append(c);
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void closeReader(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.error("Erro ao fechar o arquivo de importação :: Message - {}", e.getMessage());
+        }
     }
 
     public Flux<Employee> getEmployees() {
@@ -48,24 +203,47 @@ public class EmployeeService {
         return employeeRepository.getEmployees();
     }
 
+    public Mono<Page<Employee>> getEmployeesPage(String next, Integer limit) {
+        log.info("Buscando página de empregados a partir do cursor {}.", next);
+        return Mono.fromCallable(() -> PageCursor.decodeById(next))
+                .flatMap(cursor -> employeeRepository.getEmployeesPage(cursor, PageCursor.limit(limit)));
+    }
+
     public Flux<EmployeeDetail> getEmployeesDetail(){
         log.info("Buscando todos os empregados com detalhes.");
         return employeeRepository.getEmployeesDetail();
     }
 
+    public Flux<EmployeeDetail> streamEmployeesDetail(){
+        log.info("Exportando todos os empregados com detalhes em streaming.");
+        return employeeRepository.streamEmployeesDetail();
+    }
+
+    public Mono<Page<EmployeeDetail>> getEmployeesDetailPage(String next, Integer limit){
+        log.info("Buscando página de empregados com detalhes a partir do cursor {}.", next);
+        return Mono.fromCallable(() -> PageCursor.decodeById(next))
+                .flatMap(cursor -> employeeRepository.getEmployeesDetailPage(cursor, PageCursor.limit(limit)));
+    }
+
     public Flux<EmployeeDetail> getEmployeeDetailByName(String name){
+        return getEmployeeDetailByName(name, null, false);
+    }
+
+    public Flux<EmployeeDetail> getEmployeeDetailByName(String name, Integer limit, boolean fuzzy){
         log.info("Buscando o empregado com nome {}.", name);
-        return employeeRepository.getEmployeeDetailByName(name);
+        return employeeRepository.getEmployeeDetailByName(name, PageCursor.limit(limit), fuzzy);
     }
 
     public Mono<EmployeeDetail> getEmployeeDetailById(Long id){
         log.info("Buscando o empregado com id = {}.", id);
-        return employeeRepository.getEmployeeDetailById(id);
+        return employeeRepository.getEmployeeDetailById(id)
+                .doOnError(businessMetrics::record);
     }
 
     public Mono<Void> deleteEmployeeById(Long id){
         log.info("Apagando empregado de id {}.", id);
-        return employeeRepository.deleteEmployeeById(id);
+        return employeeRepository.deleteEmployeeById(id)
+                .doOnError(businessMetrics::record);
     }
 
     public Mono<Void> updateEmployee(Long id, String name, String role, Long enterpriseId){
@@ -88,6 +266,7 @@ public class EmployeeService {
                         log.info("Empresa com id = {} não existe.",  enterpriseId);
                         return Mono.error(new EnterpriseNotExistsException("Empresa com id = "+enterpriseId+" não existe."));
                     }
-                });
+                })
+                .doOnError(businessMetrics::record);
     }
 }
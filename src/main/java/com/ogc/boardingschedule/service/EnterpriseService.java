@@ -1,6 +1,8 @@
 package com.ogc.boardingschedule.service;
 
 import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
 import com.ogc.boardingschedule.exceptions.EnterpriseExistsException;
 import com.ogc.boardingschedule.repositories.EnterpriseRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -13,19 +15,23 @@ import reactor.core.publisher.Mono;
 public class EnterpriseService {
 
     private final EnterpriseRepository enterpriseRepository;
+    private final BusinessMetrics businessMetrics;
 
-    public EnterpriseService(EnterpriseRepository enterpriseRepository) {
+    public EnterpriseService(EnterpriseRepository enterpriseRepository, BusinessMetrics businessMetrics) {
         this.enterpriseRepository = enterpriseRepository;
+        this.businessMetrics = businessMetrics;
     }
 
 
     public Mono<Void> insertCompany(String name) {
-        if (enterpriseRepository.alreadyExists(name)) {
-            log.info("Empresa {} já existe.", name);
-            return Mono.error(new EnterpriseExistsException("Empresa "+name+" já existe."));
-        }
         log.info("Inserindo empresa {}.", name);
-        return enterpriseRepository.insertNewCompany(name);
+        return enterpriseRepository.insertNewCompany(name)
+                .flatMap(created -> {
+                    if (!created) {
+                        return Mono.error(new EnterpriseExistsException("Empresa "+name+" já existe."));
+                    }
+                    return Mono.empty();
+                });
     }
 
     public Flux<Enterprise> getCompanies() {
@@ -33,23 +39,33 @@ public class EnterpriseService {
         return enterpriseRepository.getCompanies();
     }
 
+    public Mono<Page<Enterprise>> getCompaniesPage(String next, Integer limit) {
+        log.info("Buscando página de empresas a partir do cursor {}.", next);
+        return Mono.fromCallable(() -> PageCursor.decodeById(next))
+                .flatMap(cursor -> enterpriseRepository.getCompaniesPage(cursor, PageCursor.limit(limit)));
+    }
+
     public Mono<Enterprise> getCompanyByName(String name) {
         log.info("Buscando empresa {}.", name);
-        return enterpriseRepository.getCompanyByName(name);
+        return enterpriseRepository.getCompanyByName(name)
+                .doOnError(businessMetrics::record);
     }
 
     public Mono<Enterprise> getCompanyById(Long id) {
         log.info("Buscando empresa de id {}.", id);
-        return enterpriseRepository.getCompanyById(id);
+        return enterpriseRepository.getCompanyById(id)
+                .doOnError(businessMetrics::record);
     }
 
     public Mono<Void> deleteCompanyById(Long id) {
         log.info("Apagando empresa de id {}.", id);
-        return enterpriseRepository.deleteCompanyById(id);
+        return enterpriseRepository.deleteCompanyById(id)
+                .doOnError(businessMetrics::record);
     }
 
     public Mono<Void> updateCompany(Long id, String name) {
         log.info("Atualizando empresa de id {} e nome {}.", id, name);
-        return enterpriseRepository.updateCompany(id, name);
+        return enterpriseRepository.updateCompany(id, name)
+                .doOnError(businessMetrics::record);
     }
 }
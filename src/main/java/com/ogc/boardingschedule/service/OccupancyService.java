@@ -0,0 +1,82 @@
+package com.ogc.boardingschedule.service;
+
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.EnterpriseCapacity;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.EnterpriseException;
+import com.ogc.boardingschedule.repositories.OccupancyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@Slf4j
+public class OccupancyService {
+
+    private final OccupancyRepository occupancyRepository;
+    private final BusinessMetrics businessMetrics;
+
+    public OccupancyService(OccupancyRepository occupancyRepository, BusinessMetrics businessMetrics) {
+        this.occupancyRepository = occupancyRepository;
+        this.businessMetrics = businessMetrics;
+    }
+
+    /**
+     * Um item por dia do período, com zero nos dias sem ninguém a bordo.
+     */
+    public Flux<DailyOccupancy> getDailyOccupancy(Long enterpriseId, LocalDate initDate, LocalDate endDate) {
+        if (initDate.isAfter(endDate)){
+            return Flux.error(new BoardingException("Data de início "+initDate+" maior que data fim "+endDate));
+        }
+        log.info("Buscando a ocupação diária da empresa id = {} entre {} e {}.", enterpriseId, initDate, endDate);
+        return occupancyRepository.getDailyOccupancy(enterpriseId, initDate, endDate)
+                .collectMap(DailyOccupancy::getDay, DailyOccupancy::getCount)
+                .flatMapMany(counts -> Flux.range(0, (int) ChronoUnit.DAYS.between(initDate, endDate) + 1)
+                        .map(initDate::plusDays)
+                        .map(day -> new DailyOccupancy(enterpriseId, day, counts.getOrDefault(day, 0))));
+    }
+
+    public Mono<Integer> rebuildDailyOccupancy() {
+        log.info("Recalculando a ocupação diária de todas as empresas.");
+        return occupancyRepository.rebuildDailyOccupancy();
+    }
+
+    /**
+     * Empresas sem limite cadastrado voltam com maxHeadcount nulo.
+     */
+    public Mono<EnterpriseCapacity> getCapacity(Long enterpriseId) {
+        log.info("Buscando o limite de empregados a bordo da empresa id = {}.", enterpriseId);
+        return occupancyRepository.getCapacity(enterpriseId)
+                .defaultIfEmpty(new EnterpriseCapacity(enterpriseId, null));
+    }
+
+    public Mono<Void> setCapacity(Long enterpriseId, int maxHeadcount) {
+        if (maxHeadcount < 0) {
+            return Mono.error(new EnterpriseException("Limite de empregados a bordo não pode ser negativo = "+maxHeadcount));
+        }
+        log.info("Definindo o limite de empregados a bordo da empresa id = {} em {}.", enterpriseId, maxHeadcount);
+        return occupancyRepository.setCapacity(enterpriseId, maxHeadcount)
+                .doOnError(businessMetrics::record);
+    }
+
+    public Mono<Void> deleteCapacity(Long enterpriseId) {
+        log.info("Removendo o limite de empregados a bordo da empresa id = {}.", enterpriseId);
+        return occupancyRepository.deleteCapacity(enterpriseId);
+    }
+
+    /**
+     * Recalcula a tabela periodicamente, corrigindo qualquer divergência deixada por escritas feitas fora da aplicação.
+     */
+    @Scheduled(cron = "${boarding.occupancy.rebuild-cron:0 0 3 * * *}")
+    public void scheduledRebuild() {
+        rebuildDailyOccupancy()
+                .doOnError(e -> log.error("Erro no recálculo agendado da ocupação diária :: Messagem - {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+    }
+}
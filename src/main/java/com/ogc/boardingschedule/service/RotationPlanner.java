@@ -0,0 +1,152 @@
+package com.ogc.boardingschedule.service;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.RotationShortfall;
+import com.ogc.boardingschedule.index.BoardingIntervalIndex;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Escala de um cargo em uma única varredura dos dias do período. Em cada dia abaixo da cobertura mínima embarca os
+ * empregados liberados há mais tempo, respeitando os embarques já gravados, o período a bordo e a folga depois de
+ * cada desembarque. Cada embarque planejado custa uma operação na fila de prioridade, então o tempo cresce com o
+ * número de embarques e não com empregados vezes dias.
+ */
+final class RotationPlanner {
+
+    /**
+     * Antes de um embarque gravado o novo também precisa terminar e cumprir a folga, então um início bloqueia
+     * o período a bordo mais a folga para trás.
+     */
+    static final int BLOCKED_BEFORE_DAYS = BoardingService.BOARDING_DAYS + BoardingIntervalIndex.DAY_OFF_DAYS;
+
+    private final String role;
+    private final int minimum;
+    private final LocalDate initDate;
+    private final int days;
+
+    private final List<BoardingRequest> boardings = new ArrayList<>();
+    private final List<RotationShortfall> shortfalls = new ArrayList<>();
+
+    RotationPlanner(String role, int minimum, LocalDate initDate, LocalDate endDate) {
+        this.role = role;
+        this.minimum = minimum;
+        this.initDate = initDate;
+        this.days = (int) ChronoUnit.DAYS.between(initDate, endDate) + 1;
+    }
+
+    /**
+     * Planeja o cargo com os empregados informados e seus embarques gravados que tocam o período. O resultado
+     * fica em {@link #boardings()} e {@link #shortfalls()}.
+     */
+    RotationPlanner plan(Collection<Long> employeeIds, Map<Long, List<BoardSchedule>> existing) {
+        int[] change = new int[days + 1];
+        PriorityQueue<Crew> queue = new PriorityQueue<>(Comparator
+                .comparing((Crew crew) -> crew.nextStart)
+                .thenComparing(crew -> crew.employeeId));
+        for (Long employeeId : employeeIds) {
+            List<BoardSchedule> schedules = existing.getOrDefault(employeeId, Collections.emptyList());
+            schedules.forEach(schedule -> cover(change, schedule.getInitDate(), schedule.getEndDate()));
+            Crew crew = new Crew(employeeId, schedules);
+            crew.nextStart = crew.earliestStart(initDate);
+            queue.add(crew);
+        }
+
+        int onBoard = 0;
+        for (int i = 0; i < days; i++) {
+            LocalDate day = initDate.plusDays(i);
+            onBoard += change[i];
+            while (onBoard < minimum && !queue.isEmpty() && !queue.peek().nextStart.isAfter(day)) {
+                Crew crew = queue.poll();
+                crew.nextStart = crew.earliestStart(day);
+                if (crew.nextStart.equals(day)) {
+                    LocalDate endDate = day.plusDays(BoardingService.BOARDING_DAYS);
+                    boardings.add(new BoardingRequest(crew.employeeId, day));
+                    cover(change, day, endDate);
+                    onBoard++;
+                    crew.nextStart = crew.earliestStart(endDate.plusDays(BoardingIntervalIndex.DAY_OFF_DAYS + 1));
+                }
+                queue.add(crew);
+            }
+            if (onBoard < minimum) {
+                shortfall(day, minimum - onBoard);
+            }
+        }
+        return this;
+    }
+
+    List<BoardingRequest> boardings() {
+        return boardings;
+    }
+
+    List<RotationShortfall> shortfalls() {
+        return shortfalls;
+    }
+
+    /**
+     * Soma o embarque na cobertura dos dias do período. Os dias já passados na varredura não são relidos.
+     */
+    private void cover(int[] change, LocalDate from, LocalDate to) {
+        long first = Math.max(0, ChronoUnit.DAYS.between(initDate, from));
+        long last = Math.min(days - 1, ChronoUnit.DAYS.between(initDate, to));
+        if (first <= last) {
+            change[(int) first]++;
+            change[(int) last + 1]--;
+        }
+    }
+
+    /**
+     * Junta dias seguidos com a mesma falta em um único item.
+     */
+    private void shortfall(LocalDate day, int missing) {
+        RotationShortfall last = shortfalls.isEmpty() ? null : shortfalls.get(shortfalls.size() - 1);
+        if (last != null && last.getMissing() == missing && last.getEndDate().plusDays(1).equals(day)) {
+            last.setEndDate(day);
+        } else {
+            shortfalls.add(new RotationShortfall(role, day, day, missing));
+        }
+    }
+
+    /**
+     * Empregado na fila com o primeiro dia em que pode embarcar e os embarques gravados, ordenados pela data
+     * de início.
+     */
+    private static final class Crew {
+        final Long employeeId;
+        final List<BoardSchedule> schedules;
+        LocalDate nextStart;
+
+        Crew(Long employeeId, List<BoardSchedule> schedules) {
+            this.employeeId = employeeId;
+            this.schedules = schedules;
+        }
+
+        /**
+         * Primeiro início a partir de {@code from} que não cai a bordo, na folga nem antes de um embarque gravado
+         * sem tempo de cumprir o período e a folga.
+         */
+        LocalDate earliestStart(LocalDate from) {
+            LocalDate start = from;
+            for (BoardSchedule schedule : schedules) {
+                LocalDate blockedFrom = schedule.getInitDate().minusDays(BLOCKED_BEFORE_DAYS);
+                LocalDate blockedTo = schedule.getEndDate().plusDays(BoardingIntervalIndex.DAY_OFF_DAYS);
+                if (blockedFrom.isAfter(start)) {
+                    break;
+                }
+                if (!blockedTo.isBefore(start)) {
+                    start = blockedTo.plusDays(1);
+                }
+            }
+            return start;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.ogc.boardingschedule.service;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.domain.RotationPlan;
+import com.ogc.boardingschedule.domain.RotationRequest;
+import com.ogc.boardingschedule.domain.RotationShortfall;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.WrongInitDateException;
+import com.ogc.boardingschedule.index.BoardingIntervalIndex;
+import com.ogc.boardingschedule.repositories.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@Slf4j
+public class RotationService {
+
+    public static final int MAX_HORIZON_DAYS = 731;
+
+    private final EmployeeRepository employeeRepository;
+    private final BoardingService boardingService;
+    private final BoardingIntervalIndex boardingIntervalIndex;
+
+    public RotationService(EmployeeRepository employeeRepository,
+                           BoardingService boardingService,
+                           BoardingIntervalIndex boardingIntervalIndex) {
+        this.employeeRepository = employeeRepository;
+        this.boardingService = boardingService;
+        this.boardingIntervalIndex = boardingIntervalIndex;
+    }
+
+    /**
+     * Planeja os embarques dos empregados informados para manter a cobertura mínima de cada cargo no período.
+     * Cada cargo é planejado em paralelo com os embarques gravados no índice em memória. Dias em que não há
+     * empregado livre suficiente voltam em {@code shortfalls}. Com {@code persist} o plano é gravado pelo
+     * agendamento em lote, que valida de novo cada item com os empregados travados.
+     */
+    public Mono<RotationPlan> planRotation(RotationRequest request) {
+        LocalDate initDate = request.getInitDate();
+        LocalDate endDate = request.getEndDate();
+        if (initDate == null || endDate == null || initDate.isAfter(endDate)) {
+            return Mono.error(new BoardingException("Período inválido entre "+initDate+" e "+endDate));
+        }
+        if (initDate.isBefore(LocalDate.now())) {
+            return Mono.error(new WrongInitDateException("Não pode agendar embarque para o passado data = "+initDate));
+        }
+        if (ChronoUnit.DAYS.between(initDate, endDate) >= MAX_HORIZON_DAYS) {
+            return Mono.error(new BoardingException("Período maior que "+MAX_HORIZON_DAYS+" dias."));
+        }
+        Map<String, Integer> minimumCoverage = request.getMinimumCoverage() == null
+                ? Collections.emptyMap() : new TreeMap<>(request.getMinimumCoverage());
+        if (minimumCoverage.values().stream().anyMatch(minimum -> minimum == null || minimum < 0)) {
+            return Mono.error(new BoardingException("Cobertura mínima deve ser zero ou mais."));
+        }
+        List<Long> employeeIds = request.getEmployeeIds() == null ? Collections.emptyList() : request.getEmployeeIds();
+
+        log.info("Planejando a escala de {} empregados e {} cargos entre {} e {}.",
+                employeeIds.size(), minimumCoverage.size(), initDate, endDate);
+        return employeeRepository.getEmployeesByIds(new HashSet<>(employeeIds))
+                .filter(employee -> employee.getRole() != null && minimumCoverage.containsKey(employee.getRole()))
+                .collectMultimap(Employee::getRole, Employee::getId)
+                .flatMapMany(crews -> Flux.fromIterable(minimumCoverage.entrySet())
+                        .parallel()
+                        .runOn(Schedulers.parallel())
+                        .map(entry -> planRole(entry.getKey(), entry.getValue(),
+                                crews.getOrDefault(entry.getKey(), Collections.emptyList()), initDate, endDate))
+                        .sequential())
+                .collectList()
+                .map(RotationService::merge)
+                .flatMap(plan -> {
+                    log.info("Escala planejada com {} embarques e {} faltas de cobertura.",
+                            plan.getBoardings().size(), plan.getShortfalls().size());
+                    if (!request.isPersist() || plan.getBoardings().isEmpty()) {
+                        return Mono.just(plan);
+                    }
+                    return boardingService.insertNewBoardings(plan.getBoardings())
+                            .map(results -> {
+                                plan.setResults(results);
+                                return plan;
+                            });
+                });
+    }
+
+    private RotationPlanner planRole(String role, int minimum, Collection<Long> employeeIds,
+                                     LocalDate initDate, LocalDate endDate) {
+        Map<Long, List<BoardSchedule>> existing = new HashMap<>();
+        LocalDate from = initDate.minusDays(BoardingIntervalIndex.DAY_OFF_DAYS);
+        LocalDate to = endDate.plusDays(RotationPlanner.BLOCKED_BEFORE_DAYS);
+        for (Long employeeId : employeeIds) {
+            existing.put(employeeId, boardingIntervalIndex.findBetween(employeeId, from, to));
+        }
+        return new RotationPlanner(role, minimum, initDate, endDate).plan(employeeIds, existing);
+    }
+
+    private static RotationPlan merge(List<RotationPlanner> planners) {
+        List<BoardingRequest> boardings = new ArrayList<>();
+        List<RotationShortfall> shortfalls = new ArrayList<>();
+        planners.forEach(planner -> {
+            boardings.addAll(planner.boardings());
+            shortfalls.addAll(planner.shortfalls());
+        });
+        boardings.sort(Comparator.comparing(BoardingRequest::getInitDate).thenComparing(BoardingRequest::getEmployeeId));
+        shortfalls.sort(Comparator.comparing(RotationShortfall::getRole).thenComparing(RotationShortfall::getInitDate));
+        return new RotationPlan(boardings, shortfalls, null);
+    }
+}
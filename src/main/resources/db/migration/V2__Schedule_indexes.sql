@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_board_schedule_employee ON board_schedule (employee_id, init_date, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_board_schedule_end_date ON board_schedule (end_date, init_date);
+
+CREATE INDEX IF NOT EXISTS idx_employee_enterprise ON employee (enterprise_id);
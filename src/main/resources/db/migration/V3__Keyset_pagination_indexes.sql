@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_board_schedule_init_date ON board_schedule (init_date, id);
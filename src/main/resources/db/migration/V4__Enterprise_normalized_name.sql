@@ -0,0 +1,15 @@
+ALTER TABLE enterprise ADD COLUMN IF NOT EXISTS normalized_name VARCHAR(150);
+
+UPDATE enterprise SET normalized_name = trim(upper(name));
+
+-- Nomes que só diferem em maiúsculas ou espaços nas pontas: a empresa de menor id mantém o nome e as demais
+-- recebem o id como sufixo, para o índice único ser criado sem perder registros nem vínculos.
+UPDATE enterprise SET name = SUBSTR(trim(name), 1, 130) || ' (' || id || ')'
+WHERE EXISTS (SELECT 1 FROM enterprise kept
+              WHERE kept.normalized_name = enterprise.normalized_name
+                AND kept.id < enterprise.id);
+
+UPDATE enterprise SET normalized_name = trim(upper(name))
+WHERE normalized_name <> trim(upper(name));
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_enterprise_normalized_name ON enterprise (normalized_name);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_employee_enterprise_role ON employee (enterprise_id, role);
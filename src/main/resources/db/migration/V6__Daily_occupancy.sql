@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS daily_occupancy (
+  enterprise_id int NOT NULL,
+  occupied_on timestamp NOT NULL,
+  headcount int NOT NULL,
+  PRIMARY KEY (enterprise_id, occupied_on),
+  CONSTRAINT fk_occupancy_enterprise
+      FOREIGN KEY(enterprise_id)
+  	  REFERENCES enterprise(id)
+);
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS enterprise_capacity (
+  enterprise_id int PRIMARY KEY,
+  max_headcount int NOT NULL,
+  CONSTRAINT fk_capacity_enterprise
+      FOREIGN KEY(enterprise_id)
+  	  REFERENCES enterprise(id)
+);
@@ -0,0 +1,39 @@
+package com.ogc.boardingschedule.cache;
+
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EmployeeDetailCacheTest {
+
+    private final EmployeeDetailCache cache = new EmployeeDetailCache(10, Duration.ofMinutes(10), 10, Duration.ofSeconds(30));
+
+    @Test
+    void discardPutAfterInvalidateTest() {
+        EmployeeDetail old = EmployeeDetail.builder().id(1L).name("Maria").enterpriseId(1L).build();
+
+        long generation = cache.generation();
+        cache.invalidate(1L);
+        cache.put(old, generation);
+        assertThat(cache.get(1L), nullValue());
+
+        cache.put(old, cache.generation());
+        assertThat(cache.get(1L), equalTo(old));
+    }
+
+    @Test
+    void discardMissingAfterInsertTest() {
+        long generation = cache.generation();
+        cache.invalidateMissing();
+        cache.putMissing(2L, generation);
+        assertThat(cache.isMissing(2L), equalTo(false));
+
+        cache.putMissing(2L, cache.generation());
+        assertThat(cache.isMissing(2L), equalTo(true));
+    }
+}
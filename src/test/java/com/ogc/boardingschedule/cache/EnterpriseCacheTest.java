@@ -0,0 +1,33 @@
+package com.ogc.boardingschedule.cache;
+
+import com.ogc.boardingschedule.domain.Enterprise;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EnterpriseCacheTest {
+
+    private final EnterpriseCache cache = new EnterpriseCache(10, Duration.ofMinutes(10));
+
+    @Test
+    void discardPutAfterInvalidateTest() {
+        Enterprise old = new Enterprise(1L, "Petrobras");
+
+        long generation = cache.generation();
+        cache.invalidate(1L, "Petrobras", "Petrobras S.A.");
+        cache.put(old, generation);
+        cache.putAll(Collections.singletonList(old), generation);
+
+        assertThat(cache.getById(1L), nullValue());
+        assertThat(cache.getByName("petrobras"), nullValue());
+        assertThat(cache.getAll(), nullValue());
+
+        cache.put(old, cache.generation());
+        assertThat(cache.getById(1L), equalTo(old));
+    }
+}
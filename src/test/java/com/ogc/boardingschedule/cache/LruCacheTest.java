@@ -0,0 +1,74 @@
+package com.ogc.boardingschedule.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LruCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private LruCache<Long, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LruCache<>("teste", 2, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    void evictLeastRecentlyUsedTest() {
+        cache.put(1L, "um");
+        cache.put(2L, "dois");
+        cache.get(1L);
+        cache.put(3L, "tres");
+
+        assertThat(cache.get(1L), equalTo("um"));
+        assertThat(cache.get(2L), nullValue());
+        assertThat(cache.get(3L), equalTo("tres"));
+        assertThat(cache.evictionCount(), equalTo(1L));
+    }
+
+    @Test
+    void expireAfterTtlTest() {
+        cache.put(1L, "um");
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(cache.get(1L), equalTo("um"));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(1L), nullValue());
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void invalidateTest() {
+        cache.put(1L, "um");
+        cache.put(2L, "dois");
+
+        cache.invalidate(1L);
+        cache.invalidateIf("dois"::equals);
+
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void hitAndMissMetricsTest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.put(1L, "um");
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        assertThat(registry.get("cache.gets").tag("cache", "teste").tag("result", "hit").functionCounter().count(), equalTo(2.0));
+        assertThat(registry.get("cache.gets").tag("cache", "teste").tag("result", "miss").functionCounter().count(), equalTo(1.0));
+        assertThat(registry.get("cache.size").tag("cache", "teste").gauge().value(), equalTo(1.0));
+    }
+}
@@ -0,0 +1,38 @@
+package com.ogc.boardingschedule.config;
+
+import com.ogc.boardingschedule.repositories.JdbcExecutor;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.WRITE;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadsTest {
+
+    @Test
+    void bulkheadRunsOnVirtualThreadsTest() {
+        assumeTrue(VirtualThreads.available());
+
+        JdbcExecutor jdbcExecutor = new JdbcExecutor(1, 10, 1, 10, true);
+        try {
+            Thread thread = jdbcExecutor.mono(WRITE, () -> Mono.just(Thread.currentThread())).block();
+            assertThat(VirtualThreads.isVirtual(thread), equalTo(true));
+            assertThat(thread.getName().startsWith("jdbc-write-"), equalTo(true));
+        } finally {
+            jdbcExecutor.dispose();
+        }
+    }
+
+    @Test
+    void unavailableBeforeJdk21Test() {
+        assumeFalse(VirtualThreads.available());
+
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.factory("teste"));
+        assertThrows(IllegalStateException.class, VirtualThreads::newVirtualThreadPerTaskExecutor);
+        assertThat(VirtualThreads.isVirtual(Thread.currentThread()), equalTo(false));
+    }
+}
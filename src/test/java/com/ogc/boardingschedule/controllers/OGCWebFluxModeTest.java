@@ -0,0 +1,86 @@
+package com.ogc.boardingschedule.controllers;
+
+import com.ogc.boardingschedule.domain.EmployeeImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("webflux")
+public class OGCWebFluxModeTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private WebTestClient webClient;
+
+    @Test
+    void runsOnNettyTest() {
+        assertThat(context, instanceOf(ReactiveWebServerApplicationContext.class));
+        assertThat(((ReactiveWebServerApplicationContext) context).getWebServer(), instanceOf(NettyWebServer.class));
+    }
+
+    @Test
+    void createAndGetCompanyTest() {
+        webClient.post().uri("/v1/ogc/company/Teste")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CREATED);
+
+        webClient.get().uri("/v1/ogc/company/name/Teste")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("Teste");
+    }
+
+    @Test
+    void getWrongCompanyUsesErrorHandlerTest() {
+        webClient.get().uri("/v1/ogc/company/id/2")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("C004");
+    }
+
+    @Test
+    void importEmployeesFromCsvTest() {
+        webClient.post().uri("/v1/ogc/company/Teste")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CREATED);
+
+        String csv = "name,role,enterpriseId\n" +
+                "Teste,Funcionario,1\n" +
+                "Outro,Funcionario,2\n";
+
+        EmployeeImportReport report = webClient.post().uri("/v1/ogc/employees/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EmployeeImportReport.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(report.getRead(), equalTo(2L));
+        assertThat(report.getImported(), equalTo(1L));
+        assertThat(report.getErrors().size(), equalTo(1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.ogc.boardingschedule.index;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AvailabilityIndexTest {
+
+    private static final LocalDate INIT_DATE = LocalDate.now().plusDays(1);
+
+    private BoardingIntervalIndex boardingIntervalIndex;
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<BoardSchedule> schedules = Arrays.asList(
+                new BoardSchedule(1L, 1L, INIT_DATE, INIT_DATE.plusDays(15)),
+                new BoardSchedule(2L, 2L, INIT_DATE.plusDays(10), INIT_DATE.plusDays(25)));
+        boardingIntervalIndex = new BoardingIntervalIndex();
+        boardingIntervalIndex.load(schedules);
+        index = new AvailabilityIndex(boardingIntervalIndex);
+        index.loadEmployees(Arrays.asList(
+                new Employee(1L, "Um", "Mergulhador", 1L),
+                new Employee(2L, "Dois", "Mergulhador", 1L),
+                new Employee(3L, "Tres", "Cozinheiro", 1L),
+                new Employee(4L, "Quatro", "Mergulhador", 2L)));
+        index.loadSchedules(schedules);
+    }
+
+    @Test
+    void findAvailableByRoleAndEnterpriseTest() {
+        assertThat(index.findAvailable(INIT_DATE, null, null), equalTo(new int[]{3, 4}));
+        assertThat(index.findAvailable(INIT_DATE, "Mergulhador", 1L).length, equalTo(0));
+        assertThat(index.findAvailable(INIT_DATE.plusDays(33), "Mergulhador", 1L), equalTo(new int[]{1, 2}));
+        assertThat(index.findAvailable(INIT_DATE.plusDays(12), "Mergulhador", null), equalTo(new int[]{4}));
+        assertThat(index.findAvailable(INIT_DATE.plusDays(22), "Mergulhador", null), equalTo(new int[]{4}));
+        assertThat(index.findAvailable(INIT_DATE.plusDays(23), "Mergulhador", null), equalTo(new int[]{1, 4}));
+        assertThat(index.findAvailable(INIT_DATE, "Soldador", null).length, equalTo(0));
+        assertThat(index.findAvailable(INIT_DATE, null, 9L).length, equalTo(0));
+    }
+
+    @Test
+    void reindexAfterWritesTest() {
+        BoardSchedule moved = new BoardSchedule(2L, 2L, INIT_DATE.plusDays(40), INIT_DATE.plusDays(55));
+        BoardSchedule old = new BoardSchedule(2L, 2L, INIT_DATE.plusDays(10), INIT_DATE.plusDays(25));
+        boardingIntervalIndex.put(moved);
+        index.reindex(old);
+        index.reindex(moved);
+        assertThat(index.findAvailable(INIT_DATE.plusDays(12), "Mergulhador", 1L), equalTo(new int[]{2}));
+        assertThat(index.findAvailable(INIT_DATE.plusDays(45), "Mergulhador", 1L), equalTo(new int[]{1}));
+
+        boardingIntervalIndex.remove(1L);
+        index.reindex(new BoardSchedule(1L, 1L, INIT_DATE, INIT_DATE.plusDays(15)));
+        assertThat(index.findAvailable(INIT_DATE, "Mergulhador", 1L), equalTo(new int[]{1, 2}));
+    }
+
+    @Test
+    void employeeChangesTest() {
+        index.putEmployee(3L, "Mergulhador", 2L);
+        index.removeEmployee(4L);
+        index.putEmployee(5L, "Cozinheiro", 1L);
+
+        assertThat(index.findAvailable(INIT_DATE, "Mergulhador", 2L), equalTo(new int[]{3}));
+        assertThat(index.findAvailable(INIT_DATE, "Cozinheiro", null), equalTo(new int[]{5}));
+        assertThat(index.findAvailable(INIT_DATE, null, null), equalTo(new int[]{3, 5}));
+    }
+}
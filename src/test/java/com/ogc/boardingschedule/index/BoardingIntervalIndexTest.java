@@ -0,0 +1,94 @@
+package com.ogc.boardingschedule.index;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BoardingIntervalIndexTest {
+
+    private static final LocalDate INIT_DATE = LocalDate.of(2030, 1, 1);
+
+    private BoardingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BoardingIntervalIndex();
+        index.load(Arrays.asList(
+                new BoardSchedule(1L, 1L, INIT_DATE, INIT_DATE.plusDays(15)),
+                new BoardSchedule(2L, 1L, INIT_DATE.plusDays(30), INIT_DATE.plusDays(45)),
+                new BoardSchedule(3L, 2L, INIT_DATE.plusDays(10), INIT_DATE.plusDays(25))));
+    }
+
+    @Test
+    void findOnBoardTest() {
+        assertThat(index.findOnBoard(1L, INIT_DATE).isPresent(), equalTo(true));
+        assertThat(index.findOnBoard(1L, INIT_DATE.plusDays(15)).get().getId(), equalTo(1L));
+        assertThat(index.findOnBoard(1L, INIT_DATE.plusDays(16)).get().getId(), equalTo(2L));
+        assertThat(index.findOnBoard(1L, INIT_DATE.plusDays(35)).get().getId(), equalTo(2L));
+        assertThat(index.findOnBoard(1L, INIT_DATE.minusDays(15)).get().getId(), equalTo(1L));
+        assertThat(index.findOnBoard(1L, INIT_DATE.minusDays(16)).isPresent(), equalTo(false));
+        assertThat(index.findOnBoard(2L, INIT_DATE).get().getId(), equalTo(3L));
+        assertThat(index.findOnBoard(2L, INIT_DATE.minusDays(6)).isPresent(), equalTo(false));
+        assertThat(index.findOnBoard(3L, INIT_DATE).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void findInDayOffTest() {
+        assertThat(index.findInDayOff(1L, INIT_DATE.plusDays(15)).isPresent(), equalTo(true));
+        assertThat(index.findInDayOff(1L, INIT_DATE.plusDays(22)).get().getId(), equalTo(1L));
+        assertThat(index.findInDayOff(1L, INIT_DATE.plusDays(23)).isPresent(), equalTo(false));
+        assertThat(index.findInDayOff(1L, INIT_DATE.plusDays(10)).get().getId(), equalTo(2L));
+        assertThat(index.findInDayOff(1L, INIT_DATE.minusDays(22)).get().getId(), equalTo(1L));
+        assertThat(index.findInDayOff(1L, INIT_DATE.minusDays(23)).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void findBetweenTest() {
+        assertThat(index.findBetween(1L, INIT_DATE.plusDays(15), INIT_DATE.plusDays(30)).size(), equalTo(2));
+        assertThat(index.findBetween(1L, INIT_DATE.plusDays(16), INIT_DATE.plusDays(29)).isEmpty(), equalTo(true));
+        assertThat(index.findBetween(1L, INIT_DATE.plusDays(40), INIT_DATE.plusDays(90)).get(0).getId(), equalTo(2L));
+        assertThat(index.findBetween(3L, INIT_DATE, INIT_DATE.plusDays(90)).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void findFreeWindowsTest() {
+        List<BoardingWindow> windows = index.findFreeWindows(1L, INIT_DATE.minusDays(30), 3);
+        assertThat(windows, equalTo(Arrays.asList(
+                new BoardingWindow(INIT_DATE.minusDays(30), INIT_DATE.minusDays(23)),
+                new BoardingWindow(INIT_DATE.plusDays(53), null))));
+        assertThat(index.findFreeWindows(1L, INIT_DATE.minusDays(30), 1).size(), equalTo(1));
+        assertThat(index.findFreeWindows(1L, INIT_DATE.plusDays(10), 1).get(0).getInitDate(), equalTo(INIT_DATE.plusDays(53)));
+        assertThat(index.findFreeWindows(2L, INIT_DATE.minusDays(20), 2), equalTo(Arrays.asList(
+                new BoardingWindow(INIT_DATE.minusDays(20), INIT_DATE.minusDays(13)),
+                new BoardingWindow(INIT_DATE.plusDays(33), null))));
+        assertThat(index.findFreeWindows(3L, INIT_DATE, 5), equalTo(Collections.singletonList(new BoardingWindow(INIT_DATE, null))));
+    }
+
+    @Test
+    void ignoredScheduleTest() {
+        assertThat(index.findOnBoard(1L, INIT_DATE.plusDays(5), 1L).isPresent(), equalTo(false));
+        assertThat(index.findInDayOff(1L, INIT_DATE.plusDays(20), 1L).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void writeThroughTest() {
+        index.put(new BoardSchedule(1L, 1L, INIT_DATE.plusDays(60), INIT_DATE.plusDays(75)));
+
+        assertThat(index.findOnBoard(1L, INIT_DATE).isPresent(), equalTo(false));
+        assertThat(index.findOnBoard(1L, INIT_DATE.plusDays(70)).get().getId(), equalTo(1L));
+
+        index.remove(2L);
+
+        assertThat(index.findOnBoard(1L, INIT_DATE.plusDays(35)).isPresent(), equalTo(false));
+        assertThat(index.size(), equalTo(2));
+    }
+}
@@ -0,0 +1,74 @@
+package com.ogc.boardingschedule.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EmployeeNameIndexTest {
+
+    private EmployeeNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Map<Long, String> names = new HashMap<>();
+        names.put(1L, "Joao da Silva");
+        names.put(2L, "Maria Silveira");
+        names.put(3L, " Pedro Souza ");
+        names.put(4L, "Ana");
+        index = new EmployeeNameIndex();
+        index.load(names);
+    }
+
+    @Test
+    void searchSubstringTest() {
+        assertThat(index.search("silv", 10, false), equalTo(Arrays.asList(1L, 2L)));
+        assertThat(index.search("  SOUZA", 10, false), equalTo(Collections.singletonList(3L)));
+        assertThat(index.search("ilva", 10, false), equalTo(Collections.singletonList(1L)));
+        assertThat(index.search("xyz", 10, false).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void searchShortQueryTest() {
+        assertThat(index.search("an", 10, false), equalTo(Arrays.asList(4L)));
+        assertThat(index.search("a", 2, false), equalTo(Arrays.asList(1L, 2L)));
+    }
+
+    @Test
+    void searchWithLimitTest() {
+        assertThat(index.search("si", 1, false), equalTo(Collections.singletonList(1L)));
+    }
+
+    @Test
+    void searchFuzzyTest() {
+        assertThat(index.search("Slva", 10, true), equalTo(Collections.singletonList(1L)));
+        assertThat(index.search("Souza", 10, true), equalTo(Collections.singletonList(3L)));
+        assertThat(index.search("Sousa", 10, true), equalTo(Collections.singletonList(3L)));
+        assertThat(index.search("Sousa", 10, false).isEmpty(), equalTo(true));
+        assertThat(index.search("Silveria", 10, true), equalTo(Collections.singletonList(2L)));
+    }
+
+    @Test
+    void incrementalMaintenanceTest() {
+        index.put(5L, "Carlos Silva");
+        index.put(1L, "Joao Pereira");
+        index.remove(2L);
+
+        assertThat(index.search("silv", 10, false), equalTo(Collections.singletonList(5L)));
+        assertThat(index.search("pereira", 10, false), equalTo(Collections.singletonList(1L)));
+        assertThat(index.size(), equalTo(4));
+    }
+
+    @Test
+    void substringDistanceTest() {
+        assertThat(EmployeeNameIndex.substringDistance("SILVA", "JOAO DA SILVA"), equalTo(0));
+        assertThat(EmployeeNameIndex.substringDistance("SLVA", "JOAO DA SILVA"), equalTo(1));
+        assertThat(EmployeeNameIndex.substringDistance("SOUSA", "PEDRO SOUZA"), equalTo(1));
+    }
+}
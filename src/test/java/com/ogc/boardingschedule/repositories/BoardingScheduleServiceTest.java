@@ -1,23 +1,47 @@
 package com.ogc.boardingschedule.repositories;
 
+import com.ogc.boardingschedule.domain.AvailableEmployees;
+import com.ogc.boardingschedule.domain.BoardingAvailability;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.BoardingStatus;
 import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.BoardingScheduleNotExistsException;
 import com.ogc.boardingschedule.exceptions.EmployeeInDayOffException;
 import com.ogc.boardingschedule.exceptions.EmployeeNotExistsException;
 import com.ogc.boardingschedule.exceptions.EmployeeOnBoardException;
+import com.ogc.boardingschedule.exceptions.InvalidPageCursorException;
 import com.ogc.boardingschedule.exceptions.WrongInitDateException;
 import com.ogc.boardingschedule.service.BoardingService;
 import com.ogc.boardingschedule.service.EmployeeService;
 import com.ogc.boardingschedule.service.EnterpriseService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
@@ -33,16 +57,22 @@ public class BoardingScheduleServiceTest {
     @Autowired
     private BoardingService boardingService;
 
+    @Autowired
+    private BoardingRepository boardingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void insertBoardingScheduleTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         String initDate = LocalDate.now().toString();
         LocalDate startDate = LocalDate.parse(initDate, formatter);
 
-        boardingService.insertNewBoarding(1L, startDate);
+        boardingService.insertNewBoarding(1L, startDate).block();
 
         StepVerifier
                 .create(boardingService.getBoardingsByEmployeeId(1L))
@@ -54,8 +84,8 @@ public class BoardingScheduleServiceTest {
 
     @Test
     void insertBoardingWrongDataTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         String initDate = LocalDate.now().toString();
@@ -70,8 +100,8 @@ public class BoardingScheduleServiceTest {
 
     @Test
     void insertBoardingWrongEmployeeTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         String initDate = LocalDate.now().toString();
@@ -124,10 +154,77 @@ public class BoardingScheduleServiceTest {
                 );
     }
 
+    @Test
+    void boardingAvailabilityTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate.plusDays(30)).block();
+
+        BoardingAvailability availability = boardingService.getBoardingAvailability(1L, LocalDate.now().minusDays(3), 2).block();
+        assertThat(availability.getNextInitDate(), equalTo(LocalDate.now()));
+        assertThat(availability.getWindows().get(0).getEndDate(), equalTo(startDate.plusDays(7)));
+        assertThat(availability.getWindows().get(1).getInitDate(), equalTo(startDate.plusDays(53)));
+        assertThat(availability.getWindows().get(1).getEndDate() == null, equalTo(true));
+
+        StepVerifier
+                .create(boardingService.insertNewBoarding(1L, startDate.plusDays(8)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeInDayOffException)
+                .verify();
+        boardingService.insertNewBoarding(1L, startDate.plusDays(7)).block();
+
+        LocalDate next = boardingService.getBoardingAvailability(1L, startDate.plusDays(8), null).block().getNextInitDate();
+        assertThat(next, equalTo(startDate.plusDays(53)));
+        StepVerifier
+                .create(boardingService.insertNewBoarding(1L, next.minusDays(1)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeInDayOffException)
+                .verify();
+        boardingService.insertNewBoarding(1L, next).block();
+
+        StepVerifier
+                .create(boardingService.getBoardingAvailability(1L, startDate, 0))
+                .expectErrorMatches(throwable -> throwable instanceof BoardingException)
+                .verify();
+        StepVerifier
+                .create(boardingService.getBoardingAvailability(99L, startDate, 1))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void availableEmployeesTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Outro", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Terceiro", "Mergulhador", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate).block();
+
+        AvailableEmployees available = boardingService.getAvailableEmployees(startDate, "Funcionario", 1L).block();
+        assertThat(available.getEmployeeIds(), equalTo(Arrays.asList(2L)));
+        assertThat(boardingService.getAvailableEmployees(startDate.plusDays(20), null, null).block().getCount(), equalTo(2));
+        assertThat(boardingService.getAvailableEmployees(startDate.plusDays(23), null, null).block().getCount(), equalTo(3));
+
+        boardingService.updateBoardingSchedule(1L, 2L, startDate).block();
+        assertThat(boardingService.getAvailableEmployees(startDate, "Funcionario", 1L).block().getEmployeeIds(),
+                equalTo(Arrays.asList(1L)));
+
+        boardingService.deleteBoardingScheduleById(1L).block();
+        employeeService.updateEmployee(3L, "Terceiro", "Funcionario", 1L).block();
+        assertThat(boardingService.getAvailableEmployees(startDate, "Funcionario", 1L).block().getCount(), equalTo(3));
+
+        StepVerifier
+                .create(boardingService.getAvailableEmployees(LocalDate.now().minusDays(1), null, null))
+                .expectErrorMatches(throwable -> throwable instanceof WrongInitDateException)
+                .verify();
+    }
+
     @Test
     void getEmployeeByIdTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         StepVerifier
                 .create(employeeService.getEmployeeDetailById(1L))
@@ -138,8 +235,8 @@ public class BoardingScheduleServiceTest {
 
     @Test
     void getEmployeeByWrongIdTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         StepVerifier
                 .create(employeeService.getEmployeeDetailById(2L))
@@ -150,8 +247,8 @@ public class BoardingScheduleServiceTest {
 
     @Test
     void getEmployeeByNameTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         StepVerifier
                 .create(employeeService.getEmployeeDetailByName("Teste"))
@@ -159,4 +256,251 @@ public class BoardingScheduleServiceTest {
                 .assertNext(e -> {e.getName().equals("Teste");});
 
     }
+
+    @Test
+    void getBoardingSpanningWholePeriodTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now();
+        boardingService.insertNewBoarding(1L, startDate).block();
+
+        StepVerifier
+                .create(boardingService.getBoardingScheduleBetweenDates(startDate.plusDays(3), startDate.plusDays(5)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier
+                .create(boardingService.getBoardingScheduleBetweenDates(startDate.plusDays(16), startDate.plusDays(20)))
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    void insertBoardingsInBulkTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now();
+        List<BoardingResult> results = boardingService.insertNewBoardings(Arrays.asList(
+                new BoardingRequest(1L, startDate),
+                new BoardingRequest(1L, startDate.plusDays(5)),
+                new BoardingRequest(2L, startDate),
+                new BoardingRequest(1L, startDate.minusDays(1)),
+                new BoardingRequest(1L, startDate.plusDays(16)),
+                new BoardingRequest(1L, startDate.plusDays(23)))).block();
+
+        assertThat(results.get(0).getStatus(), equalTo(BoardingStatus.CREATED));
+        assertThat(results.get(1).getStatus(), equalTo(BoardingStatus.EMPLOYEE_ON_BOARD));
+        assertThat(results.get(2).getStatus(), equalTo(BoardingStatus.EMPLOYEE_NOT_EXISTS));
+        assertThat(results.get(3).getStatus(), equalTo(BoardingStatus.WRONG_INIT_DATE));
+        assertThat(results.get(4).getStatus(), equalTo(BoardingStatus.EMPLOYEE_IN_DAY_OFF));
+        assertThat(results.get(5).getStatus(), equalTo(BoardingStatus.CREATED));
+
+        StepVerifier
+                .create(boardingService.getBoardingsByEmployeeId(1L))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier
+                .create(boardingService.insertNewBoarding(1L, startDate.plusDays(30)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeOnBoardException)
+                .verify();
+    }
+
+    @Test
+    void insertBoardingsOutcomeMetricsTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now();
+        boardingService.insertNewBoardings(Arrays.asList(
+                new BoardingRequest(1L, startDate),
+                new BoardingRequest(1L, startDate.plusDays(5)),
+                new BoardingRequest(2L, startDate),
+                new BoardingRequest(1L, startDate.minusDays(1)),
+                new BoardingRequest(1L, startDate.plusDays(16)))).block();
+
+        assertThat(meterRegistry.counter("boarding.rejections", "reason", "employee_on_board").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("boarding.rejections", "reason", "employee_in_day_off").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("boarding.rejections", "reason", "wrong_init_date").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("boarding.not.found", "entity", "employee").count(), equalTo(1.0));
+        assertThat(meterRegistry.find("boarding.repository.query")
+                .tags("repository", "boarding", "outcome", "success")
+                .timers()
+                .isEmpty(), equalTo(false));
+    }
+
+    @Test
+    void singleCallOutcomeMetricsTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now();
+        boardingService.insertNewBoarding(1L, startDate).block();
+
+        StepVerifier.create(boardingService.insertNewBoarding(1L, startDate.plusDays(5)))
+                .expectError(EmployeeOnBoardException.class)
+                .verify();
+        StepVerifier.create(boardingService.insertNewBoarding(1L, startDate.plusDays(16)))
+                .expectError(EmployeeInDayOffException.class)
+                .verify();
+        Mono<Void> pastDate = boardingService.insertNewBoarding(1L, startDate.minusDays(1));
+        boardingService.insertNewBoarding(1L, startDate.minusDays(2));
+        StepVerifier.create(pastDate)
+                .expectError(WrongInitDateException.class)
+                .verify();
+        StepVerifier.create(pastDate)
+                .expectError(WrongInitDateException.class)
+                .verify();
+        StepVerifier.create(boardingService.insertNewBoarding(2L, startDate))
+                .expectError(EmployeeNotExistsException.class)
+                .verify();
+        StepVerifier.create(employeeService.getEmployeeDetailById(99L))
+                .expectError(EmployeeNotExistsException.class)
+                .verify();
+        StepVerifier.create(boardingService.updateBoardingSchedule(99L, 1L, startDate.plusDays(60)))
+                .expectError(BoardingScheduleNotExistsException.class)
+                .verify();
+
+        assertThat(meterRegistry.counter("boarding.rejections", "reason", "employee_on_board").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("boarding.rejections", "reason", "employee_in_day_off").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("boarding.rejections", "reason", "wrong_init_date").count(), equalTo(2.0));
+        assertThat(meterRegistry.counter("boarding.not.found", "entity", "employee").count(), equalTo(2.0));
+        assertThat(meterRegistry.counter("boarding.not.found", "entity", "boarding_schedule").count(), equalTo(1.0));
+    }
+
+    @Test
+    void getBoardingsPageSharingInitDateTest(){
+        enterpriseService.insertCompany("Teste").block();
+        for (int i = 1; i <= 5; i++) {
+            employeeService.insertEmployee("Teste"+i, "Funcionario", 1L).block();
+        }
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        for (long employeeId = 1; employeeId <= 4; employeeId++) {
+            boardingService.insertNewBoarding(employeeId, startDate).block();
+        }
+        boardingService.insertNewBoarding(5L, startDate.plusDays(1)).block();
+
+        Page<BoardingDetail> first = boardingService.getBoardingsPage(null, 2).block();
+        Page<BoardingDetail> second = boardingService.getBoardingsPage(first.getNext(), 2).block();
+        Page<BoardingDetail> third = boardingService.getBoardingsPage(second.getNext(), 2).block();
+
+        assertThat(first.getItems().stream().map(BoardingDetail::getEmployeeId).collect(Collectors.toList()),
+                equalTo(Arrays.asList(1L, 2L)));
+        assertThat(second.getItems().stream().map(BoardingDetail::getEmployeeId).collect(Collectors.toList()),
+                equalTo(Arrays.asList(3L, 4L)));
+        assertThat(third.getItems().stream().map(BoardingDetail::getEmployeeId).collect(Collectors.toList()),
+                equalTo(Arrays.asList(5L)));
+        assertThat(third.getNext(), nullValue());
+    }
+
+    @Test
+    void getBoardingsPageWithIdCursorTest(){
+        enterpriseService.insertCompany("Teste1").block();
+        enterpriseService.insertCompany("Teste2").block();
+        employeeService.insertEmployee("Teste1", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Teste2", "Funcionario", 1L).block();
+        boardingService.insertNewBoarding(1L, LocalDate.now()).block();
+        boardingService.insertNewBoarding(2L, LocalDate.now()).block();
+
+        String enterpriseCursor = enterpriseService.getCompaniesPage(null, 1).block().getNext();
+        String boardingCursor = boardingService.getBoardingsPage(null, 1).block().getNext();
+
+        StepVerifier
+                .create(boardingService.getBoardingsPage(enterpriseCursor, 1))
+                .expectErrorMatches(throwable -> throwable instanceof InvalidPageCursorException)
+                .verify();
+        StepVerifier
+                .create(employeeService.getEmployeesPage(boardingCursor, 1))
+                .expectErrorMatches(throwable -> throwable instanceof InvalidPageCursorException)
+                .verify();
+    }
+
+    @Test
+    void insertBoardingBeforeLaterScheduleTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(30);
+        boardingRepository.insertNewBoarding(1L, startDate.plusDays(10), startDate.plusDays(25)).block();
+
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(1L, startDate, startDate.plusDays(15)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeOnBoardException)
+                .verify();
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(1L, startDate.minusDays(12), startDate.plusDays(3)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeInDayOffException)
+                .verify();
+        boardingRepository.insertNewBoarding(1L, startDate.minusDays(13), startDate.plusDays(2)).block();
+
+        StepVerifier
+                .create(boardingService.getBoardingsByEmployeeId(1L))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void insertConcurrentBoardingsForSameEmployeeTest() throws InterruptedException {
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now();
+        int requests = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        for (int i = 0; i < requests; i++) {
+            LocalDate initDate = startDate.plusDays(i);
+            executor.submit(() -> {
+                start.await();
+                boardingService.insertNewBoarding(1L, initDate)
+                        .doOnSuccess(v -> created.incrementAndGet())
+                        .onErrorResume(e -> Mono.empty())
+                        .block();
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertThat(created.get(), equalTo(1));
+
+        StepVerifier
+                .create(boardingService.getBoardingsByEmployeeId(1L))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamCoverageGapsByRoleTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Outro", "Mergulhador", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate).block();
+
+        StepVerifier
+                .create(boardingService.streamCoverageGapsByEnterpriseId(1L, startDate, startDate.plusDays(29)))
+                .assertNext(gap -> {
+                    assertThat(gap.getRole(), equalTo("Funcionario"));
+                    assertThat(gap.getInitDate(), equalTo(startDate.plusDays(16)));
+                    assertThat(gap.getDays(), equalTo(14L));
+                })
+                .assertNext(gap -> {
+                    assertThat(gap.getRole(), equalTo("Mergulhador"));
+                    assertThat(gap.getInitDate(), equalTo(startDate));
+                    assertThat(gap.getEndDate(), equalTo(startDate.plusDays(29)));
+                })
+                .verifyComplete();
+
+        StepVerifier
+                .create(boardingService.streamCoverageGapsByEnterpriseId(1L, startDate, startDate.minusDays(1)))
+                .expectErrorMatches(throwable -> throwable instanceof BoardingException)
+                .verify();
+    }
 }
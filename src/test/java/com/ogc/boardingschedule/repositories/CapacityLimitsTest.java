@@ -0,0 +1,51 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CapacityLimitsTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void checkOnlyDaysReceivingEmployeesTest() {
+        CapacityLimits limits = new CapacityLimits(Collections.emptyMap(), Collections.singletonMap(1L, 2),
+                Arrays.asList(new DailyOccupancy(1L, START, 2), new DailyOccupancy(1L, START.plusDays(1), 1)));
+
+        limits.check(new OccupancyDelta().add(1L, START, START, -1).add(1L, START.plusDays(1), START.plusDays(1), 1));
+        limits.check(new OccupancyDelta().add(2L, START, START, 5));
+        assertThrows(EnterpriseCapacityExceededException.class,
+                () -> limits.check(new OccupancyDelta().add(1L, START, START.plusDays(1), 1)));
+    }
+
+    @Test
+    void tryReserveCountsEarlierItemsTest() {
+        Map<Long, Long> enterpriseIds = new HashMap<>();
+        enterpriseIds.put(10L, 1L);
+        enterpriseIds.put(11L, 1L);
+        enterpriseIds.put(12L, 2L);
+        CapacityLimits limits = new CapacityLimits(enterpriseIds, Collections.singletonMap(1L, 1), Collections.emptyList());
+
+        assertThat(limits.tryReserve(schedule(10L, 0, 15)), equalTo(true));
+        assertThat(limits.tryReserve(schedule(11L, 15, 30)), equalTo(false));
+        assertThat(limits.tryReserve(schedule(11L, 16, 31)), equalTo(true));
+        assertThat(limits.tryReserve(schedule(12L, 0, 15)), equalTo(true));
+        assertThat(CapacityLimits.none().tryReserve(schedule(10L, 0, 15)), equalTo(true));
+    }
+
+    private static BoardSchedule schedule(Long employeeId, int from, int to) {
+        return new BoardSchedule(null, employeeId, START.plusDays(from), START.plusDays(to));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.CoverageGap;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CoverageGapSweepTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+    private static final LocalDate END = LocalDate.of(2030, 1, 30);
+
+    @Test
+    void gapsBetweenOverlappingBoardingsTest() {
+        List<CoverageGap> gaps = CoverageGapSweep.gaps(Flux.just(
+                interval("Mergulhador", -3, 3),
+                interval("Mergulhador", 8, 20),
+                interval("Mergulhador", 10, 15),
+                interval("Mergulhador", 25, 40)), START, END)
+                .collectList().block();
+
+        assertThat(gaps.size(), equalTo(2));
+        assertGap(gaps.get(0), "Mergulhador", 4, 7);
+        assertThat(gaps.get(0).getDays(), equalTo(4L));
+        assertGap(gaps.get(1), "Mergulhador", 21, 24);
+    }
+
+    @Test
+    void gapsPerRoleTest() {
+        List<CoverageGap> gaps = CoverageGapSweep.gaps(Flux.just(
+                interval("Cozinheiro", 0, 29),
+                interval("Eletricista", 10, 12),
+                new CoverageGapSweep.Interval("Soldador", null, null)), START, END)
+                .collectList().block();
+
+        assertThat(gaps.size(), equalTo(3));
+        assertGap(gaps.get(0), "Eletricista", 0, 9);
+        assertGap(gaps.get(1), "Eletricista", 13, 29);
+        assertGap(gaps.get(2), "Soldador", 0, 29);
+        assertThat(gaps.get(2).getDays(), equalTo(30L));
+    }
+
+    @Test
+    void noRolesTest() {
+        assertThat(CoverageGapSweep.gaps(Flux.empty(), START, END).collectList().block().isEmpty(), equalTo(true));
+    }
+
+    private static CoverageGapSweep.Interval interval(String role, int from, int to) {
+        return new CoverageGapSweep.Interval(role, START.plusDays(from), START.plusDays(to));
+    }
+
+    private static void assertGap(CoverageGap gap, String role, int from, int to) {
+        assertThat(gap.getRole(), equalTo(role));
+        assertThat(gap.getInitDate(), equalTo(START.plusDays(from)));
+        assertThat(gap.getEndDate(), equalTo(START.plusDays(to)));
+    }
+}
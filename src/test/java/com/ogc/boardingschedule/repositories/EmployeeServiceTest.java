@@ -1,6 +1,8 @@
 package com.ogc.boardingschedule.repositories;
 
+import com.ogc.boardingschedule.domain.Employee;
 import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.EmployeeImportReport;
 import com.ogc.boardingschedule.exceptions.EmployeeNotExistsException;
 import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
 import com.ogc.boardingschedule.service.EmployeeService;
@@ -9,9 +11,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import reactor.test.StepVerifier;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -26,10 +36,13 @@ public class EmployeeServiceTest {
     @Autowired
     private EnterpriseService enterpriseService;
 
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
     @Test
     void getEmployeeByIdTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         StepVerifier
                 .create(employeeService.getEmployeeDetailById(1L))
@@ -40,8 +53,8 @@ public class EmployeeServiceTest {
 
     @Test
     void getEmployeeByWrongIdTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         StepVerifier
                 .create(employeeService.getEmployeeDetailById(2L))
@@ -52,8 +65,8 @@ public class EmployeeServiceTest {
 
     @Test
     void getEmployeeByNameTest(){
-        enterpriseService.insertCompany("Teste");
-        employeeService.insertEmployee("Teste", "Funcionario", 1L);
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
 
         StepVerifier
                 .create(employeeService.getEmployeeDetailByName("Teste"))
@@ -61,4 +74,137 @@ public class EmployeeServiceTest {
                 .assertNext(e -> {e.getName().equals("Teste");});
 
     }
+
+    @Test
+    void importEmployeesFromCsvTest(){
+        enterpriseService.insertCompany("Teste").block();
+
+        String csv = "name,role,enterpriseId\n" +
+                "Teste,Funcionario,1\n" +
+                "\"Silva, Jose\",Mergulhador,1\n" +
+                "Outro,Funcionario,2\n" +
+                "Incompleto,Funcionario\n";
+
+        EmployeeImportReport report = employeeService
+                .importEmployees(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("text/csv"))
+                .block();
+
+        assertThat(report.getRead(), equalTo(4L));
+        assertThat(report.getImported(), equalTo(2L));
+        assertThat(report.getErrors().size(), equalTo(2));
+        assertThat(report.getErrors().get(0).getLine(), equalTo(4L));
+        assertThat(employeeService.getEmployeeDetailById(2L).block().getName(), equalTo("Silva, Jose"));
+    }
+
+    @Test
+    void importEmployeesFromCsvWithoutHeaderTest(){
+        enterpriseService.insertCompany("Teste").block();
+
+        String csv = "Nameless,Funcionario,1\n" +
+                "Namibia Ops,Mergulhador,1\n";
+        Set<String> readers = ConcurrentHashMap.newKeySet();
+        InputStream input = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                readers.add(Thread.currentThread().getName());
+                return super.read(b, off, len);
+            }
+        };
+
+        EmployeeImportReport report = employeeService
+                .importEmployees(input, MediaType.parseMediaType("text/csv"))
+                .block();
+
+        assertThat(report.getRead(), equalTo(2L));
+        assertThat(report.getImported(), equalTo(2L));
+        assertThat(employeeService.getEmployeeDetailById(1L).block().getName(), equalTo("Nameless"));
+        assertThat(readers.stream().anyMatch(name -> name.startsWith("jdbc-")), equalTo(false));
+    }
+
+    @Test
+    void importEmployeesFromNdjsonTest(){
+        enterpriseService.insertCompany("Teste").block();
+
+        String ndjson = "{\"name\":\"Teste\",\"role\":\"Funcionario\",\"enterpriseId\":1}\n" +
+                "{\"name\":\"Outro\",\"role\":\"Funcionario\",\"enterpriseId\":3}\n";
+
+        EmployeeImportReport report = employeeService
+                .importEmployees(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_NDJSON)
+                .block();
+
+        assertThat(report.getImported(), equalTo(1L));
+        assertThat(report.getErrors().get(0).getLine(), equalTo(2L));
+    }
+
+    @Test
+    void insertEmployeesBatchIndexesGeneratedIdsTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Avulso", "Funcionario", 1L).block();
+
+        Integer inserted = employeeRepository.insertNewEmployees(Arrays.asList(
+                new Employee(null, "Lote Um", "Mergulhador", 1L),
+                new Employee(null, "Lote Dois", "Funcionario", 1L))).block();
+
+        assertThat(inserted, equalTo(2));
+        assertThat(employeeService.getEmployeeDetailByName("Lote", 10, false)
+                .map(EmployeeDetail::getId).collectList().block(), equalTo(Arrays.asList(2L, 3L)));
+        assertThat(employeeService.getEmployeeDetailByName("Lote Dois", 10, false)
+                .map(EmployeeDetail::getRole).collectList().block(), equalTo(Arrays.asList("Funcionario")));
+        assertThat(employeeService.getEmployeeDetailByName("Avulso", 10, false)
+                .map(EmployeeDetail::getId).collectList().block(), equalTo(Arrays.asList(1L)));
+    }
+
+    @Test
+    void cachedEmployeeDetailIsInvalidatedTest(){
+        enterpriseService.insertCompany("Teste").block();
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailById(1L))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeNotExistsException)
+                .verify();
+
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        assertThat(employeeService.getEmployeeDetailById(1L).block().getEnterpriseName(), equalTo("Teste"));
+
+        employeeService.updateEmployee(1L, "Teste", "Mergulhador", 1L).block();
+        assertThat(employeeService.getEmployeeDetailById(1L).block().getRole(), equalTo("Mergulhador"));
+
+        enterpriseService.updateCompany(1L, "Outra").block();
+        assertThat(employeeService.getEmployeeDetailById(1L).block().getEnterpriseName(), equalTo("Outra"));
+
+        employeeService.deleteEmployeeById(1L).block();
+        StepVerifier
+                .create(employeeService.getEmployeeDetailById(1L))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void searchEmployeeByNameIndexTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Joao da Silva", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Maria Souza", "Funcionario", 1L).block();
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailByName("silva"))
+                .assertNext(e -> assertThat(e.getId(), equalTo(1L)))
+                .verifyComplete();
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailByName("Sousa", 10, true))
+                .assertNext(e -> assertThat(e.getName(), equalTo("Maria Souza")))
+                .verifyComplete();
+
+        employeeService.updateEmployee(1L, "Joao Pereira", "Funcionario", 1L).block();
+        employeeService.deleteEmployeeById(2L).block();
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailByName("silva"))
+                .verifyComplete();
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailByName("pereira"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
 }
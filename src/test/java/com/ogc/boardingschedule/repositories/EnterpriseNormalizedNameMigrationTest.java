@@ -0,0 +1,33 @@
+package com.ogc.boardingschedule.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EnterpriseNormalizedNameMigrationTest {
+
+    @Test
+    void duplicatedNamesAreSuffixedWithIdTest(){
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:normalized_name_migration;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+        jdbcTemplate.update("INSERT INTO enterprise (name) VALUES ('Acme'), (' ACME '), ('Outra'), ('acme')");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM enterprise ORDER BY id", String.class);
+        assertThat(names, equalTo(Arrays.asList("Acme", "ACME (2)", "Outra", "acme (4)")));
+        assertThat(jdbcTemplate.queryForObject("SELECT normalized_name FROM enterprise WHERE id = 2", String.class),
+                equalTo("ACME (2)"));
+    }
+}
@@ -1,8 +1,10 @@
 package com.ogc.boardingschedule.repositories;
 
 import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
 import com.ogc.boardingschedule.exceptions.EnterpriseExistsException;
 import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import com.ogc.boardingschedule.exceptions.InvalidPageCursorException;
 import com.ogc.boardingschedule.service.EnterpriseService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +14,14 @@ import org.springframework.test.annotation.DirtiesContext;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -25,7 +34,7 @@ public class EnterpriseServiceTest {
 
     @Test
     void insertEnterpriseTest(){
-        enterpriseService.insertCompany("Teste");
+        enterpriseService.insertCompany("Teste").block();
         Enterprise e =  enterpriseService.getCompanyById(1L).block();
 
         assertThat(e.getName(), equalTo("Teste"));
@@ -34,7 +43,7 @@ public class EnterpriseServiceTest {
 
     @Test
     void insertDuplicatedEnterpriseTest(){
-        enterpriseService.insertCompany("Teste");
+        enterpriseService.insertCompany("Teste").block();
 
         StepVerifier
                 .create(enterpriseService.insertCompany("Teste"))
@@ -46,7 +55,7 @@ public class EnterpriseServiceTest {
 
     @Test
     void getEnterpriseByIdTest(){
-        enterpriseService.insertCompany("Teste");
+        enterpriseService.insertCompany("Teste").block();
 
         StepVerifier
                 .create(enterpriseService.getCompanyById(1L))
@@ -57,7 +66,7 @@ public class EnterpriseServiceTest {
 
     @Test
     void getEnterpriseByWrongIdTest(){
-        enterpriseService.insertCompany("Teste");
+        enterpriseService.insertCompany("Teste").block();
 
         StepVerifier
                 .create(enterpriseService.getCompanyById(2L))
@@ -68,7 +77,7 @@ public class EnterpriseServiceTest {
 
     @Test
     void getEnterpriseByNameTest(){
-        enterpriseService.insertCompany("Teste");
+        enterpriseService.insertCompany("Teste").block();
 
         StepVerifier
                 .create(enterpriseService.getCompanyByName("Teste"))
@@ -79,7 +88,7 @@ public class EnterpriseServiceTest {
 
     @Test
     void getEnterpriseByWrongNameTest(){
-        enterpriseService.insertCompany("Teste");
+        enterpriseService.insertCompany("Teste").block();
 
         StepVerifier
                 .create(enterpriseService.getCompanyByName("Teste1"))
@@ -87,4 +96,98 @@ public class EnterpriseServiceTest {
                 .verify();
 
     }
+
+    @Test
+    void getCompaniesPageTest(){
+        enterpriseService.insertCompany("Teste1").block();
+        enterpriseService.insertCompany("Teste2").block();
+        enterpriseService.insertCompany("Teste3").block();
+
+        Page<Enterprise> first = enterpriseService.getCompaniesPage(null, 2).block();
+
+        assertThat(first.getItems().size(), equalTo(2));
+        assertThat(first.getItems().get(0).getName(), equalTo("Teste1"));
+
+        Page<Enterprise> second = enterpriseService.getCompaniesPage(first.getNext(), 2).block();
+
+        assertThat(second.getItems().size(), equalTo(1));
+        assertThat(second.getItems().get(0).getName(), equalTo("Teste3"));
+        assertThat(second.getNext(), nullValue());
+    }
+
+    @Test
+    void getCompaniesPageWithInvalidCursorTest(){
+        StepVerifier
+                .create(enterpriseService.getCompaniesPage("###", 2))
+                .expectErrorMatches(throwable -> throwable instanceof InvalidPageCursorException)
+                .verify();
+    }
+
+    @Test
+    void cachedEnterpriseIsInvalidatedOnUpdateTest(){
+        enterpriseService.insertCompany("Teste").block();
+
+        assertThat(enterpriseService.getCompanyById(1L).block().getName(), equalTo("Teste"));
+        assertThat(enterpriseService.getCompanyByName(" teste ").block().getId(), equalTo(1L));
+        assertThat(enterpriseService.getCompanies().collectList().block().size(), equalTo(1));
+
+        enterpriseService.updateCompany(1L, "Outra").block();
+
+        assertThat(enterpriseService.getCompanyById(1L).block().getName(), equalTo("Outra"));
+        assertThat(enterpriseService.getCompanies().blockFirst().getName(), equalTo("Outra"));
+        StepVerifier
+                .create(enterpriseService.getCompanyByName("Teste"))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseNotExistsException)
+                .verify();
+
+        enterpriseService.deleteCompanyById(1L).block();
+
+        StepVerifier
+                .create(enterpriseService.getCompanyById(1L))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseNotExistsException)
+                .verify();
+        assertThat(enterpriseService.getCompanies().collectList().block().size(), equalTo(0));
+    }
+
+    @Test
+    void insertDuplicatedNormalizedNameTest(){
+        enterpriseService.insertCompany("Teste").block();
+        enterpriseService.insertCompany("Outra").block();
+
+        StepVerifier
+                .create(enterpriseService.insertCompany("  teste "))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseExistsException)
+                .verify();
+
+        StepVerifier
+                .create(enterpriseService.updateCompany(2L, "TESTE"))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseExistsException)
+                .verify();
+
+        assertThat(enterpriseService.getCompanies().collectList().block().size(), equalTo(2));
+    }
+
+    @Test
+    void insertConcurrentEnterprisesWithSameNameTest() throws InterruptedException {
+        int requests = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        for (int i = 0; i < requests; i++) {
+            executor.submit(() -> {
+                start.await();
+                enterpriseService.insertCompany("Teste")
+                        .doOnSuccess(v -> created.incrementAndGet())
+                        .onErrorResume(e -> Mono.empty())
+                        .block();
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertThat(created.get(), equalTo(1));
+        assertThat(enterpriseService.getCompanies().collectList().block().size(), equalTo(1));
+    }
 }
@@ -0,0 +1,65 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.exceptions.RepositoryBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.LISTING;
+import static com.ogc.boardingschedule.repositories.JdbcExecutor.Bulkhead.WRITE;
+
+public class JdbcExecutorTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private JdbcExecutor jdbcExecutor;
+
+    @BeforeEach
+    void setUp() {
+        jdbcExecutor = new JdbcExecutor(1, 1, 1, 1, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jdbcExecutor.dispose();
+    }
+
+    @Test
+    void rejectWhenBulkheadIsFullTest() throws InterruptedException {
+        Disposable running = jdbcExecutor.mono(LISTING, this::blocked).subscribe();
+        started.await();
+        Disposable queued = jdbcExecutor.mono(LISTING, this::blocked).subscribe();
+
+        StepVerifier
+                .create(jdbcExecutor.mono(LISTING, () -> Mono.just(true)))
+                .expectError(RepositoryBusyException.class)
+                .verify(Duration.ofSeconds(5));
+
+        StepVerifier
+                .create(jdbcExecutor.mono(WRITE, () -> Mono.just(true)))
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        running.dispose();
+        queued.dispose();
+    }
+
+    private Mono<Boolean> blocked() {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Mono.just(true);
+    }
+}
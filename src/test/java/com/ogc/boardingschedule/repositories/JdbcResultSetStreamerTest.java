@@ -0,0 +1,97 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.exceptions.RepositoryBusyException;
+import com.ogc.boardingschedule.service.EmployeeService;
+import com.ogc.boardingschedule.service.EnterpriseService;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Pool com uma conexão a mais que o limite de cursores: com as exportações paradas no limite, a escrita ainda
+ * precisa encontrar conexão livre em vez de esperar o connection-timeout.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streaming_test;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.hikari.maximum-pool-size=5",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "boarding.streaming.max-open-cursors=4"})
+public class JdbcResultSetStreamerTest {
+
+    private static final int MAX_OPEN_CURSORS = 4;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EnterpriseService enterpriseService;
+
+    @Test
+    void writeSucceedsWhileStreamsArePausedTest() throws InterruptedException {
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Outro", "Funcionario", 1L).block();
+
+        CountDownLatch opened = new CountDownLatch(MAX_OPEN_CURSORS);
+        List<PausedSubscriber> paused = new ArrayList<>();
+        for (int i = 0; i < MAX_OPEN_CURSORS; i++) {
+            PausedSubscriber subscriber = new PausedSubscriber(opened);
+            employeeService.streamEmployeesDetail().subscribe(subscriber);
+            paused.add(subscriber);
+        }
+        assertThat(opened.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        StepVerifier
+                .create(employeeService.streamEmployeesDetail())
+                .expectError(RepositoryBusyException.class)
+                .verify(Duration.ofSeconds(5));
+
+        StepVerifier
+                .create(employeeService.insertEmployee("Escrita", "Funcionario", 1L))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        paused.forEach(PausedSubscriber::dispose);
+
+        StepVerifier
+                .create(employeeService.streamEmployeesDetail())
+                .expectNextCount(3)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Pede uma linha e não pede mais, como um cliente que parou de ler a resposta.
+     */
+    private static final class PausedSubscriber extends BaseSubscriber<EmployeeDetail> {
+
+        private final CountDownLatch opened;
+
+        private PausedSubscriber(CountDownLatch opened) {
+            this.opened = opened;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(EmployeeDetail value) {
+            opened.countDown();
+        }
+    }
+}
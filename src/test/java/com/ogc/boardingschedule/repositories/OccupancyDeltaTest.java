@@ -0,0 +1,50 @@
+package com.ogc.boardingschedule.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OccupancyDeltaTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void rescheduleKeepsOnlyChangedDaysTest() {
+        OccupancyDelta delta = new OccupancyDelta()
+                .add(1L, START, START.plusDays(15), -1)
+                .add(1L, START.plusDays(3), START.plusDays(18), 1);
+
+        assertThat(delta.days(1L).size(), equalTo(6));
+        assertThat(delta.days(1L).get(START), equalTo(-1));
+        assertThat(delta.days(1L).get(START.plusDays(2)), equalTo(-1));
+        assertThat(delta.days(1L).containsKey(START.plusDays(3)), equalTo(false));
+        assertThat(delta.days(1L).get(START.plusDays(18)), equalTo(1));
+    }
+
+    @Test
+    void transferBetweenEnterprisesTest() {
+        OccupancyDelta delta = new OccupancyDelta()
+                .add(2L, START, START.plusDays(1), -1)
+                .add(1L, START, START.plusDays(1), 1)
+                .add(null, START, START.plusDays(1), 1);
+
+        assertThat(delta.enterpriseIds(), equalTo(new TreeSet<>(Arrays.asList(1L, 2L))));
+        assertThat(delta.days(1L).get(START.plusDays(1)), equalTo(1));
+        assertThat(delta.days(2L).get(START), equalTo(-1));
+    }
+
+    @Test
+    void cancelledDeltaIsEmptyTest() {
+        OccupancyDelta delta = new OccupancyDelta()
+                .add(1L, START, START.plusDays(15), 1)
+                .add(1L, START, START.plusDays(15), -1);
+
+        assertThat(delta.isEmpty(), equalTo(true));
+        assertThat(delta.days(1L).isEmpty(), equalTo(true));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.BoardingStatus;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.EmployeeOnBoardException;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+import com.ogc.boardingschedule.exceptions.EnterpriseException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import com.ogc.boardingschedule.service.BoardingService;
+import com.ogc.boardingschedule.service.EmployeeService;
+import com.ogc.boardingschedule.service.EnterpriseService;
+import com.ogc.boardingschedule.service.OccupancyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class OccupancyServiceTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EnterpriseService enterpriseService;
+
+    @Autowired
+    private BoardingService boardingService;
+
+    @Autowired
+    private OccupancyService occupancyService;
+
+    @Autowired
+    private OccupancyRepository occupancyRepository;
+
+    @Test
+    void occupancyFollowsBoardingWritesTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Outro", "Mergulhador", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate).block();
+        boardingService.insertNewBoarding(2L, startDate.plusDays(5)).block();
+
+        List<DailyOccupancy> occupancy = occupancy(1L, startDate, startDate.plusDays(24));
+        assertThat(occupancy.size(), equalTo(25));
+        assertThat(occupancy.get(0).getCount(), equalTo(1));
+        assertThat(occupancy.get(5).getCount(), equalTo(2));
+        assertThat(occupancy.get(15).getCount(), equalTo(2));
+        assertThat(occupancy.get(16).getCount(), equalTo(1));
+        assertThat(occupancy.get(20).getCount(), equalTo(1));
+        assertThat(occupancy.get(21).getCount(), equalTo(0));
+
+        boardingService.updateBoardingSchedule(1L, 1L, startDate.plusDays(40)).block();
+        occupancy = occupancy(1L, startDate, startDate.plusDays(55));
+        assertThat(occupancy.get(0).getCount(), equalTo(0));
+        assertThat(occupancy.get(5).getCount(), equalTo(1));
+        assertThat(occupancy.get(40).getCount(), equalTo(1));
+        assertThat(occupancy.get(55).getCount(), equalTo(1));
+
+        boardingService.deleteBoardingScheduleById(2L).block();
+        occupancy = occupancy(1L, startDate, startDate.plusDays(55));
+        assertThat(occupancy.get(5).getCount(), equalTo(0));
+        assertThat(occupancy.get(40).getCount(), equalTo(1));
+
+        assertThat(occupancyService.rebuildDailyOccupancy().block(), equalTo(16));
+        assertThat(occupancy(1L, startDate, startDate.plusDays(55)), equalTo(occupancy));
+    }
+
+    @Test
+    void occupancyFollowsEmployeeTransferTest(){
+        enterpriseService.insertCompany("Teste").block();
+        enterpriseService.insertCompany("Outra").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate).block();
+        assertThat(occupancy(1L, startDate, startDate).get(0).getCount(), equalTo(1));
+
+        employeeService.updateEmployee(1L, "Teste", "Funcionario", 2L).block();
+        assertThat(occupancy(1L, startDate, startDate).get(0).getCount(), equalTo(0));
+        assertThat(occupancy(2L, startDate, startDate.plusDays(15)).stream()
+                .allMatch(day -> day.getCount() == 1 && day.getEnterpriseId().equals(2L)), equalTo(true));
+    }
+
+    @Test
+    void deleteEnterpriseAfterTransferTest(){
+        enterpriseService.insertCompany("Teste").block();
+        enterpriseService.insertCompany("Outra").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate).block();
+        occupancyService.setCapacity(1L, 1).block();
+        employeeService.updateEmployee(1L, "Teste", "Funcionario", 2L).block();
+        assertThat(occupancyRepository.getDailyOccupancy(1L, startDate, startDate.plusDays(15)).count().block(), equalTo(0L));
+
+        enterpriseService.deleteCompanyById(1L).block();
+        StepVerifier
+                .create(enterpriseService.getCompanyById(1L))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void occupancyWrongDatesTest(){
+        LocalDate startDate = LocalDate.now();
+
+        StepVerifier
+                .create(occupancyService.getDailyOccupancy(1L, startDate, startDate.minusDays(1)))
+                .expectErrorMatches(throwable -> throwable instanceof BoardingException)
+                .verify();
+    }
+
+    @Test
+    void capacityLimitsInsertAndUpdateTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Outro", "Mergulhador", 1L).block();
+        assertThat(occupancyService.getCapacity(1L).block().getMaxHeadcount() == null, equalTo(true));
+
+        occupancyService.setCapacity(1L, 1).block();
+        assertThat(occupancyService.getCapacity(1L).block().getMaxHeadcount(), equalTo(1));
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(1L, startDate).block();
+        StepVerifier
+                .create(boardingService.insertNewBoarding(2L, startDate.plusDays(15)))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseCapacityExceededException)
+                .verify();
+        StepVerifier
+                .create(boardingService.insertNewBoarding(1L, startDate.plusDays(5)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeOnBoardException)
+                .verify();
+
+        boardingService.insertNewBoarding(2L, startDate.plusDays(40)).block();
+        Long boardingId = boardingService.getBoardingsByEmployeeId(2L).blockFirst().getId();
+        assertThat(boardingId, equalTo(2L));
+        StepVerifier
+                .create(boardingService.updateBoardingSchedule(boardingId, 2L, startDate.plusDays(5)))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseCapacityExceededException)
+                .verify();
+        assertThat(occupancy(1L, startDate.plusDays(5), startDate.plusDays(5)).get(0).getCount(), equalTo(1));
+
+        occupancyService.deleteCapacity(1L).block();
+        boardingService.updateBoardingSchedule(boardingId, 2L, startDate.plusDays(5)).block();
+        assertThat(occupancy(1L, startDate.plusDays(5), startDate.plusDays(5)).get(0).getCount(), equalTo(2));
+    }
+
+    @Test
+    void capacityLimitsBulkInsertTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Funcionario", 1L).block();
+        employeeService.insertEmployee("Outro", "Mergulhador", 1L).block();
+        occupancyService.setCapacity(1L, 1).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        List<BoardingResult> results = boardingService.insertNewBoardings(Arrays.asList(
+                new BoardingRequest(1L, startDate),
+                new BoardingRequest(2L, startDate.plusDays(3)))).block();
+
+        assertThat(results.get(0).getStatus(), equalTo(BoardingStatus.CREATED));
+        assertThat(results.get(1).getStatus(), equalTo(BoardingStatus.CAPACITY_EXCEEDED));
+        assertThat(occupancy(1L, startDate.plusDays(3), startDate.plusDays(3)).get(0).getCount(), equalTo(1));
+    }
+
+    @Test
+    void capacityWrongValuesTest(){
+        StepVerifier
+                .create(occupancyService.setCapacity(1L, -1))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseException)
+                .verify();
+        StepVerifier
+                .create(occupancyService.setCapacity(1L, 1))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseNotExistsException)
+                .verify();
+    }
+
+    private List<DailyOccupancy> occupancy(Long enterpriseId, LocalDate initDate, LocalDate endDate) {
+        return occupancyService.getDailyOccupancy(enterpriseId, initDate, endDate).collectList().block();
+    }
+}
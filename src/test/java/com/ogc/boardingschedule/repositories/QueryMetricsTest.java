@@ -0,0 +1,62 @@
+package com.ogc.boardingschedule.repositories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static com.ogc.boardingschedule.repositories.BoardingQueries.QUERY_GET_BOARDING_SCHEDULE_BY_ID;
+import static com.ogc.boardingschedule.repositories.EmployeeQueries.QUERY_GET_EMPLOYEE_NAMES;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryMetrics queryMetrics = new QueryMetrics(meterRegistry);
+
+    @Test
+    void queryNameTest() {
+        assertThat(QueryMetrics.name(QUERY_GET_BOARDING_SCHEDULE_BY_ID), equalTo("QUERY_GET_BOARDING_SCHEDULE_BY_ID"));
+        assertThat(QueryMetrics.name(QUERY_GET_EMPLOYEE_NAMES), equalTo("QUERY_GET_EMPLOYEE_NAMES"));
+        assertThat(QueryMetrics.name("SELECT 1"), equalTo(QueryMetrics.OTHER));
+    }
+
+    @Test
+    void recordBlockingCallTest() {
+        assertThat(queryMetrics.record(QUERY_GET_BOARDING_SCHEDULE_BY_ID, () -> 1), equalTo(1));
+        assertThrows(IllegalStateException.class, () -> queryMetrics.record(QUERY_GET_BOARDING_SCHEDULE_BY_ID, () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        assertThat(timerCount("boarding", "QUERY_GET_BOARDING_SCHEDULE_BY_ID", "success"), equalTo(1L));
+        assertThat(timerCount("boarding", "QUERY_GET_BOARDING_SCHEDULE_BY_ID", "error"), equalTo(1L));
+        assertThat(meterRegistry.counter(QueryMetrics.ERRORS, "repository", "boarding",
+                "query", "QUERY_GET_BOARDING_SCHEDULE_BY_ID", "exception", "IllegalStateException").count(), equalTo(1.0));
+    }
+
+    @Test
+    void recordReactiveCallTest() {
+        Flux<Integer> rows = queryMetrics.record(QUERY_GET_EMPLOYEE_NAMES, Flux.just(1, 2, 3));
+        assertThat(timerCount("employee", "QUERY_GET_EMPLOYEE_NAMES", "success"), equalTo(0L));
+
+        StepVerifier.create(rows).expectNextCount(3).verifyComplete();
+        StepVerifier.create(queryMetrics.record(QUERY_GET_EMPLOYEE_NAMES, Mono.error(new IllegalStateException("falha"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(queryMetrics.record("SELECT 1", Flux.never()))
+                .thenCancel()
+                .verify();
+
+        assertThat(timerCount("employee", "QUERY_GET_EMPLOYEE_NAMES", "success"), equalTo(1L));
+        assertThat(timerCount("employee", "QUERY_GET_EMPLOYEE_NAMES", "error"), equalTo(1L));
+        assertThat(timerCount(QueryMetrics.OTHER, QueryMetrics.OTHER, "cancelled"), equalTo(1L));
+    }
+
+    private long timerCount(String repository, String query, String outcome) {
+        return meterRegistry.timer(QueryMetrics.TIMER, "repository", repository, "query", query, "outcome", outcome).count();
+    }
+}
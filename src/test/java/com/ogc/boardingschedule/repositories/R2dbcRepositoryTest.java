@@ -0,0 +1,282 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.BoardingResult;
+import com.ogc.boardingschedule.domain.BoardingStatus;
+import com.ogc.boardingschedule.domain.DailyOccupancy;
+import com.ogc.boardingschedule.domain.Employee;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import com.ogc.boardingschedule.domain.Enterprise;
+import com.ogc.boardingschedule.domain.Page;
+import com.ogc.boardingschedule.domain.PageCursor;
+import com.ogc.boardingschedule.exceptions.BoardingScheduleNotExistsException;
+import com.ogc.boardingschedule.exceptions.EmployeeInDayOffException;
+import com.ogc.boardingschedule.exceptions.EmployeeNotExistsException;
+import com.ogc.boardingschedule.exceptions.EmployeeOnBoardException;
+import com.ogc.boardingschedule.exceptions.EnterpriseCapacityExceededException;
+import com.ogc.boardingschedule.exceptions.EnterpriseExistsException;
+import com.ogc.boardingschedule.exceptions.EnterpriseNotExistsException;
+import com.ogc.boardingschedule.service.EmployeeService;
+import com.ogc.boardingschedule.service.EnterpriseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Os repositórios R2DBC compartilham o banco em memória com o DataSource usado pelo Flyway,
+ * por isso cada teste usa seus próprios nomes em vez de recriar o contexto.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:r2dbc_test;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "boarding.r2dbc.url=r2dbc:h2:mem:///r2dbc_test?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL"})
+@ActiveProfiles("r2dbc")
+public class R2dbcRepositoryTest {
+
+    private static final Long MISSING_ID = 999999L;
+
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private BoardingRepository boardingRepository;
+
+    @Autowired
+    private OccupancyRepository occupancyRepository;
+
+    @Autowired
+    private EnterpriseService enterpriseService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    void r2dbcProfileSelectsR2dbcRepositoriesTest(){
+        assertThat(enterpriseRepository, instanceOf(R2dbcEnterpriseRepository.class));
+        assertThat(employeeRepository, instanceOf(R2dbcEmployeeRepository.class));
+        assertThat(boardingRepository, instanceOf(R2dbcBoardingRepository.class));
+        assertThat(occupancyRepository, instanceOf(R2dbcOccupancyRepository.class));
+    }
+
+    @Test
+    void insertAndUpdateEnterpriseTest(){
+        enterpriseService.insertCompany("R2dbc Alfa").block();
+        enterpriseService.insertCompany("R2dbc Beta").block();
+
+        StepVerifier
+                .create(enterpriseService.insertCompany(" r2dbc alfa "))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseExistsException)
+                .verify();
+
+        Enterprise alfa = enterpriseService.getCompanyByName("R2DBC ALFA").block();
+        assertThat(alfa.getName(), equalTo("R2dbc Alfa"));
+
+        StepVerifier
+                .create(enterpriseService.updateCompany(alfa.getId(), "R2dbc Beta"))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseExistsException)
+                .verify();
+
+        enterpriseService.updateCompany(alfa.getId(), "R2dbc Gama").block();
+        assertThat(enterpriseService.getCompanyById(alfa.getId()).block().getName(), equalTo("R2dbc Gama"));
+
+        StepVerifier
+                .create(enterpriseService.getCompanyById(MISSING_ID))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void insertAndSearchEmployeeTest(){
+        Long employeeId = newEmployee("R2dbc Delta", "Rodrigo Reativo");
+
+        EmployeeDetail employee = employeeService.getEmployeeDetailById(employeeId).block();
+        assertThat(employee.getName(), equalTo("Rodrigo Reativo"));
+        assertThat(employee.getEnterpriseName(), equalTo("R2dbc Delta"));
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailByName("reatvo", 10, true))
+                .expectNextMatches(found -> found.getId().equals(employeeId))
+                .verifyComplete();
+
+        employeeService.deleteEmployeeById(employeeId).block();
+
+        StepVerifier
+                .create(employeeService.getEmployeeDetailById(employeeId))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void insertEmployeesBatchIndexesGeneratedIdsTest(){
+        enterpriseService.insertCompany("R2dbc Lote").block();
+        Long enterpriseId = enterpriseService.getCompanyByName("R2dbc Lote").block().getId();
+
+        Integer inserted = employeeRepository.insertNewEmployees(Arrays.asList(
+                new Employee(null, "Lote Reativo Um", "Mergulhador", enterpriseId),
+                new Employee(null, "Lote Reativo Dois", "Funcionario", enterpriseId))).block();
+
+        assertThat(inserted, equalTo(2));
+        assertThat(employeeService.getEmployeeDetailByName("Lote Reativo", 10, false)
+                .map(EmployeeDetail::getName).collectList().block(), equalTo(Arrays.asList("Lote Reativo Um", "Lote Reativo Dois")));
+    }
+
+    @Test
+    void insertBoardingConflictsTest(){
+        Long employeeId = newEmployee("R2dbc Epsilon", "Renata Conflito");
+        LocalDate startDate = LocalDate.now().plusDays(1);
+
+        boardingRepository.insertNewBoarding(employeeId, startDate, startDate.plusDays(15)).block();
+
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(employeeId, startDate.plusDays(5), startDate.plusDays(20)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeOnBoardException)
+                .verify();
+
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(employeeId, startDate.plusDays(16), startDate.plusDays(31)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeInDayOffException)
+                .verify();
+
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(MISSING_ID, startDate, startDate.plusDays(15)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeNotExistsException)
+                .verify();
+
+        List<BoardingDetail> boardings = boardingRepository.getBoardingByEmployeeId(employeeId).collectList().block();
+        assertThat(boardings.size(), equalTo(1));
+
+        boardingRepository.updateBoardingSchedule(boardings.get(0).getId(), employeeId,
+                startDate.plusDays(30), startDate.plusDays(45)).block();
+        BoardSchedule updated = boardingRepository.getBoardingScheduleById(boardings.get(0).getId()).block();
+        assertThat(updated.getInitDate(), equalTo(startDate.plusDays(30)));
+
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(employeeId, startDate.plusDays(10), startDate.plusDays(25)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeInDayOffException)
+                .verify();
+
+        StepVerifier
+                .create(boardingRepository.updateBoardingSchedule(MISSING_ID, employeeId,
+                        startDate.plusDays(60), startDate.plusDays(75)))
+                .expectErrorMatches(throwable -> throwable instanceof BoardingScheduleNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void insertBoardingsInBulkTest(){
+        Long employeeId = newEmployee("R2dbc Zeta", "Bruno Lote");
+        Long enterpriseId = employeeService.getEmployeeDetailById(employeeId).block().getEnterpriseId();
+        LocalDate startDate = LocalDate.now().plusDays(1);
+
+        List<BoardingResult> results = boardingRepository.insertNewBoardings(Arrays.asList(
+                new BoardSchedule(null, employeeId, startDate, startDate.plusDays(15)),
+                new BoardSchedule(null, employeeId, startDate.plusDays(5), startDate.plusDays(20)),
+                new BoardSchedule(null, MISSING_ID, startDate, startDate.plusDays(15)),
+                new BoardSchedule(null, employeeId, startDate.plusDays(16), startDate.plusDays(31)),
+                new BoardSchedule(null, employeeId, startDate.plusDays(23), startDate.plusDays(38)))).block();
+
+        assertThat(results.get(0).getStatus(), equalTo(BoardingStatus.CREATED));
+        assertThat(results.get(1).getStatus(), equalTo(BoardingStatus.EMPLOYEE_ON_BOARD));
+        assertThat(results.get(2).getStatus(), equalTo(BoardingStatus.EMPLOYEE_NOT_EXISTS));
+        assertThat(results.get(3).getStatus(), equalTo(BoardingStatus.EMPLOYEE_IN_DAY_OFF));
+        assertThat(results.get(4).getStatus(), equalTo(BoardingStatus.CREATED));
+
+        Page<BoardingDetail> page = boardingRepository.getBoardingPageByEnterpriseId(enterpriseId, PageCursor.first(), 1).block();
+        assertThat(page.getItems().size(), equalTo(1));
+        assertThat(page.getItems().get(0).getInitDate().toLocalDate(), equalTo(startDate));
+
+        Page<BoardingDetail> next = boardingRepository.getBoardingPageByEnterpriseId(enterpriseId, PageCursor.decodeByInitDate(page.getNext()), 1).block();
+        assertThat(next.getItems().get(0).getInitDate().toLocalDate(), equalTo(startDate.plusDays(23)));
+        assertThat(next.getNext() == null, equalTo(true));
+    }
+
+    @Test
+    void dailyOccupancyFollowsWritesTest(){
+        Long employeeId = newEmployee("R2dbc Eta", "Olga Ocupada");
+        Long enterpriseId = employeeService.getEmployeeDetailById(employeeId).block().getEnterpriseId();
+        LocalDate startDate = LocalDate.now().plusDays(1);
+
+        boardingRepository.insertNewBoarding(employeeId, startDate, startDate.plusDays(15)).block();
+        List<DailyOccupancy> occupancy = occupancyRepository.getDailyOccupancy(enterpriseId, startDate, startDate.plusDays(40))
+                .collectList().block();
+        assertThat(occupancy.size(), equalTo(16));
+        assertThat(occupancy.get(0).getCount(), equalTo(1));
+
+        Long boardingId = boardingRepository.getBoardingByEmployeeId(employeeId).blockFirst().getId();
+        boardingRepository.updateBoardingSchedule(boardingId, employeeId, startDate.plusDays(5), startDate.plusDays(20)).block();
+        occupancy = occupancyRepository.getDailyOccupancy(enterpriseId, startDate, startDate.plusDays(40)).collectList().block();
+        assertThat(occupancy.size(), equalTo(16));
+        assertThat(occupancy.get(0).getDay(), equalTo(startDate.plusDays(5)));
+        assertThat(occupancy.get(occupancy.size() - 1).getDay(), equalTo(startDate.plusDays(20)));
+
+        boardingRepository.deleteBordingScheduleById(boardingId).block();
+        assertThat(occupancyRepository.getDailyOccupancy(enterpriseId, startDate, startDate.plusDays(40))
+                .count().block(), equalTo(0L));
+
+        occupancyRepository.rebuildDailyOccupancy().block();
+        assertThat(occupancyRepository.getDailyOccupancy(enterpriseId, startDate, startDate.plusDays(40))
+                .count().block(), equalTo(0L));
+
+        boardingRepository.insertNewBoarding(employeeId, startDate, startDate.plusDays(15)).block();
+        enterpriseService.insertCompany("R2dbc Eta Destino").block();
+        Long otherEnterpriseId = enterpriseService.getCompanyByName("R2dbc Eta Destino").block().getId();
+        employeeService.updateEmployee(employeeId, "Olga Ocupada", "Funcionario", otherEnterpriseId).block();
+        enterpriseService.deleteCompanyById(enterpriseId).block();
+        StepVerifier
+                .create(enterpriseRepository.getCompanyById(enterpriseId))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseNotExistsException)
+                .verify();
+    }
+
+    @Test
+    void capacityLimitsTest(){
+        Long employeeId = newEmployee("R2dbc Theta", "Tiago Teto");
+        Long enterpriseId = employeeService.getEmployeeDetailById(employeeId).block().getEnterpriseId();
+        employeeService.insertEmployee("Tania Teto", "Funcionario", enterpriseId).block();
+        Long otherId = employeeService.getEmployeeDetailByName("Tania Teto", 1, false).blockFirst().getId();
+        LocalDate startDate = LocalDate.now().plusDays(1);
+
+        occupancyRepository.setCapacity(enterpriseId, 1).block();
+        assertThat(occupancyRepository.getCapacity(enterpriseId).block().getMaxHeadcount(), equalTo(1));
+
+        boardingRepository.insertNewBoarding(employeeId, startDate, startDate.plusDays(15)).block();
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(otherId, startDate.plusDays(10), startDate.plusDays(25)))
+                .expectErrorMatches(throwable -> throwable instanceof EnterpriseCapacityExceededException)
+                .verify();
+        StepVerifier
+                .create(boardingRepository.insertNewBoarding(employeeId, startDate.plusDays(5), startDate.plusDays(20)))
+                .expectErrorMatches(throwable -> throwable instanceof EmployeeOnBoardException)
+                .verify();
+
+        List<BoardingResult> results = boardingRepository.insertNewBoardings(Arrays.asList(
+                new BoardSchedule(null, otherId, startDate.plusDays(3), startDate.plusDays(18)))).block();
+        assertThat(results.get(0).getStatus(), equalTo(BoardingStatus.CAPACITY_EXCEEDED));
+
+        occupancyRepository.deleteCapacity(enterpriseId).block();
+        assertThat(occupancyRepository.getCapacity(enterpriseId).blockOptional().isPresent(), equalTo(false));
+        boardingRepository.insertNewBoarding(otherId, startDate.plusDays(10), startDate.plusDays(25)).block();
+        assertThat(occupancyRepository.getDailyOccupancy(enterpriseId, startDate.plusDays(10), startDate.plusDays(10))
+                .blockFirst().getCount(), equalTo(2));
+    }
+
+    private Long newEmployee(String enterpriseName, String employeeName) {
+        enterpriseService.insertCompany(enterpriseName).block();
+        Long enterpriseId = enterpriseService.getCompanyByName(enterpriseName).block().getId();
+        employeeService.insertEmployee(employeeName, "Funcionario", enterpriseId).block();
+        return employeeService.getEmployeeDetailByName(employeeName, 1, false).blockFirst().getId();
+    }
+}
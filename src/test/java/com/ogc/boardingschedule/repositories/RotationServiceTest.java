@@ -0,0 +1,98 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardingStatus;
+import com.ogc.boardingschedule.domain.RotationPlan;
+import com.ogc.boardingschedule.domain.RotationRequest;
+import com.ogc.boardingschedule.exceptions.BoardingException;
+import com.ogc.boardingschedule.exceptions.WrongInitDateException;
+import com.ogc.boardingschedule.service.BoardingService;
+import com.ogc.boardingschedule.service.EmployeeService;
+import com.ogc.boardingschedule.service.EnterpriseService;
+import com.ogc.boardingschedule.service.RotationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class RotationServiceTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EnterpriseService enterpriseService;
+
+    @Autowired
+    private BoardingService boardingService;
+
+    @Autowired
+    private RotationService rotationService;
+
+    @Test
+    void planAndPersistRotationTest(){
+        enterpriseService.insertCompany("Teste").block();
+        employeeService.insertEmployee("Teste", "Mergulhador", 1L).block();
+        employeeService.insertEmployee("Outro", "Mergulhador", 1L).block();
+        employeeService.insertEmployee("Terceiro", "Cozinheiro", 1L).block();
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        boardingService.insertNewBoarding(3L, startDate.minusDays(1)).block();
+
+        Map<String, Integer> minimumCoverage = new HashMap<>();
+        minimumCoverage.put("Mergulhador", 1);
+        minimumCoverage.put("Cozinheiro", 1);
+        RotationPlan plan = rotationService.planRotation(RotationRequest.builder()
+                .employeeIds(Arrays.asList(1L, 2L, 3L, 99L))
+                .initDate(startDate)
+                .endDate(startDate.plusDays(37))
+                .minimumCoverage(minimumCoverage)
+                .persist(true)
+                .build()).block();
+
+        assertThat(plan.getBoardings().size(), equalTo(4));
+        assertThat(plan.getBoardings().get(0).getEmployeeId(), equalTo(1L));
+        assertThat(plan.getBoardings().get(2).getInitDate(), equalTo(startDate.plusDays(22)));
+        assertThat(plan.getShortfalls().size(), equalTo(1));
+        assertThat(plan.getShortfalls().get(0).getRole(), equalTo("Cozinheiro"));
+        assertThat(plan.getShortfalls().get(0).getInitDate(), equalTo(startDate.plusDays(15)));
+        assertThat(plan.getShortfalls().get(0).getEndDate(), equalTo(startDate.plusDays(21)));
+        assertThat(plan.getResults().stream().allMatch(result -> result.getStatus() == BoardingStatus.CREATED), equalTo(true));
+        assertThat(boardingService.getBoardings().count().block(), equalTo(5L));
+    }
+
+    @Test
+    void planRotationWrongValuesTest(){
+        LocalDate startDate = LocalDate.now().plusDays(1);
+
+        StepVerifier
+                .create(rotationService.planRotation(RotationRequest.builder()
+                        .initDate(startDate).endDate(startDate.minusDays(1)).build()))
+                .expectErrorMatches(throwable -> throwable instanceof BoardingException)
+                .verify();
+        StepVerifier
+                .create(rotationService.planRotation(RotationRequest.builder()
+                        .initDate(startDate.minusDays(2)).endDate(startDate).build()))
+                .expectErrorMatches(throwable -> throwable instanceof WrongInitDateException)
+                .verify();
+        StepVerifier
+                .create(rotationService.planRotation(RotationRequest.builder()
+                        .initDate(startDate).endDate(startDate.plusDays(10))
+                        .minimumCoverage(Collections.singletonMap("Mergulhador", -1)).build()))
+                .expectErrorMatches(throwable -> throwable instanceof BoardingException)
+                .verify();
+    }
+}
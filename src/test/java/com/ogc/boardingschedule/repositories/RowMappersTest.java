@@ -0,0 +1,79 @@
+package com.ogc.boardingschedule.repositories;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingDetail;
+import com.ogc.boardingschedule.domain.EmployeeDetail;
+import org.h2.tools.SimpleResultSet;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RowMappersTest {
+
+    private static final LocalDateTime INIT_DATE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void mapBoardingDetailTest() throws SQLException {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.addColumn("ID", Types.BIGINT, 19, 0);
+        rs.addColumn("INITDATE", Types.TIMESTAMP, 26, 0);
+        rs.addColumn("ENDDATE", Types.TIMESTAMP, 26, 0);
+        rs.addColumn("EMPLOYEEID", Types.BIGINT, 19, 0);
+        rs.addColumn("EMPLOYEENAME", Types.VARCHAR, 150, 0);
+        rs.addColumn("ROLE", Types.VARCHAR, 150, 0);
+        rs.addColumn("ENTERPRISEID", Types.BIGINT, 19, 0);
+        rs.addColumn("ENTERPRISENAME", Types.VARCHAR, 150, 0);
+        rs.addRow(1L, Timestamp.valueOf(INIT_DATE), Timestamp.valueOf(INIT_DATE.plusDays(15)), 2L, "Teste", "Funcionario", 3L, "Empresa");
+        rs.next();
+
+        BoardingDetail detail = RowMappers.BOARDING_DETAIL.mapRow(rs, 0);
+
+        assertThat(detail, equalTo(new BoardingDetail(1L, 2L, INIT_DATE, INIT_DATE.plusDays(15), "Teste", "Funcionario", 3L, "Empresa")));
+    }
+
+    @Test
+    void mapBoardScheduleTest() throws SQLException {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.addColumn("ID", Types.BIGINT, 19, 0);
+        rs.addColumn("EMPLOYEEID", Types.BIGINT, 19, 0);
+        rs.addColumn("INITDATE", Types.TIMESTAMP, 26, 0);
+        rs.addColumn("ENDDATE", Types.TIMESTAMP, 26, 0);
+        rs.addRow(1L, 2L, Timestamp.valueOf(INIT_DATE), null);
+        rs.next();
+
+        BoardSchedule schedule = RowMappers.BOARD_SCHEDULE.mapRow(rs, 0);
+
+        assertThat(schedule, equalTo(new BoardSchedule(1L, 2L, LocalDate.of(2030, 1, 1), null)));
+    }
+
+    @Test
+    void mapEmployeeDetailWithNullsAndInternedStringsTest() throws SQLException {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.addColumn("ID", Types.BIGINT, 19, 0);
+        rs.addColumn("NAME", Types.VARCHAR, 150, 0);
+        rs.addColumn("ROLE", Types.VARCHAR, 150, 0);
+        rs.addColumn("ENTERPRISE_ID", Types.BIGINT, 19, 0);
+        rs.addColumn("ENTERPRISENAME", Types.VARCHAR, 150, 0);
+        rs.addRow(1L, "Teste", new String("Funcionario"), null, null);
+        rs.addRow(2L, "Outro", new String("Funcionario"), 1L, "Empresa");
+
+        rs.next();
+        EmployeeDetail first = RowMappers.EMPLOYEE_DETAIL.mapRow(rs, 0);
+        rs.next();
+        EmployeeDetail second = RowMappers.EMPLOYEE_DETAIL.mapRow(rs, 1);
+
+        assertThat(first.getEnterpriseId(), nullValue());
+        assertThat(first.getEnterpriseName(), nullValue());
+        assertThat(second.getEnterpriseId(), equalTo(1L));
+        assertThat(second.getRole(), sameInstance(first.getRole()));
+    }
+}
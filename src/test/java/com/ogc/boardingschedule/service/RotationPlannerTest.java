@@ -0,0 +1,78 @@
+package com.ogc.boardingschedule.service;
+
+import com.ogc.boardingschedule.domain.BoardSchedule;
+import com.ogc.boardingschedule.domain.BoardingRequest;
+import com.ogc.boardingschedule.domain.RotationShortfall;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RotationPlannerTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void alternatesCrewWithDayOffTest() {
+        RotationPlanner planner = new RotationPlanner("Mergulhador", 1, START, START.plusDays(40))
+                .plan(Arrays.asList(1L, 2L), Collections.emptyMap());
+
+        assertThat(planner.boardings(), equalTo(Arrays.asList(
+                boarding(1L, 0), boarding(2L, 16), boarding(1L, 32))));
+        assertThat(planner.shortfalls().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void shortfallWhileCrewRestsTest() {
+        RotationPlanner planner = new RotationPlanner("Mergulhador", 2, START, START.plusDays(30))
+                .plan(Arrays.asList(1L, 2L), Collections.emptyMap());
+
+        assertThat(planner.boardings().size(), equalTo(4));
+        assertThat(planner.boardings().get(2), equalTo(boarding(1L, 23)));
+        List<RotationShortfall> shortfalls = planner.shortfalls();
+        assertThat(shortfalls.size(), equalTo(1));
+        assertThat(shortfalls.get(0), equalTo(new RotationShortfall("Mergulhador", START.plusDays(16), START.plusDays(22), 2)));
+    }
+
+    @Test
+    void existingBoardingsTest() {
+        RotationPlanner planner = new RotationPlanner("Cozinheiro", 1, START, START.plusDays(30))
+                .plan(Arrays.asList(1L, 2L), Collections.singletonMap(1L, Collections.singletonList(
+                        new BoardSchedule(10L, 1L, START.minusDays(5), START.plusDays(10)))));
+
+        assertThat(planner.boardings(), equalTo(Arrays.asList(boarding(2L, 11), boarding(1L, 27))));
+        assertThat(planner.shortfalls().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void startBeforeExistingBoardingNeedsDayOffTest() {
+        RotationPlanner planner = new RotationPlanner("Cozinheiro", 1, START, START.plusDays(9))
+                .plan(Collections.singletonList(1L), Collections.singletonMap(1L, Collections.singletonList(
+                        new BoardSchedule(10L, 1L, START.plusDays(10), START.plusDays(25)))));
+
+        assertThat(planner.boardings().isEmpty(), equalTo(true));
+        assertThat(planner.shortfalls(), equalTo(Collections.singletonList(
+                new RotationShortfall("Cozinheiro", START, START.plusDays(9), 1))));
+    }
+
+    @Test
+    void largeCrewTest() {
+        List<Long> employeeIds = LongStream.rangeClosed(1, 3000).boxed().collect(Collectors.toList());
+        RotationPlanner planner = new RotationPlanner("Soldador", 1000, START, START.plusDays(364))
+                .plan(employeeIds, Collections.emptyMap());
+
+        assertThat(planner.shortfalls().isEmpty(), equalTo(true));
+        assertThat(planner.boardings().size() >= 1000 * 365 / 16, equalTo(true));
+    }
+
+    private static BoardingRequest boarding(Long employeeId, int day) {
+        return new BoardingRequest(employeeId, START.plusDays(day));
+    }
+}